@@ -1,15 +1,26 @@
 plugins {
 	java
 	id("org.springframework.boot") version "3.3.6"
+	id("org.springframework.boot.aot") version "3.3.6"
 	id("io.spring.dependency-management") version "1.1.7"
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "banking"
 version = "0.0.1-SNAPSHOT"
 
+val javaVersion = providers.gradleProperty("javaVersion").getOrElse("17").toInt()
+
 java {
 	toolchain {
-		languageVersion = JavaLanguageVersion.of(17)
+		languageVersion = JavaLanguageVersion.of(javaVersion)
+	}
+}
+
+sourceSets {
+	create("loadtest") {
+		compileClasspath += sourceSets.main.get().output
+		runtimeClasspath += sourceSets.main.get().output
 	}
 }
 
@@ -17,6 +28,18 @@ configurations {
 	compileOnly {
 		extendsFrom(configurations.annotationProcessor.get())
 	}
+	named("loadtestImplementation") {
+		extendsFrom(configurations.implementation.get())
+	}
+	named("loadtestRuntimeOnly") {
+		extendsFrom(configurations.runtimeOnly.get())
+	}
+	named("loadtestCompileOnly") {
+		extendsFrom(configurations.compileOnly.get())
+	}
+	named("loadtestAnnotationProcessor") {
+		extendsFrom(configurations.annotationProcessor.get())
+	}
 }
 
 repositories {
@@ -28,9 +51,16 @@ extra["tanzuScgExtensionsVersion"] = "1.0.0"
 
 dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+	implementation("org.hibernate.orm:hibernate-jcache")
+	implementation("com.github.ben-manes.caffeine:jcache")
 	implementation("org.springframework.boot:spring-boot-starter-security")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 	implementation("org.springframework.boot:spring-boot-starter-web")
+	implementation("org.springframework:spring-webflux")
+	implementation("io.projectreactor.netty:reactor-netty-http")
+	implementation("org.springframework:spring-r2dbc")
+	runtimeOnly("org.postgresql:r2dbc-postgresql")
+	runtimeOnly("io.r2dbc:r2dbc-pool")
 	implementation("org.liquibase:liquibase-core")
 	compileOnly("org.projectlombok:lombok:1.18.28")
 	annotationProcessor("org.projectlombok:lombok:1.18.28")
@@ -38,6 +68,8 @@ dependencies {
 	annotationProcessor("org.projectlombok:lombok")
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
 	testImplementation("org.springframework.security:spring-security-test")
+	testImplementation("org.testcontainers:junit-jupiter")
+	testImplementation("org.testcontainers:postgresql")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 	implementation("io.jsonwebtoken:jjwt-api:0.11.5")
 	runtimeOnly("io.jsonwebtoken:jjwt-impl:0.11.5")
@@ -45,12 +77,84 @@ dependencies {
 	implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.1.0")
 	implementation("org.springframework.retry:spring-retry")
 	implementation("org.springframework.boot:spring-boot-starter-aop")
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
+	"loadtestImplementation"("org.hdrhistogram:HdrHistogram:2.2.2")
 }
 
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
 
+tasks.named<Test>("test") {
+	useJUnitPlatform {
+		excludeTags("query-plan")
+	}
+}
+
+tasks.register<Test>("queryPlanTest") {
+	description = "Проверяет планы запросов репозиториев на заполненной базе Postgres"
+	group = "verification"
+	testClassesDirs = sourceSets.test.get().output.classesDirs
+	classpath = sourceSets.test.get().runtimeClasspath
+	useJUnitPlatform {
+		includeTags("query-plan")
+	}
+}
+
+tasks.register<JavaExec>("loadTest") {
+	description = "Нагрузочный прогон приложения по сценарию с фиксированной интенсивностью запросов"
+	group = "verification"
+	classpath = sourceSets["loadtest"].runtimeClasspath
+	mainClass.set("banking.boby.loadtest.LoadTestRunner")
+	javaLauncher.set(javaToolchains.launcherFor {
+		languageVersion = JavaLanguageVersion.of(javaVersion)
+	})
+	args("--loadtest.output-dir=" + layout.buildDirectory.dir("loadtest").get().asFile.absolutePath)
+	providers.gradleProperty("loadArgs").orNull?.let { loadArgs ->
+		args(loadArgs.split(" ").filter { it.isNotBlank() })
+	}
+}
+
+jmh {
+	warmupIterations = 2
+	iterations = 5
+	fork = 1
+	resultFormat = "JSON"
+	providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
+	providers.gradleProperty("jmhProfilers").orNull?.let { profilers.add(it) }
+}
+
 tasks.named<org.springframework.boot.gradle.tasks.bundling.BootJar>("bootJar") {
 	mainClass.set("banking.boby.BobyApplication")
-}
\ No newline at end of file
+}
+
+tasks.named<Jar>("jar") {
+	enabled = false
+}
+
+val cdsDir = layout.buildDirectory.dir("cds")
+val cdsJava = javaToolchains.launcherFor {
+	languageVersion = JavaLanguageVersion.of(javaVersion)
+}.map { it.executablePath.asFile.absolutePath }
+
+val extractBootJar by tasks.registering(Exec::class) {
+	val bootJar = tasks.named<org.springframework.boot.gradle.tasks.bundling.BootJar>("bootJar")
+	dependsOn(bootJar)
+	doFirst {
+		commandLine(cdsJava.get(), "-Djarmode=tools", "-jar", bootJar.get().archiveFile.get().asFile.absolutePath,
+			"extract", "--force", "--destination", cdsDir.get().asFile.absolutePath)
+	}
+}
+
+val cdsArchive by tasks.registering(Exec::class) {
+	dependsOn(extractBootJar)
+	workingDir(cdsDir)
+	doFirst {
+		commandLine(cdsJava.get(), "-XX:ArchiveClassesAtExit=application.jsa",
+			"-Dspring.aot.enabled=true", "-Dspring.context.exit=onRefresh",
+			"-Dspring.liquibase.enabled=false",
+			"-Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false",
+			"-jar", "app.jar")
+	}
+}
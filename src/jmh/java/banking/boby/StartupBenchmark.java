@@ -0,0 +1,112 @@
+package banking.boby;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время от запуска JVM до первого успешного ответа /actuator/health.
+ * Нужны запущенная база, ./gradlew bootJar и, для режима cds, ./gradlew cdsArchive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    @Param({"default", "lazy", "aot", "aot-lazy", "cds-aot-lazy"})
+    private String mode;
+
+    @Param({"build/libs/boby-0.0.1-SNAPSHOT.jar"})
+    private String bootJar;
+
+    @Param({"build/cds"})
+    private String cdsDir;
+
+    @Param({"18080"})
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+    private Process process;
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    @Benchmark
+    public long timeToFirstRequest() throws Exception {
+        long start = System.nanoTime();
+        process = new ProcessBuilder(command())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(1))
+                .build();
+        while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return System.nanoTime() - start;
+                }
+            } catch (IOException ignored) {
+                // приложение ещё не слушает порт
+            }
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Приложение завершилось с кодом " + process.exitValue());
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("Приложение не ответило за " + STARTUP_TIMEOUT);
+    }
+
+    private List<String> command() {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Dserver.port=" + port);
+        if (mode.startsWith("cds")) {
+            command.add("-XX:SharedArchiveFile=" + Path.of(cdsDir, "application.jsa"));
+        }
+        if (mode.contains("aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        if (mode.contains("lazy")) {
+            command.add("-Dspring.profiles.active=fast-startup");
+        }
+        command.add("-jar");
+        command.add(mode.startsWith("cds") ? Path.of(cdsDir, "app.jar").toString() : bootJar);
+        return command;
+    }
+}
@@ -0,0 +1,59 @@
+package banking.boby.money;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Арифметика перевода до и после перехода на Money: проверки суммы и остатка, новые балансы карт,
+ * итоговая дельта для счётчиков. Аллокации на операцию смотреть через -prof gc (gc.alloc.rate.norm).
+ * ./gradlew jmh -PjmhIncludes=MoneyBenchmark -PjmhProfilers=gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoneyBenchmark {
+
+    private final BigDecimal decimalFrom = new BigDecimal("15000.75");
+    private final BigDecimal decimalTo = new BigDecimal("320.10");
+    private final BigDecimal decimalAmount = new BigDecimal("500.00");
+
+    private final Money moneyFrom = Money.parse("15000.75");
+    private final Money moneyTo = Money.parse("320.10");
+    private final Money moneyAmount = Money.parse("500.00");
+    private final Money minTransfer = Money.ofMajor(1);
+
+    @Benchmark
+    public BigDecimal bigDecimalTransfer() {
+        if (decimalFrom.compareTo(decimalAmount) < 0 || decimalAmount.compareTo(BigDecimal.ONE) < 0) {
+            throw new IllegalStateException();
+        }
+        BigDecimal debit = decimalAmount.negate();
+        BigDecimal newFrom = decimalFrom.add(debit);
+        BigDecimal newTo = decimalTo.add(decimalAmount);
+        if (newFrom.signum() < 0) {
+            throw new IllegalStateException();
+        }
+        return debit.add(decimalAmount).add(newTo).add(newFrom);
+    }
+
+    @Benchmark
+    public long moneyTransfer() {
+        if (moneyFrom.isLessThan(moneyAmount) || moneyAmount.isLessThan(minTransfer)) {
+            throw new IllegalStateException();
+        }
+        Money debit = moneyAmount.negate();
+        Money newFrom = moneyFrom.plus(debit);
+        Money newTo = moneyTo.plus(moneyAmount);
+        if (newFrom.signum() < 0) {
+            throw new IllegalStateException();
+        }
+        return debit.plus(moneyAmount).plus(newTo).plus(newFrom).minorUnits();
+    }
+}
@@ -0,0 +1,92 @@
+package banking.boby.posting;
+
+import banking.boby.BobyApplication;
+import banking.boby.entity.enums.OperationType;
+import banking.boby.money.Money;
+import banking.boby.service.PostingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность проводок против локальной базы из docker-compose. Каждая итерация пишет
+ * пополнения на случайные карты из пула, поэтому потоки редко ждут блокировку одной строки.
+ * ./gradlew jmh -PjmhIncludes=PostingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+public class PostingBenchmark {
+
+    private static final String BENCH_USER = "posting-bench";
+
+    @Param({"1000"})
+    private int cards;
+
+    private ConfigurableApplicationContext context;
+    private PostingService postingService;
+    private List<Long> cardIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BobyApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=dev", "--spring.main.banner-mode=off", "--logging.level.root=WARN");
+        postingService = context.getBean(PostingService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.update("""
+                INSERT INTO users (username, email, first_name, last_name, password, role)
+                VALUES (?, ?, 'Bench', 'Posting', 'x', 'USER')
+                ON CONFLICT (username) DO NOTHING
+                """, BENCH_USER, BENCH_USER + "@bench.local");
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, BENCH_USER);
+        jdbcTemplate.update("""
+                INSERT INTO cards (encrypted_number, holder_name, expiry_date, status, balance, user_id)
+                SELECT 'bench', 'BENCH POSTING', CURRENT_DATE + 365, 'ACTIVE', 0, ?
+                FROM generate_series(1, ? - (SELECT count(*) FROM cards WHERE user_id = ?))
+                """, userId, cards, userId);
+        cardIds = jdbcTemplate.queryForList("SELECT id FROM cards WHERE user_id = ? ORDER BY id LIMIT ?",
+                Long.class, userId, cards);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object depositSingleThread() {
+        return deposit();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object depositEightThreads() {
+        return deposit();
+    }
+
+    private Object deposit() {
+        Long cardId = cardIds.get(ThreadLocalRandom.current().nextInt(cardIds.size()));
+        return postingService.post(OperationType.DEPOSIT, List.of(PostingLeg.credit(cardId, Money.ofMajor(1))));
+    }
+}
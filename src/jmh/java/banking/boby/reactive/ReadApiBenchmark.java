@@ -0,0 +1,105 @@
+package banking.boby.reactive;
+
+import banking.boby.BobyApplication;
+import banking.boby.security.CardEncryptor;
+import banking.boby.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочное сравнение блокирующих контроллеров (Tomcat, JPA) и реактивного API (Netty, R2DBC) на одних
+ * и тех же запросах чтения при 512 одновременных клиентах. Лимиты скорости и конкурентности отключены,
+ * чтобы упираться в сервер, а не в защиту от перегрузки.
+ * ./gradlew jmh -PjmhIncludes=ReadApiBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(512)
+public class ReadApiBenchmark {
+
+    private static final String BENCH_USER = "read-api-bench";
+
+    @Param({"servlet", "reactive"})
+    private String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String token;
+    private URI balanceUri;
+    private URI cardsUri;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BobyApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--spring.profiles.active=dev", "--server.port=0", "--spring.main.banner-mode=off", "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN", "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.springframework.security=WARN",
+                        "--rate-limit.enabled=false", "--concurrency-limit.enabled=false",
+                        "--app.reactive.enabled=true", "--app.reactive.port=0");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                INSERT INTO users (username, email, first_name, last_name, password, role)
+                VALUES (?, ?, 'Bench', 'Read', 'x', 'USER')
+                ON CONFLICT (username) DO NOTHING
+                """, BENCH_USER, BENCH_USER + "@bench.local");
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, BENCH_USER);
+        String encrypted = context.getBean(CardEncryptor.class).encrypt("9999990000000001");
+        jdbcTemplate.update("""
+                INSERT INTO cards (encrypted_number, holder_name, expiry_date, status, balance, user_id)
+                SELECT ?, 'BENCH READ', CURRENT_DATE + 365, 'ACTIVE', 100, ?
+                FROM generate_series(1, 20 - (SELECT count(*) FROM cards WHERE user_id = ?))
+                """, encrypted, userId, userId);
+        Long cardId = jdbcTemplate.queryForObject("SELECT min(id) FROM cards WHERE user_id = ?", Long.class, userId);
+
+        int port = "reactive".equals(stack)
+                ? context.getBean(ReactiveApiServer.class).getPort()
+                : Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+        balanceUri = URI.create("http://localhost:" + port + "/cards/" + cardId + "/balance");
+        cardsUri = URI.create("http://localhost:" + port + "/cards/cards?page=0&size=20");
+        token = "Bearer " + context.getBean(JwtTokenProvider.class).generateToken(userId, "USER");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int balance() throws Exception {
+        return get(balanceUri);
+    }
+
+    @Benchmark
+    public int cardList() throws Exception {
+        return get(cardsUri);
+    }
+
+    private int get(URI uri) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).header("Authorization", token).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray()).body().length;
+    }
+}
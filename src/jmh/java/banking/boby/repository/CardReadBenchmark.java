@@ -0,0 +1,119 @@
+package banking.boby.repository;
+
+import banking.boby.BobyApplication;
+import banking.boby.entity.Card;
+import banking.boby.repository.projection.CardSummaryView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Страница карт пользователя (с подсчётом общего числа) через управляемые сущности и через проекцию CardSummaryView.
+ * Сущности в пишущей транзакции проходят flush и проверку изменений при коммите, в readOnly без снимков состояния,
+ * проекция не попадает в контекст персистентности совсем. Аллокации смотреть через -prof gc.
+ * ./gradlew jmh -PjmhIncludes=CardReadBenchmark -PjmhProfilers=gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class CardReadBenchmark {
+
+    private static final String BENCH_USER = "card-read-bench";
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private CardRepository cardRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BobyApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=dev", "--spring.main.banner-mode=off", "--logging.level.root=WARN");
+        cardRepository = context.getBean(CardRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                INSERT INTO users (username, email, first_name, last_name, password, role)
+                VALUES (?, ?, 'Bench', 'Read', 'x', 'USER')
+                ON CONFLICT (username) DO NOTHING
+                """, BENCH_USER, BENCH_USER + "@bench.local");
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, BENCH_USER);
+        jdbcTemplate.update("""
+                INSERT INTO cards (encrypted_number, holder_name, expiry_date, status, balance, user_id)
+                SELECT 'bench', 'BENCH READ', CURRENT_DATE + 365, 'ACTIVE', 0, ?
+                FROM generate_series(1, 100 - (SELECT count(*) FROM cards WHERE user_id = ?))
+                """, userId, userId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object entitiesReadWrite() {
+        return readWrite.execute(status -> summarize(loadEntities()));
+    }
+
+    @Benchmark
+    public Object entitiesReadOnly() {
+        return readOnly.execute(status -> summarize(loadEntities()));
+    }
+
+    @Benchmark
+    public Object projectionReadOnly() {
+        return readOnly.execute(status ->
+                cardRepository.findSummariesByHolderId(userId, PageRequest.of(0, pageSize, Sort.by("id"))).getContent());
+    }
+
+    private List<Card> loadEntities() {
+        entityManager.createQuery("SELECT count(c) FROM Card c WHERE c.holder.id = :holderId", Long.class)
+                .setParameter("holderId", userId)
+                .getSingleResult();
+        return entityManager.createQuery("SELECT c FROM Card c WHERE c.holder.id = :holderId ORDER BY c.id", Card.class)
+                .setParameter("holderId", userId)
+                .setMaxResults(pageSize)
+                .getResultList();
+    }
+
+    private List<CardSummaryView> summarize(List<Card> cards) {
+        return cards.stream()
+                .map(card -> new CardSummaryView(card.getId(), card.getEncryptedNumber(), card.getHolder().getId(),
+                        card.getExpiryDate(), card.getStatus(), card.getBalance()))
+                .toList();
+    }
+}
@@ -0,0 +1,61 @@
+package banking.boby.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimiterBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private RateLimiter rateLimiter;
+    private RateLimiter.Bandwidth unlimited;
+    private RateLimiter.Bandwidth tight;
+    private Long[] userIds;
+
+    @Setup
+    public void setUp() {
+        rateLimiter = new RateLimiter();
+        unlimited = RateLimiter.Bandwidth.of(1_000_000, 1_000_000_000d);
+        tight = RateLimiter.Bandwidth.of(10, 2);
+        userIds = new Long[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = (long) i;
+            rateLimiter.tryAcquire("/cards/*/balance", userIds[i], unlimited);
+        }
+    }
+
+    @Benchmark
+    public long singleUserAllowed() {
+        return rateLimiter.tryAcquire("/cards/*/balance", userIds[0], unlimited);
+    }
+
+    @Benchmark
+    public long singleUserRejected() {
+        return rateLimiter.tryAcquire("/cards/transfer", userIds[0], tight);
+    }
+
+    @Benchmark
+    public long manyUsers() {
+        Long userId = userIds[ThreadLocalRandom.current().nextInt(USERS)];
+        return rateLimiter.tryAcquire("/cards/*/balance", userId, unlimited);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long manyUsersContended() {
+        Long userId = userIds[ThreadLocalRandom.current().nextInt(USERS)];
+        return rateLimiter.tryAcquire("/cards/*/balance", userId, unlimited);
+    }
+}
@@ -0,0 +1,90 @@
+package banking.boby.service;
+
+import banking.boby.BobyApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пачка из concurrentRequests выдач номера карты через CardCacheService против базы из docker-compose.
+ * Кеш на 100 карт пустеет за пачку, поэтому запросы упираются в пополнение из pre_generated_card и генерацию
+ * под ReentrantLock. Платформенный вариант — пул из 200 потоков, как Tomcat по умолчанию, и платформенное
+ * пополнение; virtual — поток на запрос и пополнение на виртуальном потоке, требует Java 21:
+ * ./gradlew jmh -PjavaVersion=21 -PjmhIncludes=CardCacheBenchmark -PjmhProfilers=gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class CardCacheBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"200", "2000"})
+    private int concurrentRequests;
+
+    private ConfigurableApplicationContext context;
+    private CardCacheService cardCacheService;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        boolean virtual = "virtual".equals(threads);
+        context = new SpringApplicationBuilder(BobyApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=dev", "--spring.main.banner-mode=off", "--logging.level.root=WARN",
+                        "--spring.threads.virtual.enabled=" + virtual);
+        cardCacheService = context.getBean(CardCacheService.class);
+        if (virtual) {
+            executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } else {
+            executor = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        context.close();
+    }
+
+    @Benchmark
+    public int burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrentRequests);
+        AtomicInteger failures = new AtomicInteger();
+        for (int i = 0; i < concurrentRequests; i++) {
+            executor.execute(() -> {
+                try {
+                    cardCacheService.takePreGeneratedCardNumber();
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        return failures.get();
+    }
+}
@@ -0,0 +1,85 @@
+package banking.boby.statement;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выгрузка выписки в поток-счётчик. Счётчик megabytes даёт МБ/с. Потребление памяти смотреть через -prof gc:
+ * при росте rows в десять раз живая куча не растёт, меняется только объём короткоживущих аллокаций.
+ * ./gradlew jmh -PjmhIncludes=StatementWriterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StatementWriterBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    @Param({"CSV", "NDJSON"})
+    private StatementFormat format;
+
+    private final LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private final BigDecimal[] amounts = {
+            new BigDecimal("-15.50"), new BigDecimal("1200.00"), new BigDecimal("-0.99"), new BigDecimal("42.10")
+    };
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Output {
+
+        public double megabytes;
+
+        private long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            megabytes = 0;
+        }
+
+        OutputStream stream() {
+            bytes = 0;
+            return new OutputStream() {
+                @Override
+                public void write(int b) {
+                    bytes++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    bytes += len;
+                }
+            };
+        }
+
+        void record() {
+            megabytes += bytes / 1_000_000d;
+        }
+    }
+
+    @Benchmark
+    public long export(Output output) throws IOException {
+        StatementWriter writer = new StatementWriter(output.stream(), format);
+        writer.writeHeader();
+        for (int i = 0; i < rows; i++) {
+            writer.writeRow(i, start.plusSeconds(i * 30L), "TRANSFER", amounts[i & 3]);
+        }
+        writer.flush();
+        output.record();
+        return writer.getRows();
+    }
+}
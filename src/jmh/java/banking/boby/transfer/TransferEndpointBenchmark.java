@@ -0,0 +1,131 @@
+package banking.boby.transfer;
+
+import banking.boby.BobyApplication;
+import banking.boby.money.Money;
+import banking.boby.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Переводы через REST (один JSON-запрос на перевод) и через пакетный двоичный эндпоинт (BATCH кадров на запрос)
+ * против локальной базы из docker-compose. Один поток бенчмарка, число переводов в секунду на ядро
+ * получается делением на загрузку CPU процесса. Лимиты скорости, переводов и конкурентности отключены, поэтому
+ * результат — стоимость обработки, а не доступная пользователю скорость: с настройками по умолчанию пакетный
+ * эндпоинт пропускает до 200 кадров/с на пользователя, а velocity-limit — 5 переводов в минуту с карты.
+ * ./gradlew jmh -PjmhIncludes=TransferEndpointBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(1)
+public class TransferEndpointBenchmark {
+
+    private static final String BENCH_USER = "transfer-bench";
+    private static final int BATCH = 100;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String token;
+    private URI restUri;
+    private URI batchUri;
+    private long firstCard;
+    private long secondCard;
+    private byte[] batchBody;
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = new SpringApplicationBuilder(BobyApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--spring.profiles.active=dev", "--server.port=0", "--spring.main.banner-mode=off", "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN", "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.springframework.security=WARN",
+                        "--rate-limit.enabled=false", "--velocity-limit.enabled=false",
+                        "--concurrency-limit.enabled=false");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                INSERT INTO users (username, email, first_name, last_name, password, role)
+                VALUES (?, ?, 'Bench', 'Transfer', 'x', 'USER')
+                ON CONFLICT (username) DO NOTHING
+                """, BENCH_USER, BENCH_USER + "@bench.local");
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, BENCH_USER);
+        jdbcTemplate.update("""
+                INSERT INTO cards (encrypted_number, holder_name, expiry_date, status, balance, user_id)
+                SELECT 'bench', 'BENCH TRANSFER', CURRENT_DATE + 365, 'ACTIVE', 1000000000, ?
+                FROM generate_series(1, 2 - (SELECT count(*) FROM cards WHERE user_id = ?))
+                """, userId, userId);
+        List<Long> cards = jdbcTemplate.queryForList("SELECT id FROM cards WHERE user_id = ? ORDER BY id LIMIT 2",
+                Long.class, userId);
+        firstCard = cards.get(0);
+        secondCard = cards.get(1);
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        restUri = URI.create("http://localhost:" + port + "/cards/transfer");
+        batchUri = URI.create("http://localhost:" + port + "/cards/transfer/batch");
+        token = "Bearer " + context.getBean(JwtTokenProvider.class).generateToken(userId, "USER");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(BATCH * 32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int i = 0; i < BATCH; i++) {
+            boolean forward = i % 2 == 0;
+            TransferFrameCodec.writeRequest(out, new TransferFrame(i,
+                    forward ? firstCard : secondCard, forward ? secondCard : firstCard, Money.ofMajor(1)));
+        }
+        batchBody = bytes.toByteArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int restTransfer() throws Exception {
+        boolean forward = (sequence++ & 1) == 0;
+        String json = "{\"fromCardId\":" + (forward ? firstCard : secondCard)
+                + ",\"toCardId\":" + (forward ? secondCard : firstCard) + ",\"amount\":1.00}";
+        HttpRequest request = HttpRequest.newBuilder(restUri)
+                .header("Authorization", token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int binaryTransfer() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(batchUri)
+                .header("Authorization", token)
+                .header("Content-Type", TransferFrameCodec.MEDIA_TYPE_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(batchBody))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray()).body().length;
+    }
+}
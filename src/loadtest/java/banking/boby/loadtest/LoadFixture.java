@@ -0,0 +1,64 @@
+package banking.boby.loadtest;
+
+import banking.boby.security.CardEncryptor;
+import banking.boby.security.CardFingerprinter;
+import banking.boby.security.JwtTokenProvider;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Учётные записи и карты для прогона. Создаются один раз и переиспользуются при повторных прогонах
+ * на той же базе, балансы заведомо больше суммы всех переводов.
+ */
+record LoadFixture(List<Account> accounts, String adminToken) {
+
+    static final String PASSWORD = "LoadTest#2024";
+
+    private static final String USER_PREFIX = "load-user-";
+
+    record Account(Long userId, String username, String token, List<Long> cardIds) {
+    }
+
+    static LoadFixture seed(ConfigurableApplicationContext context, LoadTestSettings settings) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        JwtTokenProvider jwtTokenProvider = context.getBean(JwtTokenProvider.class);
+        CardEncryptor cardEncryptor = context.getBean(CardEncryptor.class);
+        CardFingerprinter cardFingerprinter = context.getBean(CardFingerprinter.class);
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        List<Account> accounts = new ArrayList<>();
+        for (int user = 0; user < settings.getUsers(); user++) {
+            String username = USER_PREFIX + user;
+            jdbcTemplate.update("""
+                    INSERT INTO users (username, email, first_name, last_name, password, role)
+                    VALUES (?, ?, 'Load', 'Test', ?, 'USER')
+                    ON CONFLICT (username) DO UPDATE SET password = EXCLUDED.password
+                    """, username, username + "@load.local", passwordHash);
+            Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class,
+                    username);
+
+            for (int card = 0; card < settings.getCardsPerUser(); card++) {
+                String number = String.format("7700%06d%06d", user, card);
+                jdbcTemplate.update("""
+                        INSERT INTO cards (encrypted_number, number_fingerprint, holder_name, expiry_date, status,
+                                           balance, user_id)
+                        VALUES (?, ?, 'LOAD TEST', CURRENT_DATE + 365, 'ACTIVE', 1000000000, ?)
+                        ON CONFLICT (number_fingerprint) DO NOTHING
+                        """, cardEncryptor.encrypt(number), cardFingerprinter.fingerprint(number), userId);
+            }
+            List<Long> cardIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM cards WHERE user_id = ? AND holder_name = 'LOAD TEST' ORDER BY id LIMIT ?",
+                    Long.class, userId, settings.getCardsPerUser());
+
+            accounts.add(new Account(userId, username, "Bearer " + jwtTokenProvider.generateToken(userId, "USER"),
+                    List.copyOf(cardIds)));
+        }
+
+        Long adminId = jdbcTemplate.queryForObject("SELECT min(id) FROM users WHERE role = 'ADMIN'", Long.class);
+        return new LoadFixture(List.copyOf(accounts), "Bearer " + jwtTokenProvider.generateToken(adminId, "ADMIN"));
+    }
+}
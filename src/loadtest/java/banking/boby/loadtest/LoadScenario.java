@@ -0,0 +1,99 @@
+package banking.boby.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Выбирает операцию по весам из loadtest.mix и выполняет её от имени случайной учётной записи.
+ */
+class LoadScenario {
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final LoadFixture fixture;
+    private final Duration requestTimeout;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    LoadScenario(HttpClient client, String baseUrl, LoadFixture fixture, LoadTestSettings settings) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.fixture = fixture;
+        this.requestTimeout = settings.getRequestTimeout();
+
+        Map<Operation, Integer> mix = new EnumMap<>(settings.getMix());
+        mix.values().removeIf(weight -> weight == null || weight <= 0);
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("В loadtest.mix нет операций с положительным весом");
+        }
+        if (mix.containsKey(Operation.TRANSFER) && settings.getCardsPerUser() < 2) {
+            throw new IllegalArgumentException("Для переводов нужно не меньше двух карт на учётную запись");
+        }
+        this.operations = mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    Operation next(ThreadLocalRandom random) {
+        int point = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    int execute(Operation operation, ThreadLocalRandom random) throws Exception {
+        List<LoadFixture.Account> accounts = fixture.accounts();
+        LoadFixture.Account account = accounts.get(random.nextInt(accounts.size()));
+        List<Long> cards = account.cardIds();
+
+        HttpRequest request = switch (operation) {
+            case LOGIN -> post("/auth/login", null, """
+                    {"username":"%s","password":"%s"}""".formatted(account.username(), LoadFixture.PASSWORD));
+            case CARD_LIST -> get("/cards/cards?page=0&size=20", account.token());
+            case BALANCE -> get("/cards/" + cards.get(random.nextInt(cards.size())) + "/balance", account.token());
+            case TRANSFER -> {
+                int from = random.nextInt(cards.size());
+                int to = (from + 1 + random.nextInt(cards.size() - 1)) % cards.size();
+                yield post("/cards/transfer", account.token(), """
+                        {"fromCardId":%d,"toCardId":%d,"amount":1.00}""".formatted(cards.get(from), cards.get(to)));
+            }
+            case ISSUE -> post("/admin/cards/create?userId=" + account.userId(), fixture.adminToken(), null);
+        };
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Authorization", token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String token, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(requestTimeout);
+        if (token != null) {
+            builder.header("Authorization", token);
+        }
+        if (json == null) {
+            return builder.POST(HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
@@ -0,0 +1,268 @@
+package banking.boby.loadtest;
+
+import banking.boby.BobyApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Нагрузочный прогон полного приложения: поднимает контекст против локальной базы из docker-compose,
+ * создаёт учётные записи и карты и отправляет запросы по сценарию с фиксированной интенсивностью (открытая модель).
+ * В каталог loadtest.output-dir пишутся summary.json с перцентилями и пропускной способностью по эндпоинтам
+ * и latency.hlog с интервальными гистограммами для сравнения прогонов.
+ * ./gradlew loadTest -PloadArgs="--loadtest.rate=500 --loadtest.duration=PT2M --loadtest.label=feature-x"
+ */
+public class LoadTestRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    public static void main(String[] args) throws Exception {
+        List<String> appArgs = new ArrayList<>(List.of("--spring.profiles.active=dev", "--server.port=0", "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false", "--logging.level.root=WARN", "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.springframework.security=WARN", "--logging.level.banking.boby.loadtest=INFO",
+                "--rate-limit.enabled=false", "--velocity-limit.enabled=false"));
+        appArgs.addAll(List.of(args));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BobyApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(appArgs.toArray(String[]::new))) {
+            LoadTestSettings settings = Binder.get(context.getEnvironment())
+                    .bind("loadtest", LoadTestSettings.class)
+                    .orElseGet(LoadTestSettings::new);
+            LoadFixture fixture = LoadFixture.seed(context, settings);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            LoadScenario scenario = new LoadScenario(client, baseUrl, fixture, settings);
+
+            Path outputDir = Path.of(settings.getOutputDir(), settings.getLabel() + "-"
+                    + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+            Files.createDirectories(outputDir);
+
+            new LoadTestRunner().run(settings, scenario, context.getBean(ObjectMapper.class), outputDir);
+        }
+    }
+
+    private void run(LoadTestSettings settings, LoadScenario scenario, ObjectMapper objectMapper, Path outputDir)
+            throws IOException, InterruptedException {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats(operation));
+        }
+
+        Instant startedAt = Instant.now();
+        HistogramLogWriter logWriter = new HistogramLogWriter(outputDir.resolve("latency.hlog").toFile());
+        logWriter.outputLogFormatVersion();
+        logWriter.outputStartTime(startedAt.toEpochMilli());
+        logWriter.setBaseTime(startedAt.toEpochMilli());
+        logWriter.outputLegend();
+
+        ExecutorService virtualUsers = Executors.newFixedThreadPool(settings.getConcurrency(), threads("load-vu-"));
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(threads("load-report-"));
+
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + settings.getWarmup().toNanos();
+        long end = measureFrom + settings.getDuration().toNanos();
+        double periodNanos = (double) TimeUnit.SECONDS.toNanos(1) / settings.getRate();
+
+        AtomicInteger ticks = new AtomicInteger();
+        reporter.scheduleAtFixedRate(() -> {
+            if (ticks.getAndIncrement() == 0) {
+                stats.values().forEach(OperationStats::discardInterval);
+                log.info("Прогрев завершён, начато измерение");
+                return;
+            }
+            stats.values().forEach(operationStats -> operationStats.flushInterval(logWriter));
+            logProgress(stats.values());
+        }, measureFrom - System.nanoTime(), settings.getReportInterval().toNanos(), TimeUnit.NANOSECONDS);
+
+        log.info("Старт: {} запросов/с, прогрев {}, измерение {}, виртуальных пользователей {}",
+                settings.getRate(), settings.getWarmup(), settings.getDuration(), settings.getConcurrency());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * periodNanos);
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Operation operation = scenario.next(random);
+            OperationStats operationStats = intended >= measureFrom ? stats.get(operation) : null;
+            if (operationStats != null) {
+                operationStats.scheduled();
+            }
+            virtualUsers.execute(() -> call(scenario, operation, intended, operationStats));
+        }
+
+        virtualUsers.shutdown();
+        if (!virtualUsers.awaitTermination(settings.getDrainTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Не все запросы завершились за {}, оставшиеся считаются незавершёнными",
+                    settings.getDrainTimeout());
+            virtualUsers.shutdownNow();
+        }
+        reporter.shutdown();
+        reporter.awaitTermination(settings.getReportInterval().toMillis() * 2, TimeUnit.MILLISECONDS);
+        stats.values().forEach(operationStats -> operationStats.flushInterval(logWriter));
+        logWriter.close();
+
+        Map<String, Object> summary = summary(settings, startedAt, stats);
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(outputDir.resolve("summary.json").toFile(), summary);
+        logProgress(stats.values());
+        log.info("Результаты сохранены в {}", outputDir.toAbsolutePath());
+    }
+
+    private static void call(LoadScenario scenario, Operation operation, long intended, OperationStats stats) {
+        long sent = System.nanoTime();
+        try {
+            int status = scenario.execute(operation, ThreadLocalRandom.current());
+            if (stats != null) {
+                stats.completed(intended, sent, System.nanoTime(), status);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            if (stats != null) {
+                stats.failed(intended, sent, System.nanoTime());
+            }
+            log.debug("Ошибка запроса {}: {}", operation, e.toString());
+        }
+    }
+
+    private static Map<String, Object> summary(LoadTestSettings settings, Instant startedAt,
+                                               Map<Operation, OperationStats> stats) {
+        double seconds = settings.getDuration().toNanos() / 1e9;
+        Histogram allResponse = new Histogram(3);
+        Histogram allService = new Histogram(3);
+        long scheduled = 0;
+        long completed = 0;
+        long errors = 0;
+
+        List<Map<String, Object>> operations = new ArrayList<>();
+        for (OperationStats operationStats : stats.values()) {
+            if (operationStats.getScheduled() == 0) {
+                continue;
+            }
+            allResponse.add(operationStats.getTotalResponseTime());
+            allService.add(operationStats.getTotalServiceTime());
+            scheduled += operationStats.getScheduled();
+            completed += operationStats.getCompleted();
+            errors += operationStats.getErrors();
+
+            Map<String, Object> operation = new LinkedHashMap<>();
+            operation.put("operation", operationStats.getOperation().name());
+            operation.put("endpoint", operationStats.getOperation().getEndpoint());
+            operation.putAll(counters(operationStats.getScheduled(), operationStats.getCompleted(),
+                    operationStats.getErrors(), seconds));
+            operation.put("failed", operationStats.getFailed());
+            operation.put("statuses", operationStats.getStatuses());
+            operation.put("responseTimeMs", percentiles(operationStats.getTotalResponseTime()));
+            operation.put("serviceTimeMs", percentiles(operationStats.getTotalServiceTime()));
+            operations.add(operation);
+        }
+
+        Map<String, Object> total = new LinkedHashMap<>(counters(scheduled, completed, errors, seconds));
+        total.put("responseTimeMs", percentiles(allResponse));
+        total.put("serviceTimeMs", percentiles(allService));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("label", settings.getLabel());
+        summary.put("startedAt", startedAt.toString());
+        summary.put("targetRate", settings.getRate());
+        summary.put("warmup", settings.getWarmup().toString());
+        summary.put("duration", settings.getDuration().toString());
+        summary.put("concurrency", settings.getConcurrency());
+        summary.put("users", settings.getUsers());
+        summary.put("cardsPerUser", settings.getCardsPerUser());
+        summary.put("mix", settings.getMix());
+        summary.put("total", total);
+        summary.put("operations", operations);
+        return summary;
+    }
+
+    private static Map<String, Object> counters(long scheduled, long completed, long errors, double seconds) {
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("scheduled", scheduled);
+        counters.put("completed", completed);
+        counters.put("unfinished", scheduled - completed);
+        counters.put("errors", errors);
+        counters.put("throughputPerSecond", round(completed / seconds));
+        counters.put("successPerSecond", round((completed - errors) / seconds));
+        return counters;
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram) {
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        percentiles.put("mean", round(histogram.getMean() / 1000));
+        for (double percentile : PERCENTILES) {
+            percentiles.put("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    round(histogram.getValueAtPercentile(percentile) / 1000.0));
+        }
+        percentiles.put("max", round(histogram.getMaxValue() / 1000.0));
+        return percentiles;
+    }
+
+    private static void logProgress(Iterable<OperationStats> stats) {
+        for (OperationStats operationStats : stats) {
+            Histogram histogram = operationStats.getTotalResponseTime();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            log.info("{}: {} запросов, ошибок {}, p50 {} мс, p99 {} мс, p99.9 {} мс, max {} мс",
+                    operationStats.getOperation().getEndpoint(), histogram.getTotalCount(), operationStats.getErrors(),
+                    round(histogram.getValueAtPercentile(50) / 1000.0),
+                    round(histogram.getValueAtPercentile(99) / 1000.0),
+                    round(histogram.getValueAtPercentile(99.9) / 1000.0),
+                    round(histogram.getMaxValue() / 1000.0));
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static ThreadFactory threads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package banking.boby.loadtest;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Параметры прогона, задаются аргументами --loadtest.* (в Gradle через -PloadArgs).
+ */
+@Getter
+@Setter
+public class LoadTestSettings {
+
+    /**
+     * Запросов в секунду. Запросы отправляются по расписанию независимо от того, успевает ли сервер.
+     */
+    private int rate = 200;
+
+    private Duration warmup = Duration.ofSeconds(15);
+
+    private Duration duration = Duration.ofMinutes(1);
+
+    /**
+     * Число виртуальных пользователей — потоков, одновременно выполняющих запросы.
+     */
+    private int concurrency = 64;
+
+    /**
+     * Число учётных записей. Меньше concurrency — несколько виртуальных пользователей делят карты
+     * и переводы конкурируют за одни строки.
+     */
+    private int users = 16;
+
+    private int cardsPerUser = 2;
+
+    private Duration reportInterval = Duration.ofSeconds(5);
+
+    private Duration drainTimeout = Duration.ofSeconds(30);
+
+    private Duration requestTimeout = Duration.ofSeconds(30);
+
+    private String outputDir = "build/loadtest";
+
+    /**
+     * Метка прогона в имени каталога результатов, например версия или коммит сборки.
+     */
+    private String label = "local";
+
+    private Map<Operation, Integer> mix = new EnumMap<>(Map.of(
+            Operation.LOGIN, 5,
+            Operation.CARD_LIST, 30,
+            Operation.BALANCE, 45,
+            Operation.TRANSFER, 15,
+            Operation.ISSUE, 5));
+}
@@ -0,0 +1,23 @@
+package banking.boby.loadtest;
+
+/**
+ * Операции сценария нагрузки. Доля каждой в потоке запросов задаётся весом в loadtest.mix.
+ */
+public enum Operation {
+
+    LOGIN("POST /auth/login"),
+    CARD_LIST("GET /cards/cards"),
+    BALANCE("GET /cards/{cardId}/balance"),
+    TRANSFER("POST /cards/transfer"),
+    ISSUE("POST /admin/cards/create");
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
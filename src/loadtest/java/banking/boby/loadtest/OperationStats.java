@@ -0,0 +1,119 @@
+package banking.boby.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки и коды ответов одной операции. Время отклика считается от запланированного момента отправки,
+ * а не от фактического, поэтому ожидание свободного виртуального пользователя при перегрузке сервера
+ * попадает в задержку. Время обслуживания — от фактической отправки до ответа.
+ */
+class OperationStats {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Operation operation;
+    private final Recorder responseTime = new Recorder(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+    private final Recorder serviceTime = new Recorder(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram totalResponseTime = new Histogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram totalServiceTime = new Histogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    OperationStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    void scheduled() {
+        scheduled.increment();
+    }
+
+    void completed(long intendedNanos, long sentNanos, long receivedNanos, int status) {
+        record(intendedNanos, sentNanos, receivedNanos);
+        statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+    }
+
+    void failed(long intendedNanos, long sentNanos, long receivedNanos) {
+        record(intendedNanos, sentNanos, receivedNanos);
+        failed.increment();
+    }
+
+    /**
+     * Сбрасывает накопленное в интервале без записи, вызывается в конце прогрева.
+     */
+    void discardInterval() {
+        responseTime.getIntervalHistogram();
+        serviceTime.getIntervalHistogram();
+    }
+
+    /**
+     * Переносит интервал в итоговые гистограммы и журнал. Вызывается только из потока отчёта.
+     */
+    void flushInterval(HistogramLogWriter logWriter) {
+        Histogram response = responseTime.getIntervalHistogram();
+        Histogram service = serviceTime.getIntervalHistogram();
+        totalResponseTime.add(response);
+        totalServiceTime.add(service);
+
+        response.setTag(operation.name());
+        service.setTag(operation.name() + ".service");
+        logWriter.outputIntervalHistogram(response);
+        logWriter.outputIntervalHistogram(service);
+    }
+
+    Operation getOperation() {
+        return operation;
+    }
+
+    Histogram getTotalResponseTime() {
+        return totalResponseTime;
+    }
+
+    Histogram getTotalServiceTime() {
+        return totalServiceTime;
+    }
+
+    long getScheduled() {
+        return scheduled.sum();
+    }
+
+    long getFailed() {
+        return failed.sum();
+    }
+
+    long getCompleted() {
+        return statuses.values().stream().mapToLong(LongAdder::sum).sum() + failed.sum();
+    }
+
+    long getErrors() {
+        return failed.sum() + statuses.entrySet().stream()
+                .filter(entry -> entry.getKey() >= 400)
+                .mapToLong(entry -> entry.getValue().sum())
+                .sum();
+    }
+
+    Map<String, Long> getStatuses() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        new TreeMap<>(statuses).forEach((status, count) -> result.put(String.valueOf(status), count.sum()));
+        return result;
+    }
+
+    private void record(long intendedNanos, long sentNanos, long receivedNanos) {
+        responseTime.recordValue(toMicros(receivedNanos - intendedNanos));
+        serviceTime.recordValue(toMicros(receivedNanos - sentNanos));
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(HIGHEST_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+}
@@ -0,0 +1,41 @@
+package banking.boby.audit;
+
+import java.util.Arrays;
+
+public enum AuditAction {
+    CARD_CREATE(1),
+    CARD_BLOCK(2),
+    CARD_BLOCK_REQUEST(3),
+    CARD_ACTIVATE(4),
+    CARD_DELETE(5),
+    TRANSFER(6),
+    DEPOSIT(7),
+    WITHDRAW(8),
+    PAYMENT(9),
+    LOGIN(10),
+    LOGIN_FAILED(11);
+
+    private static final AuditAction[] BY_CODE = new AuditAction[16];
+
+    static {
+        Arrays.stream(values()).forEach(action -> BY_CODE[action.code] = action);
+    }
+
+    private final int code;
+
+    AuditAction(int code) {
+        this.code = code;
+    }
+
+    public int code() {
+        return code;
+    }
+
+    public static AuditAction fromCode(int code) {
+        AuditAction action = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (action == null) {
+            throw new IllegalArgumentException("Неизвестный код действия аудита: " + code);
+        }
+        return action;
+    }
+}
@@ -0,0 +1,147 @@
+package banking.boby.audit;
+
+import banking.boby.money.Money;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Журнал аудита изменяющих операций: записи фиксированной длины в сегментах, отображённых в память.
+ * Запись без блокировок, блокировка берётся только при открытии журнала и смене заполненного сегмента.
+ * Сброс на диск выполняется планировщиком, а не при каждой записи.
+ * <p>
+ * Журнал открывается при первой записи: последний сегмент дописывается после перезапуска, новый создаётся,
+ * только когда он заполнен. Поэтому запуски без записей (обучающий прогон CDS в Dockerfile) файлов не создают.
+ */
+@Slf4j
+@Component
+public class AuditJournal {
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final AuditJournalReader reader;
+    private final AtomicReference<AuditSegment> current = new AtomicReference<>();
+    private final ReentrantLock rollLock = new ReentrantLock();
+
+    public AuditJournal(@Value("${app.audit.directory}") Path directory,
+                        @Value("${app.audit.segment-records}") int segmentRecords) {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.reader = new AuditJournalReader(directory);
+    }
+
+    public void record(AuditAction action, Long actorId, Long cardId, Long counterpartCardId, Money amount) {
+        long timestamp = System.currentTimeMillis();
+        long amountCents = amount == null ? AuditSegment.NONE : amount.minorUnits();
+        while (true) {
+            AuditSegment segment = current.get();
+            if (segment == null) {
+                segment = open();
+            }
+            int offset = segment.reserve();
+            if (offset >= 0) {
+                segment.commit(offset, action, timestamp, orNone(actorId), orNone(cardId), orNone(counterpartCardId),
+                        amountCents);
+                return;
+            }
+            roll(segment);
+        }
+    }
+
+    /**
+     * В транзакции запись откладывается до коммита, чтобы в журнал не попадали откаченные операции.
+     */
+    public void recordAfterCommit(AuditAction action, Long actorId, Long cardId, Long counterpartCardId,
+                                  Money amount) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(action, actorId, cardId, counterpartCardId, amount);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(action, actorId, cardId, counterpartCardId, amount);
+            }
+        });
+    }
+
+    public List<AuditRecord> scan(Instant from, Instant to, Long cardId, int limit) {
+        return reader.scan(from, to, cardId, limit);
+    }
+
+    public void flush() {
+        AuditSegment segment = current.get();
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        AuditSegment segment = current.getAndSet(null);
+        if (segment != null) {
+            segment.force();
+            segment.close();
+        }
+    }
+
+    private AuditSegment open() {
+        rollLock.lock();
+        try {
+            AuditSegment segment = current.get();
+            if (segment != null) {
+                return segment;
+            }
+            Files.createDirectories(directory);
+            List<Path> segments = reader.segments();
+            if (segments.isEmpty()) {
+                segment = AuditSegment.create(directory, 1, System.currentTimeMillis(), segmentRecords);
+            } else {
+                segment = AuditSegment.reopen(segments.get(segments.size() - 1));
+                log.info("Журнал аудита продолжен в сегменте {} с записи {}", segment.path().getFileName(),
+                        segment.used());
+            }
+            current.set(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть журнал аудита в " + directory, e);
+        } finally {
+            rollLock.unlock();
+        }
+    }
+
+    private void roll(AuditSegment full) {
+        rollLock.lock();
+        try {
+            if (current.get() != full) {
+                return;
+            }
+            AuditSegment next = AuditSegment.create(directory, full.sequence() + 1, System.currentTimeMillis(),
+                    segmentRecords);
+            current.set(next);
+            full.force();
+            full.close();
+            log.info("Журнал аудита переключён на сегмент {}", next.path().getFileName());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось создать сегмент журнала аудита", e);
+        } finally {
+            rollLock.unlock();
+        }
+    }
+
+    private static long orNone(Long value) {
+        return value == null ? AuditSegment.NONE : value;
+    }
+}
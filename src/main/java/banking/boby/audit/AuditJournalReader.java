@@ -0,0 +1,70 @@
+package banking.boby.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Чтение журнала аудита по интервалу времени и карте. Сегменты вне интервала пропускаются по времени
+ * начала из имени файла с запасом на записи, зарезервированные на границе сегментов.
+ * Работает и на файлах запущенного приложения, и на скопированном каталоге журнала.
+ */
+public class AuditJournalReader {
+
+    private static final long SEGMENT_BOUNDARY_SLACK_MILLIS = 1000;
+
+    private final Path directory;
+
+    public AuditJournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    public List<AuditRecord> scan(Instant from, Instant to, Long cardId, int limit) {
+        List<AuditRecord> result = new ArrayList<>();
+        List<Path> segments = segments();
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+
+        for (int i = 0; i < segments.size() && result.size() < limit; i++) {
+            long start = AuditSegment.startMillisOf(segments.get(i));
+            long nextStart = i + 1 < segments.size() ? AuditSegment.startMillisOf(segments.get(i + 1)) : Long.MAX_VALUE;
+            if (start - SEGMENT_BOUNDARY_SLACK_MILLIS >= toMillis
+                    || nextStart + SEGMENT_BOUNDARY_SLACK_MILLIS < fromMillis) {
+                continue;
+            }
+            try (AuditSegment segment = AuditSegment.open(segments.get(i))) {
+                segment.scan(record -> {
+                    long timestamp = record.timestamp().toEpochMilli();
+                    if (timestamp >= fromMillis && timestamp < toMillis
+                            && (cardId == null || record.touchesCard(cardId))) {
+                        result.add(record);
+                    }
+                    return result.size() < limit;
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Не удалось прочитать сегмент журнала " + segments.get(i), e);
+            }
+        }
+        result.sort(Comparator.comparing(AuditRecord::timestamp));
+        return result;
+    }
+
+    List<Path> segments() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(AuditSegment::isSegment)
+                    .sorted(Comparator.comparingLong(AuditSegment::sequenceOf))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать каталог журнала " + directory, e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package banking.boby.audit;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record AuditRecord(
+        Instant timestamp,
+        AuditAction action,
+        Long actorId,
+        Long cardId,
+        Long counterpartCardId,
+        BigDecimal amount
+) {
+
+    public boolean touchesCard(Long id) {
+        return id.equals(cardId) || id.equals(counterpartCardId);
+    }
+}
@@ -0,0 +1,194 @@
+package banking.boby.audit;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Файл журнала фиксированного размера, отображённый в память. Запись фиксированной длины:
+ * <pre>
+ * 0  int   признак фиксации COMMITTED
+ * 4  short код действия
+ * 8  long  время, мс от эпохи
+ * 16 long  кто выполнил
+ * 24 long  карта
+ * 32 long  вторая карта
+ * 40 long  сумма в копейках
+ * </pre>
+ * Место под запись резервируется атомарным сдвигом позиции, признак фиксации пишется последним
+ * с release-семантикой, поэтому читатель видит только полностью записанные записи.
+ */
+public final class AuditSegment implements AutoCloseable {
+
+    public static final int RECORD_SIZE = 48;
+    public static final long NONE = Long.MIN_VALUE;
+
+    private static final int COMMITTED = 0x31445541;
+    private static final VarHandle COMMIT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final Pattern FILE_NAME = Pattern.compile("audit-(\\d{10})-(\\d+)\\.seg");
+
+    private final Path path;
+    private final long sequence;
+    private final long startMillis;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final AtomicInteger position = new AtomicInteger();
+
+    private AuditSegment(Path path, long sequence, long startMillis, FileChannel channel,
+                         MappedByteBuffer buffer) {
+        this.path = path;
+        this.sequence = sequence;
+        this.startMillis = startMillis;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.capacity = buffer.capacity() - buffer.capacity() % RECORD_SIZE;
+    }
+
+    public static AuditSegment create(Path directory, long sequence, long startMillis, int records) throws IOException {
+        Path path = directory.resolve(String.format("audit-%010d-%d.seg", sequence, startMillis));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) records * RECORD_SIZE);
+        return new AuditSegment(path, sequence, startMillis, channel, buffer);
+    }
+
+    public static AuditSegment open(Path path) throws IOException {
+        Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Не файл журнала аудита: " + path);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        return new AuditSegment(path, Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)),
+                channel, buffer);
+    }
+
+    /**
+     * Открывает существующий сегмент на дозапись со слота после последней зафиксированной записи.
+     * Незафиксированные слоты перед ней (сбой между резервированием и фиксацией) так и остаются пропущенными.
+     */
+    public static AuditSegment reopen(Path path) throws IOException {
+        Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Не файл журнала аудита: " + path);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        AuditSegment segment = new AuditSegment(path, Long.parseLong(matcher.group(1)),
+                Long.parseLong(matcher.group(2)), channel, buffer);
+        segment.position.set(segment.nextFreeOffset());
+        return segment;
+    }
+
+    public static boolean isSegment(Path path) {
+        return FILE_NAME.matcher(path.getFileName().toString()).matches();
+    }
+
+    public static long sequenceOf(Path path) {
+        Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+
+    public static long startMillisOf(Path path) {
+        Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(2)) : -1;
+    }
+
+    /**
+     * Смещение зарезервированной записи или -1, если сегмент заполнен.
+     */
+    public int reserve() {
+        int offset = position.getAndAdd(RECORD_SIZE);
+        return offset >= 0 && offset <= capacity - RECORD_SIZE ? offset : -1;
+    }
+
+    public void commit(int offset, AuditAction action, long timestampMillis, long actorId, long cardId,
+                       long counterpartCardId, long amountCents) {
+        buffer.putShort(offset + 4, (short) action.code());
+        buffer.putLong(offset + 8, timestampMillis);
+        buffer.putLong(offset + 16, actorId);
+        buffer.putLong(offset + 24, cardId);
+        buffer.putLong(offset + 32, counterpartCardId);
+        buffer.putLong(offset + 40, amountCents);
+        COMMIT.setRelease(buffer, offset, COMMITTED);
+    }
+
+    public int scan(Predicate<AuditRecord> visitor) {
+        int visited = 0;
+        for (int offset = 0; offset <= capacity - RECORD_SIZE; offset += RECORD_SIZE) {
+            if ((int) COMMIT.getAcquire(buffer, offset) != COMMITTED) {
+                continue;
+            }
+            visited++;
+            if (!visitor.test(read(offset))) {
+                break;
+            }
+        }
+        return visited;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public long sequence() {
+        return sequence;
+    }
+
+    public long startMillis() {
+        return startMillis;
+    }
+
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Число занятых слотов, включая пропущенные незафиксированные.
+     */
+    public int used() {
+        return Math.min(position.get(), capacity) / RECORD_SIZE;
+    }
+
+    private int nextFreeOffset() {
+        for (int offset = capacity - RECORD_SIZE; offset >= 0; offset -= RECORD_SIZE) {
+            if ((int) COMMIT.getAcquire(buffer, offset) == COMMITTED) {
+                return offset + RECORD_SIZE;
+            }
+        }
+        return 0;
+    }
+
+    private AuditRecord read(int offset) {
+        long amountCents = buffer.getLong(offset + 40);
+        return new AuditRecord(
+                Instant.ofEpochMilli(buffer.getLong(offset + 8)),
+                AuditAction.fromCode(buffer.getShort(offset + 4)),
+                nullable(buffer.getLong(offset + 16)),
+                nullable(buffer.getLong(offset + 24)),
+                nullable(buffer.getLong(offset + 32)),
+                amountCents == NONE ? null : BigDecimal.valueOf(amountCents, 2));
+    }
+
+    private static Long nullable(long value) {
+        return value == NONE ? null : value;
+    }
+}
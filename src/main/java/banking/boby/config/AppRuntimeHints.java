@@ -0,0 +1,55 @@
+package banking.boby.config;
+
+import banking.boby.dto.BalanceResponseDto;
+import banking.boby.dto.CardAdminDto;
+import banking.boby.dto.CardDigitsDto;
+import banking.boby.dto.CardUserDto;
+import banking.boby.dto.TransferRequestDto;
+import banking.boby.dto.UserLoginDto;
+import banking.boby.dto.UserRegisterDto;
+import banking.boby.entity.Card;
+import banking.boby.entity.CardGenerationLock;
+import banking.boby.entity.PreGeneratedCard;
+import banking.boby.entity.Transaction;
+import banking.boby.entity.User;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+public class AppRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> ENTITIES = List.of(
+            Card.class, CardGenerationLock.class, PreGeneratedCard.class, Transaction.class, User.class);
+
+    private static final List<Class<?>> DTOS = List.of(
+            BalanceResponseDto.class, CardAdminDto.class, CardDigitsDto.class, CardUserDto.class,
+            TransferRequestDto.class, UserLoginDto.class, UserRegisterDto.class);
+
+    private static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        ENTITIES.forEach(type -> hints.reflection().registerType(type, MemberCategory.values()));
+        DTOS.forEach(type -> hints.reflection().registerType(type,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS,
+                MemberCategory.DECLARED_FIELDS));
+        JJWT_TYPES.forEach(type -> hints.reflection().registerType(TypeReference.of(type),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS));
+
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+        hints.resources().registerPattern("db/changelog/*");
+        hints.resources().registerPattern("application.conf");
+    }
+}
@@ -0,0 +1,31 @@
+package banking.boby.config;
+
+import banking.boby.limiter.EndpointGroup;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private double backoffRatio = 0.9;
+
+    private Map<EndpointGroup, Group> groups = new EnumMap<>(EndpointGroup.class);
+
+    @Getter
+    @Setter
+    public static class Group {
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+        private Duration latencyThreshold = Duration.ofMillis(500);
+    }
+}
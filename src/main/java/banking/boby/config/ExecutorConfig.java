@@ -0,0 +1,65 @@
+package banking.boby.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Slf4j
+@Configuration
+public class ExecutorConfig {
+
+    private static final int VIRTUAL_THREADS_MIN_JAVA = 21;
+
+    @Bean
+    public TaskExecutor cardRefillExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("card-refill-");
+        executor.setVirtualThreads(virtualThreadsAvailable(virtualThreads));
+        return executor;
+    }
+
+    @Bean
+    public TaskExecutor sseDispatchExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                            @Value("${app.sse.dispatch-threads}") int dispatchThreads,
+                                            @Value("${app.sse.dispatch-queue-capacity}") int queueCapacity) {
+        if (virtualThreadsAvailable(virtualThreads)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("sse-dispatch-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+
+        // у соединения не больше одной задачи в очереди, поэтому рассылка heartbeat по всем соединениям не отклоняется,
+        // пока очередь не меньше числа соединений; зависшие записи освобождает write-timeout
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("sse-dispatch-");
+        executor.setCorePoolSize(dispatchThreads);
+        executor.setMaxPoolSize(dispatchThreads);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setQueueCapacity(queueCapacity);
+        return executor;
+    }
+
+    @Bean
+    public TaskExecutor rollupRebuildExecutor(@Value("${app.rollup.rebuild-parallelism}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("rollup-rebuild-");
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        return executor;
+    }
+
+    private static boolean virtualThreadsAvailable(boolean requested) {
+        if (!requested) {
+            return false;
+        }
+        if (Runtime.version().feature() < VIRTUAL_THREADS_MIN_JAVA) {
+            log.warn("Виртуальные потоки запрошены, но JVM {} их не поддерживает, используются платформенные потоки",
+                    Runtime.version());
+            return false;
+        }
+        return true;
+    }
+}
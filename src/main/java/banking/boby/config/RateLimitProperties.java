@@ -0,0 +1,37 @@
+package banking.boby.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private Limit defaultLimit = new Limit();
+
+    private List<EndpointLimit> endpoints = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int capacity = 50;
+        private double refillPerSecond = 20;
+    }
+
+    @Getter
+    @Setter
+    public static class EndpointLimit extends Limit {
+        private String pattern;
+        private String method;
+    }
+}
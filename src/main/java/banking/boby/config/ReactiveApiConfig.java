@@ -0,0 +1,65 @@
+package banking.boby.config;
+
+import banking.boby.reactive.ReactiveApiServer;
+import banking.boby.reactive.ReactiveCardHandler;
+import banking.boby.reactive.ReactiveCardReader;
+import banking.boby.limiter.ConcurrencyLimiterRegistry;
+import banking.boby.reactive.ReactiveJwtAuthenticationFilter;
+import banking.boby.reactive.ReactiveLimitFilter;
+import banking.boby.security.CardEncryptor;
+import banking.boby.security.JwtTokenProvider;
+import banking.boby.security.RateLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+/**
+ * Реактивный API чтения на отдельном порту. Автоконфигурация R2DBC из Spring Boot отключена:
+ * её менеджер транзакций вытеснил бы JPA-менеджер, а фабрика соединений нужна только здесь.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.reactive", name = "enabled", havingValue = "true")
+public class ReactiveApiConfig {
+
+    @Bean
+    public ConnectionFactory reactiveConnectionFactory(ReactiveApiProperties properties) {
+        return ConnectionFactories.get(ConnectionFactoryOptions.parse(properties.getR2dbcUrl()).mutate()
+                .option(ConnectionFactoryOptions.USER, properties.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, properties.getPassword())
+                .build());
+    }
+
+    @Bean
+    public ReactiveApiServer reactiveApiServer(ConnectionFactory reactiveConnectionFactory,
+                                               ReactiveApiProperties properties,
+                                               JwtTokenProvider jwtTokenProvider,
+                                               CardEncryptor cardEncryptor,
+                                               RateLimitFilter rateLimitFilter,
+                                               ConcurrencyLimiterRegistry concurrencyLimiterRegistry,
+                                               ConcurrencyLimitProperties concurrencyLimitProperties,
+                                               ObjectMapper objectMapper) {
+        ReactiveCardReader cardReader = new ReactiveCardReader(
+                DatabaseClient.create(reactiveConnectionFactory), properties.getFetchSize());
+        ReactiveCardHandler handler = new ReactiveCardHandler(cardReader, cardEncryptor, properties.getMaxPageSize());
+
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .webFilter(new ReactiveJwtAuthenticationFilter(jwtTokenProvider))
+                .webFilter(new ReactiveLimitFilter(rateLimitFilter, concurrencyLimiterRegistry,
+                        concurrencyLimitProperties, objectMapper))
+                .build();
+        return new ReactiveApiServer(RouterFunctions.toHttpHandler(handler.routes(), strategies), properties.getPort());
+    }
+}
@@ -0,0 +1,25 @@
+package banking.boby.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.reactive")
+public class ReactiveApiProperties {
+
+    private boolean enabled = false;
+
+    private int port = 8081;
+
+    private String r2dbcUrl;
+
+    private String username;
+
+    private String password;
+
+    private int fetchSize = 500;
+
+    private int maxPageSize = 1000;
+}
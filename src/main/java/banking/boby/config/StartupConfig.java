@@ -0,0 +1,19 @@
+package banking.boby.config;
+
+import banking.boby.scheduler.CardExpiryScheduler;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+@Configuration
+@ImportRuntimeHints(AppRuntimeHints.class)
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerSchedulers() {
+        String schedulerPackage = CardExpiryScheduler.class.getPackageName();
+        return (beanName, beanDefinition, beanType) ->
+                beanType != null && beanType.getPackageName().equals(schedulerPackage);
+    }
+}
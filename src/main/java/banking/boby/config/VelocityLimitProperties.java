@@ -0,0 +1,37 @@
+package banking.boby.config;
+
+import banking.boby.velocity.VelocityScope;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "velocity-limit")
+public class VelocityLimitProperties {
+
+    private boolean enabled = true;
+
+    private int stripes = 64;
+
+    private Duration reconcileInterval = Duration.ofSeconds(30);
+
+    private Duration reconcileOverlap = Duration.ofMinutes(5);
+
+    private List<Limit> limits = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private VelocityScope scope = VelocityScope.CARD;
+        private Duration window = Duration.ofMinutes(1);
+        private int buckets = 60;
+        private long maxCount = Long.MAX_VALUE;
+        private BigDecimal maxAmount;
+    }
+}
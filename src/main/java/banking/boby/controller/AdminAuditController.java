@@ -0,0 +1,61 @@
+package banking.boby.controller;
+
+import banking.boby.audit.AuditJournal;
+import banking.boby.audit.AuditRecord;
+import banking.boby.exception.DataValidationException;
+import banking.boby.limiter.ConcurrencyGroup;
+import banking.boby.limiter.EndpointGroup;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("admin/audit")
+@ConcurrencyGroup(EndpointGroup.ADMIN)
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminAuditController {
+
+    private static final int MAX_LIMIT = 10_000;
+
+    private final AuditJournal auditJournal;
+
+    @Operation(summary = "Журнал аудита за период",
+            description = "Записи об изменяющих операциях за [from, to), при указании cardId только по этой карте.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Записи журнала успешно получены"),
+            @ApiResponse(responseCode = "400", description = "Некорректный период или лимит"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "403", description = "Нет прав доступа")
+    })
+    @GetMapping
+    public ResponseEntity<List<AuditRecord>> scan(
+            @Parameter(description = "Начало периода, включительно", example = "2025-01-01T00:00:00Z")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "Конец периода, не включительно", example = "2025-01-02T00:00:00Z")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "ID карты")
+            @RequestParam(required = false) Long cardId,
+            @Parameter(description = "Максимум записей", example = "1000")
+            @RequestParam(defaultValue = "1000") int limit) {
+        if (from.isAfter(to)) {
+            throw new DataValidationException("Начало периода %s позже конца %s", from, to);
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new DataValidationException("Лимит должен быть от 1 до %d", MAX_LIMIT);
+        }
+        return ResponseEntity.ok(auditJournal.scan(from, to, cardId, limit));
+    }
+}
@@ -0,0 +1,53 @@
+package banking.boby.controller;
+
+import banking.boby.dto.CacheRegionStatsDto;
+import banking.boby.limiter.ConcurrencyGroup;
+import banking.boby.limiter.EndpointGroup;
+import banking.boby.service.CacheStatisticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("admin/cache")
+@ConcurrencyGroup(EndpointGroup.ADMIN)
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminCacheController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    @Operation(summary = "Статистика кэша второго уровня",
+            description = "Попадания, промахи и размер по каждому региону кэша сущностей и запросов.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Статистика успешно получена"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "403", description = "Нет прав доступа")
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheRegionStatsDto>> getStats() {
+        return ResponseEntity.ok(cacheStatisticsService.getRegionStats());
+    }
+
+    @Operation(summary = "Очистить кэш второго уровня",
+            description = "Нужно после изменения таблиц в обход приложения.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Кэш очищен"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "403", description = "Нет прав доступа")
+    })
+    @PostMapping("/evict")
+    public ResponseEntity<Void> evictAll() {
+        cacheStatisticsService.evictAll();
+        return ResponseEntity.ok().build();
+    }
+}
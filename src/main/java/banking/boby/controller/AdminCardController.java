@@ -1,11 +1,19 @@
 package banking.boby.controller;
 
+import banking.boby.dto.AmountRequestDto;
 import banking.boby.dto.CardAdminDto;
+import banking.boby.dto.CardNumberLookupDto;
+import banking.boby.dto.CardStatsDto;
 import banking.boby.service.AdminCardService;
+import banking.boby.service.CardRollupService;
+import banking.boby.service.CardStatsService;
+import banking.boby.limiter.ConcurrencyGroup;
+import banking.boby.limiter.EndpointGroup;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
@@ -18,11 +26,14 @@ import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("admin/cards/")
+@ConcurrencyGroup(EndpointGroup.ADMIN)
 @RequiredArgsConstructor
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminCardController {
 
     private final AdminCardService adminCardService;
+    private final CardRollupService cardRollupService;
+    private final CardStatsService cardStatsService;
 
     @Value("${app.pagination.page-size}")
     private int pageSize;
@@ -74,6 +85,40 @@ public class AdminCardController {
         return ResponseEntity.ok().build();
     }
 
+    @Operation(summary = "Пополнить карту")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Карта успешно пополнена"),
+            @ApiResponse(responseCode = "400", description = "Некорректная сумма или карта не активна"),
+            @ApiResponse(responseCode = "404", description = "Карта не найдена"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "403", description = "Нет прав доступа")
+    })
+    @PostMapping("/{cardId}/deposit")
+    public ResponseEntity<Void> deposit(
+            @Parameter(description = "ID карты для пополнения", required = true)
+            @PathVariable Long cardId,
+            @Valid @RequestBody AmountRequestDto request) {
+        adminCardService.deposit(cardId, request.amount());
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(summary = "Снять средства с карты")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Средства успешно сняты"),
+            @ApiResponse(responseCode = "400", description = "Недостаточно средств, некорректная сумма или карта не активна"),
+            @ApiResponse(responseCode = "404", description = "Карта не найдена"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "403", description = "Нет прав доступа")
+    })
+    @PostMapping("/{cardId}/withdraw")
+    public ResponseEntity<Void> withdraw(
+            @Parameter(description = "ID карты для снятия", required = true)
+            @PathVariable Long cardId,
+            @Valid @RequestBody AmountRequestDto request) {
+        adminCardService.withdraw(cardId, request.amount());
+        return ResponseEntity.ok().build();
+    }
+
     @Operation(summary = "Удалить карту")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Карта успешно удалена"),
@@ -89,7 +134,10 @@ public class AdminCardController {
         return ResponseEntity.ok().build();
     }
 
-    @Operation(summary = "Получить все карты (с пагинацией)")
+    @Operation(summary = "Получить все карты (с пагинацией)",
+            description = "totalElements и totalPages берутся из счётчиков статистики карт, а не из COUNT(*): " +
+                    "значение приближённое и может отставать от таблицы на интервал сброса счётчиков " +
+                    "(app.stats.flush-interval). Для перебора всех карт ориентируйтесь на пустую страницу.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Страница карт успешно получена"),
             @ApiResponse(responseCode = "401", description = "Не авторизован"),
@@ -105,5 +153,46 @@ public class AdminCardController {
         Page<CardAdminDto> cardsPage = adminCardService.getAllCards(pageable);
         return ResponseEntity.ok(cardsPage);
     }
-}
 
+    @Operation(summary = "Найти карту по полному номеру",
+            description = "Ищет карту по отпечатку номера без расшифровки таблицы карт. " +
+                    "Номер передаётся в теле запроса, чтобы не попадать в журналы доступа.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Карта найдена"),
+            @ApiResponse(responseCode = "400", description = "Некорректный номер карты"),
+            @ApiResponse(responseCode = "404", description = "Карта с таким номером не найдена"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "403", description = "Нет прав доступа")
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<CardAdminDto> findCardByNumber(@Valid @RequestBody CardNumberLookupDto request) {
+        return ResponseEntity.ok(adminCardService.findCardByNumber(request));
+    }
+
+    @Operation(summary = "Пересчитать дневные агрегаты по картам",
+            description = "Запускает в фоне полный пересчёт агрегатов из операций параллельными пачками " +
+                    "по диапазонам карт. Окончание пересчёта видно в журнале приложения.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Пересчёт запущен, в ответе количество пачек"),
+            @ApiResponse(responseCode = "409", description = "Пересчёт уже выполняется"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "403", description = "Нет прав доступа")
+    })
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Integer> rebuildRollups() {
+        return ResponseEntity.accepted().body(cardRollupService.startRebuild());
+    }
+
+    @Operation(summary = "Статистика по картам",
+            description = "Количество карт по статусам, суммарный баланс и число выпущенных карт. " +
+                    "Берётся из счётчиков, а не из агрегатов по таблице карт.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Статистика успешно получена"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "403", description = "Нет прав доступа")
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<CardStatsDto> getStats() {
+        return ResponseEntity.ok(cardStatsService.getStats());
+    }
+}
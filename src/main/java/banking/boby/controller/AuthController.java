@@ -3,6 +3,8 @@ package banking.boby.controller;
 import banking.boby.dto.UserLoginDto;
 import banking.boby.dto.UserRegisterDto;
 import banking.boby.service.AuthService;
+import banking.boby.limiter.ConcurrencyGroup;
+import banking.boby.limiter.EndpointGroup;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
@@ -14,6 +16,7 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/auth")
+@ConcurrencyGroup(EndpointGroup.AUTH)
 @RequiredArgsConstructor
 public class AuthController {
 
@@ -0,0 +1,31 @@
+package banking.boby.controller;
+
+import banking.boby.context.UserContext;
+import banking.boby.service.CardEventStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/cards")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('USER')")
+public class CardStreamController {
+
+    private final CardEventStreamService cardEventStreamService;
+
+    @Operation(summary = "Поток изменений карт",
+            description = "Server-Sent Events с изменениями баланса и статуса карт пользователя." +
+                    "События приходят после фиксации транзакции, раз в 15 секунд отправляется heartbeat.")
+    @ApiResponse(responseCode = "200", description = "Поток событий открыт")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCardChanges() {
+        return cardEventStreamService.subscribe(UserContext.getCurrentUserId());
+    }
+}
@@ -2,11 +2,22 @@ package banking.boby.controller;
 
 import banking.boby.dto.BalanceResponseDto;
 import banking.boby.dto.CardDigitsDto;
+import banking.boby.dto.CardNumberTransferRequestDto;
 import banking.boby.dto.CardUserDto;
+import banking.boby.dto.SpendingSummaryDto;
 import banking.boby.dto.TransferRequestDto;
+import banking.boby.service.BinaryTransferService;
+import banking.boby.service.CardRollupService;
+import banking.boby.service.StatementExportService;
 import banking.boby.service.UserCardService;
+import banking.boby.limiter.ConcurrencyGroup;
+import banking.boby.limiter.EndpointGroup;
+import banking.boby.statement.StatementFormat;
+import banking.boby.transfer.TransferFrameCodec;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.NonNull;
@@ -15,17 +26,33 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/cards")
+@ConcurrencyGroup(EndpointGroup.READ)
 @RequiredArgsConstructor
 @PreAuthorize("hasRole('USER')")
 public class UserCardController {
 
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final UserCardService userCardService;
+    private final StatementExportService statementExportService;
+    private final CardRollupService cardRollupService;
+    private final BinaryTransferService binaryTransferService;
 
     @Operation(summary = "Запрос на блокировку карты",
             description = "Отправляет запрос на блокировку карты. Может возникнуть ошибка при неправильной операции с картой или при отсутствии доступа.")
@@ -33,6 +60,7 @@ public class UserCardController {
     @ApiResponse(responseCode = "403", description = "Доступ запрещён")
     @ApiResponse(responseCode = "404", description = "Карта не найдена")
     @PostMapping("/{cardId}/block")
+    @ConcurrencyGroup(EndpointGroup.WRITE)
     public ResponseEntity<String> blockCardRequest(@PathVariable @NonNull Long cardId) {
         userCardService.blockCardRequest(cardId);
         return ResponseEntity.ok("Запрос на блокировку карты выполнен");
@@ -42,24 +70,37 @@ public class UserCardController {
             description = "Возвращает текущий баланс карты." +
                     "Может возникнуть ошибка при отсутствии доступа или если карта не найдена.")
     @ApiResponse(responseCode = "200", description = "Баланс карты успешно получен")
+    @ApiResponse(responseCode = "304", description = "Баланс не изменился с указанного ETag")
     @ApiResponse(responseCode = "403", description = "Доступ запрещён")
     @ApiResponse(responseCode = "404", description = "Карта не найдена")
     @GetMapping("/{cardId}/balance")
-    public ResponseEntity<BalanceResponseDto> getBalance(@PathVariable @NotNull Long cardId) {
+    public ResponseEntity<BalanceResponseDto> getBalance(@PathVariable @NotNull Long cardId, WebRequest webRequest) {
+        String etag = userCardService.getBalanceEtag(cardId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+
         BalanceResponseDto balance = userCardService.getBalance(cardId);
-        return ResponseEntity.ok(balance);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(balance);
     }
 
     @Operation(summary = "Получить список своих карт",
             description = "Возвращает постраничный список карт пользователя.")
     @ApiResponse(responseCode = "200", description = "Список карт успешно получен")
+    @ApiResponse(responseCode = "304", description = "Список карт не изменился с указанного ETag")
     @GetMapping("/cards")
     public ResponseEntity<Page<CardUserDto>> getMyCards(@RequestParam(defaultValue = "0") int page,
                                                         @RequestParam(defaultValue = "2") int size,
-                                                        @RequestParam(required = false) String search) {
+                                                        @RequestParam(required = false) String search,
+                                                        WebRequest webRequest) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("id"));
+        String etag = userCardService.getMyCardsEtag(pageable, search);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+
         Page<CardUserDto> cardsPage = userCardService.getMyCards(pageable, search);
-        return ResponseEntity.ok(cardsPage);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(cardsPage);
     }
 
     @Operation(summary = "Перевод средств",
@@ -68,11 +109,38 @@ public class UserCardController {
     @ApiResponse(responseCode = "200", description = "Перевод успешно выполнен")
     @ApiResponse(responseCode = "403", description = "Доступ запрещён или небезопасная операция")
     @PostMapping("/transfer")
+    @ConcurrencyGroup(EndpointGroup.WRITE)
     public ResponseEntity<String> transferFunds(@Valid @RequestBody TransferRequestDto request) {
         userCardService.transferFunds(request);
         return ResponseEntity.ok("Перевод успешно выполнен");
     }
 
+    @Operation(summary = "Перевод средств по номеру карты",
+            description = "Выполняет перевод на карту, заданную полным номером, с теми же проверками, " +
+                    "что и перевод по ID. Номер передаётся в теле запроса, чтобы не попадать в журналы доступа. " +
+                    "Номер ищется только среди карт пользователя, чужая карта не отличается от несуществующей.")
+    @ApiResponse(responseCode = "200", description = "Перевод успешно выполнен")
+    @ApiResponse(responseCode = "403", description = "Доступ запрещён или небезопасная операция")
+    @ApiResponse(responseCode = "404", description = "У пользователя нет карты с таким номером")
+    @PostMapping("/transfer/by-number")
+    @ConcurrencyGroup(EndpointGroup.WRITE)
+    public ResponseEntity<String> transferToCardNumber(@Valid @RequestBody CardNumberTransferRequestDto request) {
+        userCardService.transferToCardNumber(request);
+        return ResponseEntity.ok("Перевод успешно выполнен");
+    }
+
+    @Operation(summary = "Пакетный перевод в двоичном формате",
+            description = "Тело запроса и ответа — последовательность кадров application/x-boby-transfer " +
+                    "(формат описан в TransferFrameCodec). Результаты возвращаются по мере выполнения переводов.")
+    @ApiResponse(responseCode = "200", description = "Кадры обработаны, результат каждого перевода в его кадре ответа")
+    @PostMapping(value = "/transfer/batch", consumes = TransferFrameCodec.MEDIA_TYPE_VALUE,
+            produces = TransferFrameCodec.MEDIA_TYPE_VALUE)
+    @ConcurrencyGroup(EndpointGroup.BATCH)
+    public void transferBatch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(TransferFrameCodec.MEDIA_TYPE_VALUE);
+        binaryTransferService.process(request.getInputStream(), response.getOutputStream());
+    }
+
     @Operation(summary = "Получить полный номер карты",
             description = "Возвращает полный номер карты." +
                     "Может возникнуть ошибка, если карта не найдена или доступ запрещён.")
@@ -83,4 +151,45 @@ public class UserCardController {
     public ResponseEntity<CardDigitsDto> getFullCardNumber(@PathVariable Long cardId) {
         return ResponseEntity.ok(userCardService.getFullCardNumber(cardId));
     }
+
+    @Operation(summary = "Выписка по карте",
+            description = "Потоково выгружает все операции по карте за период в CSV или NDJSON. " +
+                    "Даты включительные, формат задаётся параметром format (csv или ndjson).")
+    @ApiResponse(responseCode = "200", description = "Выписка выгружается")
+    @ApiResponse(responseCode = "400", description = "Некорректный период или формат")
+    @ApiResponse(responseCode = "403", description = "Доступ запрещён")
+    @ApiResponse(responseCode = "404", description = "Карта не найдена")
+    @GetMapping("/{cardId}/statement")
+    public ResponseEntity<StreamingResponseBody> exportStatement(
+            @PathVariable Long cardId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format) {
+        StatementFormat statementFormat = StatementFormat.from(format);
+        StreamingResponseBody body = statementExportService.prepareExport(cardId, from, to, statementFormat);
+
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(String.format("statement-%d-%s-%s.%s", cardId, from, to, statementFormat.getExtension()))
+                .build();
+        return ResponseEntity.ok()
+                .contentType(statementFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+
+    @Operation(summary = "Сводка оборотов по карте",
+            description = "Возвращает поступления, списания и количество операций за период с разбивкой " +
+                    "по дням или месяцам (granularity = day или month). Считается по дневным агрегатам.")
+    @ApiResponse(responseCode = "200", description = "Сводка успешно получена")
+    @ApiResponse(responseCode = "400", description = "Некорректный период или детализация")
+    @ApiResponse(responseCode = "403", description = "Доступ запрещён")
+    @ApiResponse(responseCode = "404", description = "Карта не найдена")
+    @GetMapping("/{cardId}/summary")
+    public ResponseEntity<SpendingSummaryDto> getSpendingSummary(
+            @PathVariable Long cardId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "month") String granularity) {
+        return ResponseEntity.ok(cardRollupService.getSummary(cardId, from, to, granularity));
+    }
 }
@@ -0,0 +1,38 @@
+package banking.boby.datasource;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+public class ReadYourWritesTracker {
+
+    private final ConcurrentHashMap<Long, Long> stickyUntil = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final LongSupplier clock;
+
+    public ReadYourWritesTracker(Duration window, LongSupplier clock) {
+        this.windowNanos = window.toNanos();
+        this.clock = clock;
+    }
+
+    public void recordWrite(Long userId) {
+        stickyUntil.put(userId, clock.getAsLong() + windowNanos);
+    }
+
+    public boolean isSticky(Long userId) {
+        Long until = stickyUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - clock.getAsLong() > 0) {
+            return true;
+        }
+        stickyUntil.remove(userId, until);
+        return false;
+    }
+
+    public void purgeExpired() {
+        long now = clock.getAsLong();
+        stickyUntil.values().removeIf(until -> until - now <= 0);
+    }
+}
@@ -0,0 +1,19 @@
+package banking.boby.datasource;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import javax.sql.DataSource;
+
+@Getter
+@Setter
+@RequiredArgsConstructor
+public class Replica {
+
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean healthy;
+    private volatile double lagSeconds;
+    private volatile long checkedAt;
+}
@@ -0,0 +1,86 @@
+package banking.boby.datasource;
+
+import banking.boby.context.UserContext;
+import lombok.Getter;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Направляет read-only транзакции на здоровые реплики, всё остальное - на primary.
+ * Пользователь, недавно закоммитивший запись, читает с primary в течение окна read-your-writes.
+ * Реплика, чей последний замер отставания старше maxCheckAge, считается нездоровой.
+ * Должен оборачиваться в LazyConnectionDataSourceProxy, иначе соединение берётся до выставления флага readOnly.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    @Getter
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker tracker;
+    private final long maxCheckAgeNanos;
+    private final LongSupplier clock;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, ReadYourWritesTracker tracker,
+                                    Duration maxCheckAge, LongSupplier clock) {
+        this.replicas = replicas;
+        this.tracker = tracker;
+        this.maxCheckAgeNanos = maxCheckAge.toNanos();
+        this.clock = clock;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+
+        Long userId = UserContext.getCurrentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        tracker.recordWrite(userId);
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+
+        if (userId != null && tracker.isSticky(userId)) {
+            return PRIMARY;
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        long now = clock.getAsLong();
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (isUsable(replica, now)) {
+                return replica.getName();
+            }
+        }
+        return PRIMARY;
+    }
+
+    public boolean isUsable(Replica replica, long now) {
+        return replica.isHealthy() && now - replica.getCheckedAt() <= maxCheckAgeNanos;
+    }
+}
@@ -0,0 +1,14 @@
+package banking.boby.dto;
+
+import banking.boby.money.Money;
+import banking.boby.money.PositiveMoney;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(description = "Сумма операции пополнения или снятия")
+public record AmountRequestDto(
+        @NotNull(message = "Введите сумму")
+        @PositiveMoney(message = "Сумма должна быть положительной")
+        @Schema(description = "Сумма операции", type = "number", example = "1000.00", required = true)
+        Money amount
+) {}
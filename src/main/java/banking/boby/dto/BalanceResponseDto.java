@@ -1,10 +1,9 @@
 package banking.boby.dto;
 
+import banking.boby.money.Money;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 
-import java.math.BigDecimal;
-
 @Builder
 @Schema(description = "Информация о балансе по карте")
 public record BalanceResponseDto(
@@ -14,6 +13,6 @@ public record BalanceResponseDto(
         @Schema(description = "Замаскированный номер карты", example = "**** **** **** 1234")
         String maskedNum,
 
-        @Schema(description = "Текущий баланс карты", example = "15000.75")
-        BigDecimal balance
+        @Schema(description = "Текущий баланс карты", type = "number", example = "15000.75")
+        Money balance
 ) {}
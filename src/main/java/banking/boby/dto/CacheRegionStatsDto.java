@@ -0,0 +1,23 @@
+package banking.boby.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+@Builder
+@Schema(description = "Статистика региона кэша второго уровня")
+public record CacheRegionStatsDto(
+        @Schema(description = "Имя региона", example = "users")
+        String region,
+
+        @Schema(description = "Попадания", example = "15230")
+        long hitCount,
+
+        @Schema(description = "Промахи", example = "120")
+        long missCount,
+
+        @Schema(description = "Записи в кэш", example = "120")
+        long putCount,
+
+        @Schema(description = "Элементов в памяти, -1 если провайдер не сообщает", example = "118")
+        long elementCount
+) {}
@@ -0,0 +1,19 @@
+package banking.boby.dto;
+
+import banking.boby.entity.enums.CardStatus;
+import banking.boby.money.Money;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+@Builder
+@Schema(description = "Изменение баланса или статуса карты в потоке событий")
+public record CardChangeDto(
+        @Schema(description = "Идентификатор карты", example = "12345")
+        Long cardId,
+
+        @Schema(description = "Текущий баланс карты", type = "number", example = "15000.75")
+        Money balance,
+
+        @Schema(description = "Текущий статус карты")
+        CardStatus status
+) {}
@@ -0,0 +1,13 @@
+package banking.boby.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+@Schema(description = "Поиск карты по полному номеру")
+public record CardNumberLookupDto(
+        @NotBlank(message = "Введите номер карты")
+        @Pattern(regexp = "\\d{16}", message = "Номер карты должен состоять из 16 цифр")
+        @Schema(description = "Полный номер карты", example = "4000001234567899", required = true)
+        String cardNumber
+) {}
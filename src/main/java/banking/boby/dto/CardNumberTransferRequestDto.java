@@ -0,0 +1,26 @@
+package banking.boby.dto;
+
+import banking.boby.money.Money;
+import banking.boby.money.PositiveMoney;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+@Schema(description = "Запрос на перевод средств на карту по её номеру")
+public record CardNumberTransferRequestDto(
+        @NotNull(message = "Укажите карту списания")
+        @Schema(description = "ID карты, с которой будут списаны деньги", example = "1001", required = true)
+        Long fromCardId,
+
+        @NotBlank(message = "Введите номер карты для получения")
+        @Pattern(regexp = "\\d{16}", message = "Номер карты должен состоять из 16 цифр")
+        @Schema(description = "Полный номер карты, на которую будут зачислены деньги", example = "4000001234567899",
+                required = true)
+        String toCardNumber,
+
+        @NotNull(message = "Введите сумму")
+        @PositiveMoney(message = "Сумма должны быть положительной")
+        @Schema(description = "Сумма перевода", type = "number", example = "500.00", required = true)
+        Money amount
+) {}
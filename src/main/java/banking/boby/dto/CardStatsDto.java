@@ -0,0 +1,28 @@
+package banking.boby.dto;
+
+import banking.boby.entity.enums.CardStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+@Builder
+@Schema(description = "Статистика по картам из счётчиков")
+public record CardStatsDto(
+        @Schema(description = "Количество карт по статусам")
+        Map<CardStatus, Long> cardsByStatus,
+
+        @Schema(description = "Общее количество карт", example = "15230")
+        long totalCards,
+
+        @Schema(description = "Суммарный баланс всех карт", example = "98765432.10")
+        BigDecimal totalBalance,
+
+        @Schema(description = "Выпущено карт за всё время", example = "16001")
+        long issuedTotal,
+
+        @Schema(description = "Время последней синхронизации счётчиков с базой")
+        Instant syncedAt
+) {}
@@ -1,10 +1,10 @@
 package banking.boby.dto;
 
 import banking.boby.entity.enums.CardStatus;
+import banking.boby.money.Money;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Builder
@@ -19,8 +19,8 @@ public record CardUserDto(
         @Schema(description = "Дата истечения срока действия карты", example = "2027-12-31")
         LocalDate expDate,
 
-        @Schema(description = "Баланс на карте", example = "1500.50")
-        BigDecimal balance,
+        @Schema(description = "Баланс на карте", type = "number", example = "1500.50")
+        Money balance,
 
         @Schema(description = "Статус карты")
         CardStatus status
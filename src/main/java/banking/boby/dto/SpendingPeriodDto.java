@@ -0,0 +1,23 @@
+package banking.boby.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Builder
+@Schema(description = "Обороты по карте за день или месяц")
+public record SpendingPeriodDto(
+        @Schema(description = "Начало периода", example = "2025-03-01")
+        LocalDate period,
+
+        @Schema(description = "Поступления за период", example = "25000.00")
+        BigDecimal inflow,
+
+        @Schema(description = "Списания за период", example = "13250.40")
+        BigDecimal outflow,
+
+        @Schema(description = "Количество операций", example = "42")
+        long operationCount
+) {}
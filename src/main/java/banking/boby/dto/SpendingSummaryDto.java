@@ -0,0 +1,33 @@
+package banking.boby.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Builder
+@Schema(description = "Сводка оборотов по карте за период")
+public record SpendingSummaryDto(
+        @Schema(description = "Идентификатор карты", example = "12345")
+        Long cardId,
+
+        @Schema(description = "Начало периода", example = "2025-01-01")
+        LocalDate from,
+
+        @Schema(description = "Конец периода включительно", example = "2025-03-31")
+        LocalDate to,
+
+        @Schema(description = "Поступления за весь период", example = "75000.00")
+        BigDecimal inflow,
+
+        @Schema(description = "Списания за весь период", example = "40100.25")
+        BigDecimal outflow,
+
+        @Schema(description = "Количество операций за весь период", example = "128")
+        long operationCount,
+
+        @Schema(description = "Разбивка по дням или месяцам")
+        List<SpendingPeriodDto> periods
+) {}
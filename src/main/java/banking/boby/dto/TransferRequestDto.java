@@ -1,10 +1,9 @@
 package banking.boby.dto;
 
+import banking.boby.money.Money;
+import banking.boby.money.PositiveMoney;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
-
-import java.math.BigDecimal;
 
 @Schema(description = "Запрос на перевод средств между картами одного аккаунта")
 public record TransferRequestDto(
@@ -17,7 +16,7 @@ public record TransferRequestDto(
         Long toCardId,
 
         @NotNull(message = "Введите сумму")
-        @Positive(message = "Сумма должны быть положительной")
-        @Schema(description = "Сумма перевода", example = "500.00", required = true)
-        BigDecimal amount
+        @PositiveMoney(message = "Сумма должны быть положительной")
+        @Schema(description = "Сумма перевода", type = "number", example = "500.00", required = true)
+        Money amount
 ) {}
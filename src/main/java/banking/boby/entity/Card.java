@@ -1,6 +1,7 @@
 package banking.boby.entity;
 
 import banking.boby.entity.enums.CardStatus;
+import banking.boby.money.Money;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -18,7 +19,6 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
@@ -36,6 +36,9 @@ public class Card {
     @Column(name = "encrypted_number", nullable = false, length = 512)
     private String encryptedNumber;
 
+    @Column(name = "number_fingerprint", updatable = false, length = 32)
+    private byte[] numberFingerprint;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User holder;
@@ -51,7 +54,7 @@ public class Card {
     private CardStatus status;
 
     @Column(name = "balance", precision = 19, scale = 2)
-    private BigDecimal balance;
+    private Money balance;
 
     @Version
     private Long version;
@@ -60,7 +63,7 @@ public class Card {
         this.status = status;
     }
 
-    public void setBalance(BigDecimal balance) {
+    public void setBalance(Money balance) {
         this.balance = balance;
     }
 }
@@ -0,0 +1,52 @@
+package banking.boby.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "card_daily_rollup")
+@IdClass(CardDailyRollup.Key.class)
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Builder
+public class CardDailyRollup {
+
+    @Id
+    @Column(name = "card_id")
+    private Long cardId;
+
+    @Id
+    @Column(name = "day")
+    private LocalDate day;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal inflow;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal outflow;
+
+    @Column(name = "operation_count", nullable = false)
+    private long operationCount;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long cardId;
+        private LocalDate day;
+    }
+}
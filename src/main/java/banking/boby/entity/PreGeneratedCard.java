@@ -1,5 +1,6 @@
 package banking.boby.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -23,4 +24,7 @@ public class PreGeneratedCard {
     private Long id;
 
     private String cardNumberEncrypted;
+
+    @Column(name = "number_fingerprint", length = 32)
+    private byte[] numberFingerprint;
 }
@@ -0,0 +1,13 @@
+package banking.boby.event;
+
+import banking.boby.entity.Card;
+import banking.boby.entity.enums.CardStatus;
+import banking.boby.money.Money;
+
+public record CardChangedEvent(Long cardId, Long userId, Money balance, CardStatus status) {
+
+    public static CardChangedEvent of(Card card) {
+        Long userId = card.getHolder() != null ? card.getHolder().getId() : null;
+        return new CardChangedEvent(card.getId(), userId, card.getBalance(), card.getStatus());
+    }
+}
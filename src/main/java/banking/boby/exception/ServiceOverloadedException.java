@@ -0,0 +1,8 @@
+package banking.boby.exception;
+
+public class ServiceOverloadedException extends RuntimeException {
+
+    public ServiceOverloadedException(String message, Object... args) {
+        super(String.format(message, args));
+    }
+}
@@ -0,0 +1,133 @@
+package banking.boby.limiter;
+
+import banking.boby.config.ConcurrencyLimitProperties;
+import banking.boby.exception.ServiceOverloadedException;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Занимает разрешение лимита группы на время обработки запроса. Асинхронный запрос (потоковая выгрузка)
+ * держит разрешение до завершения асинхронной обработки, повторный ASYNC-диспетчинг разрешение не берёт.
+ * В лимит для асинхронного запроса передаётся время до начала асинхронной обработки, а не длительность потока,
+ * чтобы долгие выгрузки не снижали лимит всей группы.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    private final ConcurrencyLimiterRegistry limiterRegistry;
+    private final ConcurrencyLimitProperties properties;
+    private final ConcurrentHashMap<Method, Optional<EndpointGroup>> groups = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!properties.isEnabled() || request.getDispatcherType() == DispatcherType.ASYNC
+                || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        Optional<EndpointGroup> group = groups.computeIfAbsent(handlerMethod.getMethod(),
+                method -> resolveGroup(handlerMethod));
+        if (group.isEmpty()) {
+            return true;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiterRegistry.get(group.get());
+        if (!limiter.tryAcquire()) {
+            throw new ServiceOverloadedException("Сервис перегружен, повторите запрос позже");
+        }
+
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(limiter, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        if (!(request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit)) {
+            return;
+        }
+
+        permit.asyncStarted();
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    permit.release();
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (!(request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit)) {
+            return;
+        }
+        request.removeAttribute(PERMIT_ATTRIBUTE);
+        permit.release();
+    }
+
+    private Optional<EndpointGroup> resolveGroup(HandlerMethod handlerMethod) {
+        ConcurrencyGroup annotation = handlerMethod.getMethodAnnotation(ConcurrencyGroup.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), ConcurrencyGroup.class);
+        }
+        return Optional.ofNullable(annotation).map(ConcurrencyGroup::value);
+    }
+
+    /**
+     * Разрешение освобождается ровно один раз: из afterCompletion или из слушателя завершения асинхронной обработки.
+     */
+    private static final class Permit {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile long asyncLatency = -1;
+
+        private Permit(AdaptiveConcurrencyLimiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+
+        private void asyncStarted() {
+            asyncLatency = System.nanoTime() - start;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                long latency = asyncLatency;
+                limiter.release(latency >= 0 ? latency : System.nanoTime() - start);
+            }
+        }
+    }
+}
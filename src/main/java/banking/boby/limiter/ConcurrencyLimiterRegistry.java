@@ -0,0 +1,46 @@
+package banking.boby.limiter;
+
+import banking.boby.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class ConcurrencyLimiterRegistry {
+
+    private final Map<EndpointGroup, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+
+    public ConcurrencyLimiterRegistry(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        for (EndpointGroup group : EndpointGroup.values()) {
+            ConcurrencyLimitProperties.Group config = properties.getGroups()
+                    .getOrDefault(group, new ConcurrencyLimitProperties.Group());
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    config.getInitialLimit(),
+                    config.getMinLimit(),
+                    config.getMaxLimit(),
+                    config.getLatencyThreshold().toNanos(),
+                    properties.getBackoffRatio(),
+                    System::nanoTime);
+            limiters.put(group, limiter);
+
+            String tag = group.name().toLowerCase();
+            Gauge.builder("http.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("group", tag)
+                    .register(meterRegistry);
+            Gauge.builder("http.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("group", tag)
+                    .register(meterRegistry);
+            FunctionCounter.builder("http.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                    .tag("group", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    public AdaptiveConcurrencyLimiter get(EndpointGroup group) {
+        return limiters.get(group);
+    }
+}
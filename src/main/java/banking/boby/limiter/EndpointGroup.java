@@ -0,0 +1,9 @@
+package banking.boby.limiter;
+
+public enum EndpointGroup {
+    AUTH,
+    READ,
+    WRITE,
+    BATCH,
+    ADMIN
+}
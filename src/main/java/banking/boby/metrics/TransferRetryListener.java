@@ -0,0 +1,32 @@
+package banking.boby.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.stereotype.Component;
+
+@Component("transferRetryListener")
+@RequiredArgsConstructor
+public class TransferRetryListener implements RetryListener {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback,
+                                               Throwable throwable) {
+        int retries = throwable == null ? context.getRetryCount() : context.getRetryCount() - 1;
+        if (retries <= 0) {
+            return;
+        }
+
+        Throwable cause = context.getLastThrowable();
+        Counter.builder("card.transfer.retries")
+                .tag("exception", cause != null ? cause.getClass().getSimpleName() : "none")
+                .tag("outcome", throwable == null ? "success" : "failure")
+                .register(meterRegistry)
+                .increment(retries);
+    }
+}
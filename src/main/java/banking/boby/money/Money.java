@@ -0,0 +1,140 @@
+package banking.boby.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+
+/**
+ * Денежная сумма в копейках. Арифметика с проверкой переполнения, без аллокаций BigDecimal
+ * на пути проводки. В JSON и в базе представляется десятичным числом с двумя знаками.
+ */
+@JsonSerialize(using = MoneyJsonSerializer.class)
+@JsonDeserialize(using = MoneyJsonDeserializer.class)
+public record Money(long minorUnits) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long MINOR_PER_MAJOR = 100;
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    public static Money ofMajor(long majorUnits) {
+        return ofMinor(Math.multiplyExact(majorUnits, MINOR_PER_MAJOR));
+    }
+
+    public static Money of(BigDecimal amount) {
+        try {
+            return ofMinor(amount.setScale(SCALE).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Сумма " + amount + " не помещается в копейки", e);
+        }
+    }
+
+    /**
+     * Разбирает десятичную запись вида -123.45 без BigDecimal, запись с экспонентой разбирается через BigDecimal.
+     */
+    public static Money parse(String text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+        if (i == length) {
+            throw new IllegalArgumentException("Некорректная сумма: " + text);
+        }
+
+        long major = 0;
+        int digits = 0;
+        for (; i < length && text.charAt(i) != '.'; i++, digits++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return of(parseDecimal(text));
+            }
+            major = Math.addExact(Math.multiplyExact(major, 10), c - '0');
+        }
+
+        long minor = 0;
+        int fractionDigits = 0;
+        if (i < length) {
+            for (i++; i < length; i++, digits++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    return of(parseDecimal(text));
+                }
+                if (fractionDigits < SCALE) {
+                    minor = minor * 10 + (c - '0');
+                    fractionDigits++;
+                } else if (c != '0') {
+                    throw new IllegalArgumentException("Сумма " + text + " содержит больше двух знаков после запятой");
+                }
+            }
+        }
+        if (digits == 0) {
+            throw new IllegalArgumentException("Некорректная сумма: " + text);
+        }
+        for (; fractionDigits < SCALE; fractionDigits++) {
+            minor *= 10;
+        }
+
+        long total = Math.addExact(Math.multiplyExact(major, MINOR_PER_MAJOR), minor);
+        return ofMinor(negative ? -total : total);
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        long abs = Math.abs(minorUnits);
+        long fraction = abs % MINOR_PER_MAJOR;
+        StringBuilder sb = new StringBuilder(24);
+        if (minorUnits < 0) {
+            sb.append('-');
+        }
+        sb.append(abs / MINOR_PER_MAJOR).append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction).toString();
+    }
+
+    private static BigDecimal parseDecimal(String text) {
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректная сумма: " + text, e);
+        }
+    }
+}
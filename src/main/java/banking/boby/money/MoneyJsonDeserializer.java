@@ -0,0 +1,34 @@
+package banking.boby.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Принимает сумму числом или строкой, как BigDecimal в прежних DTO, и отклоняет больше двух знаков после запятой.
+ */
+public class MoneyJsonDeserializer extends StdDeserializer<Money> {
+
+    public MoneyJsonDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        try {
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                return Money.ofMajor(p.getLongValue());
+            }
+            if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_STRING) {
+                return Money.parse(p.getText().trim());
+            }
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            return (Money) ctxt.handleWeirdStringValue(Money.class, p.getText(), e.getMessage());
+        }
+        return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+    }
+}
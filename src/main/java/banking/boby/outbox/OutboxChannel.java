@@ -0,0 +1,76 @@
+package banking.boby.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограниченная очередь пачек к одному получателю со своим потоком. Переполненная очередь
+ * не принимает пачку, и диспетчер откладывает её до следующей попытки.
+ */
+@Slf4j
+public class OutboxChannel implements AutoCloseable {
+
+    private final OutboxConsumer consumer;
+    private final BlockingQueue<Delivery> queue;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public OutboxChannel(OutboxConsumer consumer, int capacity) {
+        this.consumer = consumer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.worker = new Thread(this::run, "outbox-" + consumer.name());
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public CompletableFuture<Void> submit(List<PostingEvent> events, Duration timeout) throws InterruptedException {
+        Delivery delivery = new Delivery(events, new CompletableFuture<>());
+        if (!queue.offer(delivery, timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            delivery.result().completeExceptionally(
+                    new IllegalStateException("Очередь получателя " + consumer.name() + " переполнена"));
+        }
+        return delivery.result();
+    }
+
+    public String name() {
+        return consumer.name();
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            Delivery delivery;
+            try {
+                delivery = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                consumer.accept(delivery.events());
+                delivery.result().complete(null);
+            } catch (RuntimeException e) {
+                log.warn("Получатель {} не обработал пачку из {} событий: {}",
+                        consumer.name(), delivery.events().size(), e.getMessage());
+                delivery.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    private record Delivery(List<PostingEvent> events, CompletableFuture<Void> result) {}
+}
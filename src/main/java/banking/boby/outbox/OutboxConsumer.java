@@ -0,0 +1,14 @@
+package banking.boby.outbox;
+
+import java.util.List;
+
+/**
+ * Локальный получатель проводок из outbox. Доставка «хотя бы один раз»: после сбоя любого получателя
+ * пачка повторяется целиком для всех, поэтому обработка должна быть идемпотентной по outboxId.
+ */
+public interface OutboxConsumer {
+
+    String name();
+
+    void accept(List<PostingEvent> events);
+}
@@ -0,0 +1,15 @@
+package banking.boby.outbox;
+
+import banking.boby.entity.enums.OperationType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record PostingEvent(
+        Long outboxId,
+        Long transactionId,
+        Long cardId,
+        BigDecimal amount,
+        OperationType operationType,
+        LocalDateTime operationDateTime
+) {}
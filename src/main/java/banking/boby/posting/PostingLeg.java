@@ -0,0 +1,17 @@
+package banking.boby.posting;
+
+import banking.boby.money.Money;
+
+/**
+ * Одна сторона проводки: отрицательная сумма списывается с карты, положительная зачисляется.
+ */
+public record PostingLeg(Long cardId, Money amount) {
+
+    public static PostingLeg debit(Long cardId, Money amount) {
+        return new PostingLeg(cardId, amount.negate());
+    }
+
+    public static PostingLeg credit(Long cardId, Money amount) {
+        return new PostingLeg(cardId, amount);
+    }
+}
@@ -0,0 +1,52 @@
+package banking.boby.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Отдельный Netty-сервер рядом с Tomcat: реактивному API не нужен поток на соединение,
+ * поэтому число одновременных клиентов ограничено пулом R2DBC, а не пулом потоков сервлетов.
+ */
+@Slf4j
+public class ReactiveApiServer implements SmartLifecycle {
+
+    private final HttpHandler httpHandler;
+    private final int port;
+    private volatile DisposableServer server;
+
+    public ReactiveApiServer(HttpHandler httpHandler, int port) {
+        this.httpHandler = httpHandler;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Реактивный API чтения запущен на порту {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer current = server;
+        server = null;
+        if (current != null) {
+            current.disposeNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    public int getPort() {
+        return server == null ? port : server.port();
+    }
+}
@@ -0,0 +1,166 @@
+package banking.boby.reactive;
+
+import banking.boby.dto.BalanceResponseDto;
+import banking.boby.dto.CardAdminDto;
+import banking.boby.dto.CardUserDto;
+import banking.boby.exception.AccessDeniedException;
+import banking.boby.exception.DataValidationException;
+import banking.boby.exception.EntityNotFoundException;
+import banking.boby.repository.projection.CardSummaryView;
+import banking.boby.security.CardEncryptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Эндпоинты чтения карт поверх R2DBC. Списки отдаются потоком: JSON-массивом по умолчанию
+ * или построчно при Accept: application/x-ndjson, без подсчёта общего числа карт.
+ */
+public class ReactiveCardHandler {
+
+    private final ReactiveCardReader cardReader;
+    private final CardEncryptor cardEncryptor;
+    private final int maxPageSize;
+
+    public ReactiveCardHandler(ReactiveCardReader cardReader, CardEncryptor cardEncryptor, int maxPageSize) {
+        this.cardReader = cardReader;
+        this.cardEncryptor = cardEncryptor;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        RouterFunction<ServerResponse> user = RouterFunctions.route()
+                .GET("/cards/cards", this::getMyCards)
+                .GET("/cards/{cardId}/balance", this::getBalance)
+                .filter(requireRole("USER"))
+                .build();
+        RouterFunction<ServerResponse> admin = RouterFunctions.route()
+                .GET("/admin/cards", this::getAllCards)
+                .filter(requireRole("ADMIN"))
+                .build();
+        return user.and(admin)
+                .filter((request, next) -> Mono.defer(() -> next.handle(request))
+                        .onErrorResume(EntityNotFoundException.class, e -> error(HttpStatus.NOT_FOUND, e.getMessage()))
+                        .onErrorResume(AccessDeniedException.class, e -> error(HttpStatus.FORBIDDEN, e.getMessage()))
+                        .onErrorResume(DataValidationException.class, e -> error(HttpStatus.BAD_REQUEST, e.getMessage())));
+    }
+
+    public Mono<ServerResponse> getMyCards(ServerRequest request) {
+        int size = intParam(request, "size", 2, 1, maxPageSize);
+        long offset = (long) intParam(request, "page", 0, 0, Integer.MAX_VALUE) * size;
+        return currentUserId().flatMap(userId -> stream(request,
+                cardReader.findByHolderId(userId, size, offset).map(this::mapToCardUserDto), CardUserDto.class));
+    }
+
+    public Mono<ServerResponse> getBalance(ServerRequest request) {
+        long cardId = parseLong(request.pathVariable("cardId"), "cardId");
+        return currentUserId().flatMap(userId -> cardReader.findById(cardId)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Карта с id %d не найдена", cardId)))
+                .flatMap(card -> card.holderId().equals(userId)
+                        ? Mono.just(card)
+                        : Mono.error(new AccessDeniedException("Карта %d не принадлежит пользователю %d", cardId, userId)))
+                .map(card -> BalanceResponseDto.builder()
+                        .balance(card.balance())
+                        .cardId(cardId)
+                        .maskedNum(maskCardNumber(cardEncryptor.decrypt(card.encryptedNumber())))
+                        .build())
+                .flatMap(balance -> ServerResponse.ok().bodyValue(balance)));
+    }
+
+    public Mono<ServerResponse> getAllCards(ServerRequest request) {
+        int size = intParam(request, "size", 10, 1, maxPageSize);
+        long offset = (long) intParam(request, "page", 0, 0, Integer.MAX_VALUE) * size;
+        return stream(request, cardReader.findAll(size, offset).map(card -> CardAdminDto.builder()
+                .id(card.id())
+                .expDate(card.expiryDate())
+                .maskedNum(maskCardNumber(cardEncryptor.decrypt(card.encryptedNumber())))
+                .status(card.status())
+                .userId(card.holderId())
+                .build()), CardAdminDto.class);
+    }
+
+    private <T> Mono<ServerResponse> stream(ServerRequest request, Flux<T> body, Class<T> type) {
+        MediaType mediaType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok().contentType(mediaType).body(body, type);
+    }
+
+    private CardUserDto mapToCardUserDto(CardSummaryView card) {
+        return CardUserDto.builder()
+                .id(card.id())
+                .maskedNum(maskCardNumber(cardEncryptor.decrypt(card.encryptedNumber())))
+                .status(card.status())
+                .expDate(card.expiryDate())
+                .balance(card.balance())
+                .build();
+    }
+
+    private int intParam(ServerRequest request, String name, int defaultValue, int min, int max) {
+        long value = request.queryParam(name)
+                .map(raw -> parseLong(raw, name))
+                .orElse((long) defaultValue);
+        if (value < min || value > max) {
+            throw new DataValidationException("Параметр %s должен быть от %d до %d", name, min, max);
+        }
+        return (int) value;
+    }
+
+    private static long parseLong(String raw, String name) {
+        try {
+            return Long.parseLong(raw);
+        } catch (NumberFormatException e) {
+            throw new DataValidationException("Параметр %s должен быть числом: %s", name, raw);
+        }
+    }
+
+    private static Mono<Long> currentUserId() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(authentication -> (Long) authentication.getPrincipal());
+    }
+
+    private static HandlerFilterFunction<ServerResponse, ServerResponse> requireRole(String role) {
+        String authority = "ROLE_" + role;
+        return (request, next) -> ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .flatMap(authentication -> hasAuthority(authentication, authority)
+                        ? next.handle(request)
+                        : error(HttpStatus.FORBIDDEN, "Нет прав доступа"))
+                .switchIfEmpty(Mono.defer(() -> error(HttpStatus.UNAUTHORIZED, "Не авторизован")));
+    }
+
+    private static boolean hasAuthority(Authentication authentication, String authority) {
+        return authentication.getAuthorities().stream().anyMatch(a -> authority.equals(a.getAuthority()));
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+    }
+
+    private static String maskCardNumber(String decryptedNumber) {
+        char[] chars = decryptedNumber.toCharArray();
+        for (int i = 0; i < chars.length - 4; i++) {
+            chars[i] = '*';
+        }
+        return new String(chars);
+    }
+}
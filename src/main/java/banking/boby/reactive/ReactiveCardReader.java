@@ -0,0 +1,64 @@
+package banking.boby.reactive;
+
+import banking.boby.entity.enums.CardStatus;
+import banking.boby.money.Money;
+import banking.boby.repository.projection.CardSummaryView;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Чтение карт через R2DBC. Строки отдаются по мере запроса подписчика, драйвер выбирает их порциями по fetchSize.
+ */
+public class ReactiveCardReader {
+
+    private static final String COLUMNS = "SELECT id, encrypted_number, user_id, expiry_date, status, balance FROM cards ";
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public ReactiveCardReader(DatabaseClient databaseClient, int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    public Flux<CardSummaryView> findByHolderId(long holderId, int limit, long offset) {
+        return databaseClient.sql(COLUMNS + "WHERE user_id = $1 ORDER BY id LIMIT $2 OFFSET $3")
+                .bind(0, holderId)
+                .bind(1, limit)
+                .bind(2, offset)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveCardReader::map)
+                .all();
+    }
+
+    public Flux<CardSummaryView> findAll(int limit, long offset) {
+        return databaseClient.sql(COLUMNS + "ORDER BY id LIMIT $1 OFFSET $2")
+                .bind(0, limit)
+                .bind(1, offset)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveCardReader::map)
+                .all();
+    }
+
+    public Mono<CardSummaryView> findById(long cardId) {
+        return databaseClient.sql(COLUMNS + "WHERE id = $1")
+                .bind(0, cardId)
+                .map(ReactiveCardReader::map)
+                .one();
+    }
+
+    private static CardSummaryView map(Readable row) {
+        return new CardSummaryView(
+                row.get("id", Long.class),
+                row.get("encrypted_number", String.class),
+                row.get("user_id", Long.class),
+                row.get("expiry_date", LocalDate.class),
+                CardStatus.valueOf(row.get("status", String.class)),
+                Money.of(row.get("balance", BigDecimal.class)));
+    }
+}
@@ -0,0 +1,107 @@
+package banking.boby.reactive;
+
+import banking.boby.config.ConcurrencyLimitProperties;
+import banking.boby.limiter.AdaptiveConcurrencyLimiter;
+import banking.boby.limiter.ConcurrencyLimiterRegistry;
+import banking.boby.limiter.EndpointGroup;
+import banking.boby.security.RateLimitFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Те же лимиты, что у основного API: бакеты RateLimitFilter с тем же ключом (id пользователя или адрес клиента)
+ * и группы конкурентности READ и ADMIN. Бакеты общие с Tomcat, поэтому второй порт не удваивает лимит.
+ * Должен стоять после ReactiveJwtAuthenticationFilter. В лимит конкурентности передаётся время до отправки
+ * заголовков ответа, а не длительность потока, как и для асинхронных запросов в ConcurrencyLimitInterceptor.
+ */
+@RequiredArgsConstructor
+public class ReactiveLimitFilter implements WebFilter {
+
+    private final RateLimitFilter rateLimitFilter;
+    private final ConcurrencyLimiterRegistry limiterRegistry;
+    private final ConcurrencyLimitProperties concurrencyProperties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(context -> context.getAuthentication() != null ? context.getAuthentication().getPrincipal()
+                        : remoteAddress(exchange))
+                .defaultIfEmpty(remoteAddress(exchange))
+                .flatMap(principal -> {
+                    String method = exchange.getRequest().getMethod().name();
+                    String path = exchange.getRequest().getPath().pathWithinApplication().value();
+                    long waitNanos = rateLimitFilter.tryAcquire(method, path, principal);
+                    if (waitNanos > 0) {
+                        long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+                        return reject(exchange.getResponse(), HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds,
+                                "Слишком много запросов, повторите через " + retryAfterSeconds + " с");
+                    }
+                    return withPermit(exchange, chain, path);
+                });
+    }
+
+    private Mono<Void> withPermit(ServerWebExchange exchange, WebFilterChain chain, String path) {
+        if (!concurrencyProperties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        AdaptiveConcurrencyLimiter limiter = limiterRegistry.get(
+                path.startsWith("/admin/") ? EndpointGroup.ADMIN : EndpointGroup.READ);
+        if (!limiter.tryAcquire()) {
+            return reject(exchange.getResponse(), HttpStatus.SERVICE_UNAVAILABLE, 1,
+                    "Сервис перегружен, повторите запрос позже");
+        }
+
+        long start = System.nanoTime();
+        AtomicLong committedAt = new AtomicLong();
+        exchange.getResponse().beforeCommit(() -> {
+            committedAt.compareAndSet(0, System.nanoTime());
+            return Mono.empty();
+        });
+        return chain.filter(exchange).doFinally(signal -> {
+            long committed = committedAt.get();
+            limiter.release((committed != 0 ? committed : System.nanoTime()) - start);
+        });
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, HttpStatus status, long retryAfterSeconds, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(status);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+    }
+
+    private static Object remoteAddress(ServerWebExchange exchange) {
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        return address != null && address.getAddress() != null ? address.getAddress().getHostAddress() : "unknown";
+    }
+}
@@ -0,0 +1,44 @@
+package banking.boby.repository;
+
+import banking.boby.entity.CardDailyRollup;
+import banking.boby.repository.projection.RollupPeriodView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface CardDailyRollupRepository extends JpaRepository<CardDailyRollup, CardDailyRollup.Key> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO card_daily_rollup (card_id, day, inflow, outflow, operation_count)
+            VALUES (:cardId, :day, :inflow, :outflow, 1)
+            ON CONFLICT (card_id, day) DO UPDATE
+            SET inflow = card_daily_rollup.inflow + EXCLUDED.inflow,
+                outflow = card_daily_rollup.outflow + EXCLUDED.outflow,
+                operation_count = card_daily_rollup.operation_count + 1
+            """, nativeQuery = true)
+    void addPosting(@Param("cardId") Long cardId,
+                    @Param("day") LocalDate day,
+                    @Param("inflow") BigDecimal inflow,
+                    @Param("outflow") BigDecimal outflow);
+
+    @Query(value = """
+            SELECT CAST(date_trunc(CAST(:unit AS TEXT), day) AS DATE) AS period,
+                   SUM(inflow) AS inflow,
+                   SUM(outflow) AS outflow,
+                   SUM(operation_count) AS "operationCount"
+            FROM card_daily_rollup
+            WHERE card_id = :cardId AND day BETWEEN :from AND :to
+            GROUP BY 1
+            ORDER BY 1
+            """, nativeQuery = true)
+    List<RollupPeriodView> summarize(@Param("cardId") Long cardId,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to,
+                                     @Param("unit") String unit);
+}
@@ -2,18 +2,64 @@ package banking.boby.repository;
 
 import banking.boby.entity.Card;
 import banking.boby.entity.enums.CardStatus;
+import banking.boby.repository.projection.CardSummaryView;
+import banking.boby.repository.projection.CardVersionView;
+import banking.boby.repository.projection.ExpiredCardView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface CardRepository extends JpaRepository<Card, Long> {
 
-    List<Card> findByExpiryDateBeforeAndStatusIn(LocalDate date, List<CardStatus> statuses);
+    @Query(value = """
+            SELECT id, user_id AS "holderId", balance, status
+            FROM cards
+            WHERE expiry_date < :date AND status IN ('ACTIVE', 'BLOCKED')
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<ExpiredCardView> lockExpiredChunk(@Param("date") LocalDate date, @Param("limit") int limit);
 
-    Page<Card> findByHolderId(Long userId, Pageable pageable);
+    @Modifying
+    @Query("UPDATE Card c SET c.status = :status, c.version = c.version + 1 WHERE c.id IN :ids")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") CardStatus status);
 
-    List<Card> findByHolderId(Long holderId);
+    String SUMMARY = "SELECT new banking.boby.repository.projection.CardSummaryView("
+            + "c.id, c.encryptedNumber, c.holder.id, c.expiryDate, c.status, c.balance) FROM Card c ";
+
+    @Query(SUMMARY)
+    Slice<CardSummaryView> findSummariesBy(Pageable pageable);
+
+    @Query(value = SUMMARY + "WHERE c.holder.id = :holderId",
+            countQuery = "SELECT count(c) FROM Card c WHERE c.holder.id = :holderId")
+    Page<CardSummaryView> findSummariesByHolderId(@Param("holderId") Long holderId, Pageable pageable);
+
+    @Query(SUMMARY + "WHERE c.holder.id = :holderId ORDER BY c.id")
+    List<CardSummaryView> findSummariesByHolderId(@Param("holderId") Long holderId);
+
+    @Query(SUMMARY + "WHERE c.id = :cardId")
+    Optional<CardSummaryView> findSummaryById(@Param("cardId") Long cardId);
+
+    @Query(SUMMARY + "WHERE c.numberFingerprint = :fingerprint")
+    Optional<CardSummaryView> findSummaryByNumberFingerprint(@Param("fingerprint") byte[] fingerprint);
+
+    @Query("SELECT c.id FROM Card c WHERE c.numberFingerprint = :fingerprint AND c.holder.id = :holderId")
+    Optional<Long> findIdByNumberFingerprintAndHolderId(@Param("fingerprint") byte[] fingerprint,
+                                                        @Param("holderId") Long holderId);
+
+    @Query("SELECT c.version FROM Card c WHERE c.id = :cardId AND c.holder.id = :holderId")
+    Optional<Long> findVersionByIdAndHolderId(@Param("cardId") Long cardId, @Param("holderId") Long holderId);
+
+    @Query("SELECT c.id AS id, c.version AS version FROM Card c WHERE c.holder.id = :holderId ORDER BY c.id")
+    List<CardVersionView> findVersionsByHolderId(@Param("holderId") Long holderId);
 }
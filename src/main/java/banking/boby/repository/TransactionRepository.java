@@ -3,8 +3,5 @@ package banking.boby.repository;
 import banking.boby.entity.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.util.List;
-
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByCardId(Long cardId);
-}
\ No newline at end of file
+}
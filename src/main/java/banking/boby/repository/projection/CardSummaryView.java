@@ -0,0 +1,18 @@
+package banking.boby.repository.projection;
+
+import banking.boby.entity.enums.CardStatus;
+import banking.boby.money.Money;
+
+import java.time.LocalDate;
+
+/**
+ * Поля карты для списков и баланса. Выбирается конструктором в JPQL, поэтому не попадает в контекст персистентности.
+ */
+public record CardSummaryView(
+        Long id,
+        String encryptedNumber,
+        Long holderId,
+        LocalDate expiryDate,
+        CardStatus status,
+        Money balance
+) {}
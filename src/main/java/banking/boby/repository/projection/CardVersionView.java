@@ -0,0 +1,8 @@
+package banking.boby.repository.projection;
+
+public interface CardVersionView {
+
+    Long getId();
+
+    Long getVersion();
+}
@@ -0,0 +1,16 @@
+package banking.boby.repository.projection;
+
+import banking.boby.entity.enums.CardStatus;
+
+import java.math.BigDecimal;
+
+public interface ExpiredCardView {
+
+    Long getId();
+
+    Long getHolderId();
+
+    BigDecimal getBalance();
+
+    CardStatus getStatus();
+}
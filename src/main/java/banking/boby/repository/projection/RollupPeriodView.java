@@ -0,0 +1,15 @@
+package banking.boby.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface RollupPeriodView {
+
+    LocalDate getPeriod();
+
+    BigDecimal getInflow();
+
+    BigDecimal getOutflow();
+
+    Long getOperationCount();
+}
@@ -0,0 +1,24 @@
+package banking.boby.scheduler;
+
+import banking.boby.audit.AuditJournal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AuditJournalScheduler {
+
+    private final AuditJournal auditJournal;
+
+    @Scheduled(fixedDelayString = "${app.audit.flush-interval}")
+    public void flush() {
+        try {
+            auditJournal.flush();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сбросить журнал аудита на диск: {}", e.getMessage());
+        }
+    }
+}
@@ -1,22 +1,48 @@
 package banking.boby.scheduler;
 
-import banking.boby.service.AdminCardService;
-import lombok.RequiredArgsConstructor;
+import banking.boby.service.CardExpiryService;
+import banking.boby.service.SchedulerLockService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class CardExpiryScheduler {
 
-    private final AdminCardService adminCardService;
+    private static final String LOCK_NAME = "card-expiry";
+
+    private final CardExpiryService cardExpiryService;
+    private final SchedulerLockService schedulerLockService;
+    private final Duration lockAtMost;
+    private final Duration lockAtLeast;
+
+    public CardExpiryScheduler(CardExpiryService cardExpiryService,
+                               SchedulerLockService schedulerLockService,
+                               @Value("${app.card-expiry.lock-at-most}") Duration lockAtMost,
+                               @Value("${app.card-expiry.lock-at-least}") Duration lockAtLeast) {
+        this.cardExpiryService = cardExpiryService;
+        this.schedulerLockService = schedulerLockService;
+        this.lockAtMost = lockAtMost;
+        this.lockAtLeast = lockAtLeast;
+    }
 
     @Scheduled(cron = "0 0 0 1 * *", zone = "Europe/Moscow")
     public void deactivateExpiredCards() {
-        log.info("Запуск деактивации просроченных карт");
-        adminCardService.deactivateExpiredCards();
-        log.info("Деактивация просроченных карт завершена");
+        if (!schedulerLockService.tryLock(LOCK_NAME, lockAtMost)) {
+            log.info("Деактивация просроченных карт уже выполняется на другом узле");
+            return;
+        }
+
+        try {
+            log.info("Запуск деактивации просроченных карт");
+            cardExpiryService.deactivateExpiredCards();
+            log.info("Деактивация просроченных карт завершена");
+        } finally {
+            schedulerLockService.unlock(LOCK_NAME, lockAtLeast);
+        }
     }
 }
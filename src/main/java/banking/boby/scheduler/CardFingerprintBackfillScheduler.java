@@ -0,0 +1,44 @@
+package banking.boby.scheduler;
+
+import banking.boby.service.CardFingerprintBackfillService;
+import banking.boby.service.SchedulerLockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Slf4j
+public class CardFingerprintBackfillScheduler {
+
+    private static final String LOCK_NAME = "card-fingerprint-backfill";
+
+    private final CardFingerprintBackfillService backfillService;
+    private final SchedulerLockService schedulerLockService;
+    private final Duration lockAtMost;
+
+    public CardFingerprintBackfillScheduler(CardFingerprintBackfillService backfillService,
+                                            SchedulerLockService schedulerLockService,
+                                            @Value("${app.card-fingerprint.lock-at-most}") Duration lockAtMost) {
+        this.backfillService = backfillService;
+        this.schedulerLockService = schedulerLockService;
+        this.lockAtMost = lockAtMost;
+    }
+
+    @Scheduled(initialDelayString = "PT1M", fixedDelayString = "${app.card-fingerprint.backfill-interval}")
+    public void backfill() {
+        if (!schedulerLockService.tryLock(LOCK_NAME, lockAtMost)) {
+            return;
+        }
+
+        try {
+            backfillService.backfill();
+        } catch (RuntimeException e) {
+            log.error("Ошибка заполнения отпечатков номеров карт", e);
+        } finally {
+            schedulerLockService.unlock(LOCK_NAME, Duration.ZERO);
+        }
+    }
+}
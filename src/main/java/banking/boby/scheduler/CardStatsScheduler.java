@@ -0,0 +1,42 @@
+package banking.boby.scheduler;
+
+import banking.boby.service.CardStatsService;
+import banking.boby.service.SchedulerLockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CardStatsScheduler {
+
+    private static final String LOCK_NAME = "card-stats-reconcile";
+
+    private final CardStatsService cardStatsService;
+    private final SchedulerLockService schedulerLockService;
+
+    @Scheduled(fixedDelayString = "${app.stats.flush-interval}")
+    public void flushCounters() {
+        try {
+            cardStatsService.flush();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сбросить счётчики карт: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.stats.reconcile-cron}", zone = "Europe/Moscow")
+    public void reconcileCounters() {
+        if (!schedulerLockService.tryLock(LOCK_NAME, Duration.ofMinutes(10))) {
+            return;
+        }
+        try {
+            cardStatsService.reconcile();
+        } finally {
+            schedulerLockService.unlock(LOCK_NAME, Duration.ofMinutes(1));
+        }
+    }
+}
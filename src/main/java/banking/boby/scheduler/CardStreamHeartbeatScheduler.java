@@ -0,0 +1,18 @@
+package banking.boby.scheduler;
+
+import banking.boby.service.CardEventStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CardStreamHeartbeatScheduler {
+
+    private final CardEventStreamService cardEventStreamService;
+
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat-interval}")
+    public void sendHeartbeat() {
+        cardEventStreamService.sendHeartbeat();
+    }
+}
@@ -0,0 +1,27 @@
+package banking.boby.scheduler;
+
+import banking.boby.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxDispatchScheduler {
+
+    private final OutboxService outboxService;
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval}")
+    public void dispatch() {
+        try {
+            int delivered = outboxService.drain();
+            if (delivered > 0) {
+                log.debug("Из outbox доставлено {} событий", delivered);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Не удалось разослать события outbox: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package banking.boby.scheduler;
+
+import banking.boby.config.RateLimitProperties;
+import banking.boby.security.RateLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitEvictionScheduler {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+
+    @Scheduled(fixedDelayString = "PT1M")
+    public void evictIdleBuckets() {
+        int evicted = rateLimiter.evictIdle(properties.getIdleTimeout());
+        if (evicted > 0) {
+            log.debug("Удалено {} неактивных бакетов лимитера, осталось {}", evicted, rateLimiter.size());
+        }
+    }
+}
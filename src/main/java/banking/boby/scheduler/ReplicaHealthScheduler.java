@@ -0,0 +1,78 @@
+package banking.boby.scheduler;
+
+import banking.boby.config.DataSourceRoutingProperties;
+import banking.boby.datasource.ReadYourWritesTracker;
+import banking.boby.datasource.Replica;
+import banking.boby.datasource.ReplicaRoutingDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Замер отставания реплик идёт на собственном потоке, а не на общем планировщике @Scheduled:
+ * долгие задачи (выгрузка outbox, истечение карт) не должны задерживать исключение отставшей реплики.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+public class ReplicaHealthScheduler {
+
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final DataSourceRoutingProperties properties;
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.setThreadNamePrefix("replica-health-");
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::checkReplicas, properties.getHealthCheckInterval());
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdown();
+    }
+
+    public void checkReplicas() {
+        double maxLagSeconds = properties.getMaxReplicaLag().toMillis() / 1000.0;
+        int timeoutSeconds = (int) Math.max(1, properties.getHealthCheckTimeout().toSeconds());
+
+        for (Replica replica : replicaRoutingDataSource.getReplicas()) {
+            boolean wasHealthy = replica.isHealthy();
+            try {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(replica.getDataSource());
+                jdbcTemplate.setQueryTimeout(timeoutSeconds);
+                Double lag = jdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+                replica.setLagSeconds(lag != null ? lag : 0);
+                replica.setHealthy(replica.getLagSeconds() <= maxLagSeconds);
+                replica.setCheckedAt(System.nanoTime());
+            } catch (Exception e) {
+                replica.setHealthy(false);
+                log.warn("Реплика {} недоступна: {}", replica.getName(), e.getMessage());
+            }
+
+            if (wasHealthy != replica.isHealthy()) {
+                log.info("Реплика {} {}, отставание {} с", replica.getName(),
+                        replica.isHealthy() ? "включена в чтение" : "исключена из чтения", replica.getLagSeconds());
+            }
+        }
+
+        readYourWritesTracker.purgeExpired();
+    }
+}
@@ -0,0 +1,53 @@
+package banking.boby.scheduler;
+
+import banking.boby.service.SchedulerLockService;
+import banking.boby.service.TransactionPartitionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Slf4j
+public class TransactionPartitionScheduler {
+
+    private static final String LOCK_NAME = "transaction-partitions";
+
+    private final TransactionPartitionService partitionService;
+    private final SchedulerLockService schedulerLockService;
+    private final Duration lockAtMost;
+
+    public TransactionPartitionScheduler(TransactionPartitionService partitionService,
+                                         SchedulerLockService schedulerLockService,
+                                         @Value("${app.transactions.partitions.lock-at-most}") Duration lockAtMost) {
+        this.partitionService = partitionService;
+        this.schedulerLockService = schedulerLockService;
+        this.lockAtMost = lockAtMost;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "0 30 0 * * *", zone = "Europe/Moscow")
+    public void maintainPartitions() {
+        if (!schedulerLockService.tryLock(LOCK_NAME, lockAtMost)) {
+            return;
+        }
+
+        try {
+            partitionService.ensureFuturePartitions();
+            int archived = partitionService.archiveExpiredPartitions();
+            log.info("Обслуживание секций операций завершено, в архив перенесено секций: {}", archived);
+        } catch (RuntimeException e) {
+            log.error("Ошибка обслуживания секций операций", e);
+        } finally {
+            schedulerLockService.unlock(LOCK_NAME, Duration.ZERO);
+        }
+    }
+}
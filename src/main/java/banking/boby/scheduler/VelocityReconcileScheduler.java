@@ -0,0 +1,25 @@
+package banking.boby.scheduler;
+
+import banking.boby.service.VelocityLimitService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class VelocityReconcileScheduler {
+
+    private final VelocityLimitService velocityLimitService;
+
+    @Scheduled(fixedDelayString = "${velocity-limit.reconcile-interval}",
+            initialDelayString = "${velocity-limit.reconcile-interval}")
+    public void reconcile() {
+        try {
+            velocityLimitService.reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сверить лимиты переводов с базой: {}", e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package banking.boby.security;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -20,6 +21,7 @@ public class CardEncryptor {
     private String iv;
 
 
+    @Timed(value = "card.encryptor", extraTags = {"operation", "encrypt"}, histogram = true)
     public String encrypt(String value) {
         try {
             IvParameterSpec ivSpec = new IvParameterSpec(iv.getBytes("UTF-8"));
@@ -36,6 +38,7 @@ public class CardEncryptor {
         }
     }
 
+    @Timed(value = "card.encryptor", extraTags = {"operation", "decrypt"}, histogram = true)
     public String decrypt(String encrypted) {
         try {
             IvParameterSpec ivSpec = new IvParameterSpec(iv.getBytes("UTF-8"));
@@ -0,0 +1,53 @@
+package banking.boby.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+/**
+ * Отпечаток номера карты — HMAC-SHA256 на отдельном ключе. Одинаковые номера дают одинаковый отпечаток,
+ * поэтому карту можно найти по номеру через уникальный индекс без расшифровки строк таблицы.
+ * Ключ задаётся переменной CARD_FINGERPRINT_KEY, без него приложение не стартует.
+ */
+@Component
+public class CardFingerprinter {
+
+    public static final int LENGTH = 32;
+
+    private static final int MIN_KEY_BYTES = 32;
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec keySpec;
+    private final ThreadLocal<Mac> mac;
+
+    public CardFingerprinter(@Value("${encryption.fingerprint-key}") String key) {
+        byte[] keyBytes = key == null ? new byte[0] : key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length < MIN_KEY_BYTES) {
+            throw new IllegalStateException("Ключ отпечатков карт (CARD_FINGERPRINT_KEY) не задан или короче "
+                    + MIN_KEY_BYTES + " байт");
+        }
+        this.keySpec = new SecretKeySpec(keyBytes, ALGORITHM);
+        newMac();
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public byte[] fingerprint(String cardNumber) {
+        String normalized = cardNumber.replaceAll("[\\s-]", "");
+        return mac.get().doFinal(normalized.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(keySpec);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Не удалось инициализировать HMAC для отпечатков карт", e);
+        }
+    }
+}
@@ -4,6 +4,9 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -16,11 +19,16 @@ public class JwtTokenProvider {
 
     private final long validityMs;
     private final Key key;
+    private final Counter validTokens;
+    private final Counter invalidTokens;
 
     public JwtTokenProvider(@Value("${jwt.secret}") String secret,
-                            @Value("${jwt.expiration-ms}") long validityMs) {
+                            @Value("${jwt.expiration-ms}") long validityMs,
+                            MeterRegistry meterRegistry) {
         this.validityMs = validityMs;
         this.key = io.jsonwebtoken.security.Keys.hmacShaKeyFor(secret.getBytes());
+        this.validTokens = Counter.builder("jwt.validation.result").tag("result", "valid").register(meterRegistry);
+        this.invalidTokens = Counter.builder("jwt.validation.result").tag("result", "invalid").register(meterRegistry);
 
 
     }
@@ -38,12 +46,15 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    @Timed(value = "jwt.validation", histogram = true)
     public boolean validateToken(String token) {
         try {
             Jwts.parserBuilder().setSigningKey(key).build()
                     .parseClaimsJws(token);
+            validTokens.increment();
             return true;
         } catch (JwtException e) {
+            invalidTokens.increment();
             return false;
         }
     }
@@ -0,0 +1,123 @@
+package banking.boby.security;
+
+import banking.boby.config.RateLimitProperties;
+import banking.boby.context.UserContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String DEFAULT_SCOPE = "default";
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Rule> rules;
+    private final RateLimiter.Bandwidth defaultBandwidth;
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.rules = properties.getEndpoints().stream()
+                .map(limit -> new Rule(limit.getPattern(), limit.getMethod(),
+                        RateLimiter.Bandwidth.of(limit.getCapacity(), limit.getRefillPerSecond())))
+                .toList();
+        this.defaultBandwidth = RateLimiter.Bandwidth.of(
+                properties.getDefaultLimit().getCapacity(), properties.getDefaultLimit().getRefillPerSecond());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        if (!properties.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Long userId = UserContext.getCurrentUserId();
+        Object principal = userId != null ? userId : request.getRemoteAddr();
+
+        long waitNanos = tryAcquire(request.getMethod(), request.getServletPath(), principal);
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Списывает токен из бакета правила, подходящего под метод и путь. Нужен и вне фильтра: пакетный перевод
+     * списывает токен {@code POST /cards/transfer/batch/frames} за каждый кадр, реактивный API — за каждый запрос.
+     *
+     * @return 0, если запрос разрешён, иначе время в наносекундах до появления свободного токена
+     */
+    public long tryAcquire(String method, String path, Object principal) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+
+        String scope = DEFAULT_SCOPE;
+        RateLimiter.Bandwidth bandwidth = defaultBandwidth;
+        for (Rule rule : rules) {
+            if (rule.matches(pathMatcher, method, path)) {
+                scope = rule.pattern();
+                bandwidth = rule.bandwidth();
+                break;
+            }
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(scope, principal, bandwidth);
+        if (waitNanos > 0) {
+            log.debug("Превышен лимит запросов {} для {}", scope, principal);
+        }
+        return waitNanos;
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", "Слишком много запросов, повторите через " + retryAfterSeconds + " с");
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(), body);
+    }
+
+    private record Rule(String pattern, String method, RateLimiter.Bandwidth bandwidth) {
+
+        boolean matches(AntPathMatcher matcher, String requestMethod, String path) {
+            return (method == null || method.equalsIgnoreCase(requestMethod)) && matcher.match(pattern, path);
+        }
+    }
+}
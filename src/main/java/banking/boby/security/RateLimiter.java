@@ -0,0 +1,81 @@
+package banking.boby.security;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket в форме GCRA: состояние бакета - одно число (теоретическое время прибытия следующего запроса),
+ * которое обновляется через CAS без блокировок. Бакеты лежат в ConcurrentHashMap, поиск существующего бакета
+ * идёт без блокировок, бины мапы блокируются по отдельности только при создании нового бакета.
+ */
+@Component
+public class RateLimiter {
+
+    private final ConcurrentHashMap<BucketKey, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    public RateLimiter() {
+        this(System::nanoTime);
+    }
+
+    public RateLimiter(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @return 0, если запрос разрешён, иначе время в наносекундах до появления свободного токена
+     */
+    public long tryAcquire(String scope, Object principal, Bandwidth bandwidth) {
+        BucketKey key = new BucketKey(scope, principal);
+        long now = clock.getAsLong();
+
+        AtomicLong tat = buckets.get(key);
+        if (tat == null) {
+            tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = tat.get();
+            long base = current - now > 0 ? current : now;
+            long next = base + bandwidth.intervalNanos();
+            long excess = next - now - bandwidth.burstNanos();
+            if (excess > 0) {
+                return excess;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int evictIdle(Duration idleTimeout) {
+        long now = clock.getAsLong();
+        long idleNanos = idleTimeout.toNanos();
+        int before = buckets.size();
+        buckets.values().removeIf(tat -> now - tat.get() > idleNanos);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public record Bandwidth(long intervalNanos, long burstNanos) {
+
+        public static Bandwidth of(int capacity, double refillPerSecond) {
+            if (capacity < 1 || refillPerSecond <= 0) {
+                throw new IllegalArgumentException("Некорректный лимит: capacity=" + capacity
+                        + ", refill-per-second=" + refillPerSecond);
+            }
+            long interval = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+            return new Bandwidth(interval, interval * capacity);
+        }
+    }
+
+    private record BucketKey(String scope, Object principal) {
+    }
+}
@@ -1,27 +1,38 @@
 package banking.boby.service;
 
+import banking.boby.audit.AuditAction;
+import banking.boby.audit.AuditJournal;
+import banking.boby.context.UserContext;
 import banking.boby.dto.CardAdminDto;
+import banking.boby.dto.CardNumberLookupDto;
 import banking.boby.entity.Card;
 import banking.boby.entity.PreGeneratedCard;
 import banking.boby.entity.User;
 import banking.boby.entity.enums.CardStatus;
+import banking.boby.entity.enums.OperationType;
+import banking.boby.event.CardChangedEvent;
 import banking.boby.exception.DataValidationException;
 import banking.boby.exception.EntityNotFoundException;
 import banking.boby.exception.WrongCardOperationException;
+import banking.boby.money.Money;
+import banking.boby.posting.PostingLeg;
 import banking.boby.repository.CardRepository;
 import banking.boby.repository.UserRepository;
+import banking.boby.repository.projection.CardSummaryView;
 import banking.boby.security.CardEncryptor;
+import banking.boby.security.CardFingerprinter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.time.ZoneId;
 import java.util.List;
 
 @Slf4j
@@ -33,6 +44,11 @@ public class AdminCardService {
     private final CardRepository cardRepository;
     private final UserRepository userRepository;
     private final CardEncryptor cardEncryptor;
+    private final CardFingerprinter cardFingerprinter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CardStatsService cardStatsService;
+    private final PostingService postingService;
+    private final AuditJournal auditJournal;
 
     @Transactional
     public void createCard(Long userId) {
@@ -48,14 +64,17 @@ public class AdminCardService {
 
         Card card = Card.builder()
                 .encryptedNumber(cardEncryptedNum)
+                .numberFingerprint(fingerprintOf(preGeneratedCard))
                 .holder(user)
                 .holderName(String.format("%s %s", user.getFirstName(), user.getLastName()))
                 .status(CardStatus.ACTIVE)
-                .balance(BigDecimal.ZERO)
+                .balance(Money.ZERO)
                 .expiryDate(calculateExpiryDate())
                 .build();
 
         cardRepository.save(card);
+        cardStatsService.onCardCreated(card.getStatus());
+        auditJournal.recordAfterCommit(AuditAction.CARD_CREATE, UserContext.getCurrentUserId(), card.getId(), null, null);
         log.info("Карта для пользователя {} создана", userId);
     }
 
@@ -66,8 +85,12 @@ public class AdminCardService {
             throw new WrongCardOperationException("Карта с id %d уже заблокирована", cardId);
         }
 
+        CardStatus previous = card.getStatus();
         card.setStatus(CardStatus.BLOCKED);
         cardRepository.save(card);
+        cardStatsService.onStatusChanged(previous, CardStatus.BLOCKED, 1);
+        eventPublisher.publishEvent(CardChangedEvent.of(card));
+        auditJournal.recordAfterCommit(AuditAction.CARD_BLOCK, UserContext.getCurrentUserId(), cardId, null, null);
         log.info("Карта {} успешно заблокирована", cardId);
     }
 
@@ -78,47 +101,77 @@ public class AdminCardService {
             throw new WrongCardOperationException("Карта с id %d уже активирована", cardId);
         }
 
+        CardStatus previous = card.getStatus();
         card.setStatus(CardStatus.ACTIVE);
         cardRepository.save(card);
+        cardStatsService.onStatusChanged(previous, CardStatus.ACTIVE, 1);
+        eventPublisher.publishEvent(CardChangedEvent.of(card));
+        auditJournal.recordAfterCommit(AuditAction.CARD_ACTIVATE, UserContext.getCurrentUserId(), cardId, null, null);
         log.info("Карта {} успешно активирована", cardId);
     }
 
     @Transactional
-    public void deleteCard(Long cardId) {
-        Card card = validateCard(cardId);
-        cardRepository.delete(card);
-        log.info("Карта {} успешно удалена", cardId);
+    public void deposit(Long cardId, Money amount) {
+        postingService.post(OperationType.DEPOSIT, List.of(PostingLeg.credit(cardId, amount)));
+        log.info("Карта {} пополнена на {}", cardId, amount);
     }
 
     @Transactional
-    public void deactivateExpiredCards() {
-        LocalDate today = LocalDate.now(ZoneId.of("Europe/Moscow"));
-        List<CardStatus> statuses = List.of(CardStatus.ACTIVE, CardStatus.BLOCKED);
-        List<Card> expiredCards = cardRepository.findByExpiryDateBeforeAndStatusIn(today, statuses);
-
-        expiredCards.forEach(card -> card.setStatus(CardStatus.EXPIRED));
+    public void withdraw(Long cardId, Money amount) {
+        postingService.post(OperationType.WITHDRAW, List.of(PostingLeg.debit(cardId, amount)));
+        log.info("С карты {} снято {}", cardId, amount);
+    }
 
-        cardRepository.saveAll(expiredCards);
-        log.info("Заблокировано {} карт с истекшим сроком действия", expiredCards.size());
+    @Transactional
+    public void deleteCard(Long cardId) {
+        Card card = validateCard(cardId);
+        cardRepository.delete(card);
+        cardStatsService.onCardDeleted(card.getStatus(), card.getBalance());
+        auditJournal.recordAfterCommit(AuditAction.CARD_DELETE, UserContext.getCurrentUserId(), cardId, null,
+                card.getBalance());
+        log.info("Карта {} успешно удалена", cardId);
     }
 
+    @Transactional(readOnly = true)
     public Page<CardAdminDto> getAllCards(Pageable pageable) {
-        Page<Card> pageCards = cardRepository.findAll(pageable);
+        Slice<CardSummaryView> pageCards = cardRepository.findSummariesBy(pageable);
 
-        return pageCards.map(card -> {
-            String decrypted = cardEncryptor.decrypt(card.getEncryptedNumber());
+        Slice<CardAdminDto> content = pageCards.map(card -> {
+            String decrypted = cardEncryptor.decrypt(card.encryptedNumber());
             String masked = maskCardNumber(decrypted);
 
             return CardAdminDto.builder()
-                    .id(card.getId())
-                    .expDate(card.getExpiryDate())
+                    .id(card.id())
+                    .expDate(card.expiryDate())
                     .maskedNum(masked)
-                    .status(card.getStatus())
-                    .userId(card.getHolder().getId())
+                    .status(card.status())
+                    .userId(card.holderId())
                     .build();
+        });
 
+        return new PageImpl<>(content.getContent(), pageable, cardStatsService.getTotalCards());
+    }
 
-        });
+    @Transactional(readOnly = true)
+    public CardAdminDto findCardByNumber(CardNumberLookupDto request) {
+        CardSummaryView card = cardRepository.findSummaryByNumberFingerprint(
+                        cardFingerprinter.fingerprint(request.cardNumber()))
+                .orElseThrow(() -> new EntityNotFoundException("Карта с таким номером не найдена"));
+
+        return CardAdminDto.builder()
+                .id(card.id())
+                .expDate(card.expiryDate())
+                .maskedNum(maskCardNumber(request.cardNumber()))
+                .status(card.status())
+                .userId(card.holderId())
+                .build();
+    }
+
+    private byte[] fingerprintOf(PreGeneratedCard preGeneratedCard) {
+        if (preGeneratedCard.getNumberFingerprint() != null) {
+            return preGeneratedCard.getNumberFingerprint();
+        }
+        return cardFingerprinter.fingerprint(cardEncryptor.decrypt(preGeneratedCard.getCardNumberEncrypted()));
     }
 
     private Card validateCard(Long cardId) {
@@ -1,5 +1,7 @@
 package banking.boby.service;
 
+import banking.boby.audit.AuditAction;
+import banking.boby.audit.AuditJournal;
 import banking.boby.dto.UserLoginDto;
 import banking.boby.dto.UserRegisterDto;
 import banking.boby.entity.User;
@@ -10,6 +12,7 @@ import banking.boby.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -18,7 +21,9 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
+    private final AuditJournal auditJournal;
 
+    @Transactional
     public void registerUser(UserRegisterDto dto) {
         if (userRepository.existsByEmail(dto.email())) {
             throw new DataValidationException("Email %s уже зарегистрирован", dto.email());
@@ -31,13 +36,15 @@ public class AuthService {
         userRepository.save(mapToEntity(dto));
     }
 
+    @Transactional
     public String login(UserLoginDto dto) {
-        User user = userRepository.findByUsername(dto.username())
-                .orElseThrow(() -> new DataValidationException("Неверный логин или пароль"));
+        User user = userRepository.findByUsername(dto.username()).orElse(null);
 
-        if (!passwordEncoder.matches(dto.password(), user.getPassword())) {
+        if (user == null || !passwordEncoder.matches(dto.password(), user.getPassword())) {
+            auditJournal.record(AuditAction.LOGIN_FAILED, user == null ? null : user.getId(), null, null, null);
             throw new DataValidationException("Неверный логин или пароль");
         }
+        auditJournal.record(AuditAction.LOGIN, user.getId(), null, null, null);
         return jwtTokenProvider.generateToken(user.getId(), user.getRole().toString());
     }
 
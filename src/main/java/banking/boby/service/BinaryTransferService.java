@@ -0,0 +1,136 @@
+package banking.boby.service;
+
+import banking.boby.context.UserContext;
+import banking.boby.dto.TransferRequestDto;
+import banking.boby.exception.AccessDeniedException;
+import banking.boby.exception.DataValidationException;
+import banking.boby.exception.EntityNotFoundException;
+import banking.boby.exception.UnsafeOperationException;
+import banking.boby.exception.WrongCardOperationException;
+import banking.boby.security.RateLimitFilter;
+import banking.boby.transfer.TransferFrame;
+import banking.boby.transfer.TransferFrameCodec;
+import banking.boby.transfer.TransferProtocolException;
+import banking.boby.transfer.TransferResultCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пакетные переводы в двоичных кадрах. Кадры обрабатываются по очереди тем же UserCardService, что и REST,
+ * каждый перевод в своей транзакции и без повторов. Каждый кадр списывает токен лимита {@code POST /cards/transfer},
+ * так что пакет не обходит ограничение одиночных переводов. Результат пишется сразу после перевода и отправляется,
+ * как только во входном буфере заканчиваются кадры, поэтому клиент может слать запросы конвейером.
+ */
+@Slf4j
+@Service
+public class BinaryTransferService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String FRAME_PATH = "/cards/transfer/batch/frames";
+
+    private final UserCardService userCardService;
+    private final RateLimitFilter rateLimitFilter;
+    private final int maxFrames;
+    private final Map<TransferResultCode, Counter> results = new EnumMap<>(TransferResultCode.class);
+
+    public BinaryTransferService(UserCardService userCardService,
+                                 RateLimitFilter rateLimitFilter,
+                                 @Value("${app.binary-transfer.max-frames}") int maxFrames,
+                                 MeterRegistry meterRegistry) {
+        this.userCardService = userCardService;
+        this.rateLimitFilter = rateLimitFilter;
+        this.maxFrames = maxFrames;
+        for (TransferResultCode code : TransferResultCode.values()) {
+            results.put(code, meterRegistry.counter("transfer.binary.results", "code", code.name().toLowerCase()));
+        }
+    }
+
+    /**
+     * Возвращает число обработанных кадров. После нарушения протокола пишется кадр PROTOCOL_ERROR
+     * с correlationId 0, и обработка прекращается.
+     */
+    public int process(InputStream input, OutputStream output) throws IOException {
+        Long userId = UserContext.getCurrentUserId();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input, BUFFER_SIZE));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+        int frames = 0;
+        try {
+            TransferFrame frame;
+            while ((frame = TransferFrameCodec.readRequest(in)) != null) {
+                if (frames == maxFrames) {
+                    throw new TransferProtocolException(String.format("Больше %d переводов в одном запросе", maxFrames));
+                }
+                transfer(frame, userId, out);
+                frames++;
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (TransferProtocolException | EOFException e) {
+            String message = e instanceof EOFException ? "Кадр обрезан" : e.getMessage();
+            log.warn("Пакетный перевод прерван после {} кадров: {}", frames, message);
+            results.get(TransferResultCode.PROTOCOL_ERROR).increment();
+            TransferFrameCodec.writeResult(out, 0, TransferResultCode.PROTOCOL_ERROR, message);
+        }
+        out.flush();
+        return frames;
+    }
+
+    private void transfer(TransferFrame frame, Long userId, DataOutputStream out) throws IOException {
+        TransferResultCode code = TransferResultCode.OK;
+        String message = null;
+        try {
+            if (frame.amount().signum() <= 0) {
+                throw new DataValidationException("Сумма должны быть положительной");
+            }
+            long waitNanos = rateLimitFilter.tryAcquire("POST", FRAME_PATH, userId);
+            if (waitNanos > 0) {
+                long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+                results.get(TransferResultCode.RATE_LIMITED).increment();
+                TransferFrameCodec.writeResult(out, frame.correlationId(), TransferResultCode.RATE_LIMITED,
+                        "Слишком много переводов, повторите через " + retryAfterSeconds + " с");
+                return;
+            }
+            userCardService.transferFundsOnce(
+                    new TransferRequestDto(frame.fromCardId(), frame.toCardId(), frame.amount()));
+        } catch (DataValidationException | UnsafeOperationException e) {
+            code = TransferResultCode.INVALID;
+            message = e.getMessage();
+        } catch (AccessDeniedException e) {
+            code = TransferResultCode.ACCESS_DENIED;
+            message = e.getMessage();
+        } catch (EntityNotFoundException e) {
+            code = TransferResultCode.NOT_FOUND;
+            message = e.getMessage();
+        } catch (WrongCardOperationException e) {
+            code = TransferResultCode.CONFLICT;
+            message = e.getMessage();
+        } catch (ConcurrencyFailureException e) {
+            log.debug("Конфликт перевода {} в пакете: {}", frame.correlationId(), e.getMessage());
+            code = TransferResultCode.CONFLICT;
+            message = "Карта изменена параллельной операцией, повторите перевод";
+        } catch (RuntimeException e) {
+            log.warn("Ошибка перевода {} в пакете: {}", frame.correlationId(), e.getMessage());
+            code = TransferResultCode.ERROR;
+            message = "Перевод не выполнен, повторите позже";
+        }
+        results.get(code).increment();
+        TransferFrameCodec.writeResult(out, frame.correlationId(), code, message);
+    }
+}
@@ -0,0 +1,57 @@
+package banking.boby.service;
+
+import banking.boby.dto.CacheRegionStatsDto;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Статистика и сброс кэша второго уровня Hibernate. Изменения через репозитории вытесняют записи сами,
+ * сброс нужен после правок таблиц в обход Hibernate.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CacheStatisticsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public List<CacheRegionStatsDto> getRegionStats() {
+        Statistics statistics = sessionFactory().getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toDto(region, statistics.getCacheRegionStatistics(region)))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public void evictAll() {
+        sessionFactory().getCache().evictAllRegions();
+        log.info("Кэш второго уровня очищен");
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    private CacheRegionStatsDto toDto(String region, CacheRegionStatistics statistics) {
+        if (statistics == null) {
+            return null;
+        }
+        return CacheRegionStatsDto.builder()
+                .region(region)
+                .hitCount(statistics.getHitCount())
+                .missCount(statistics.getMissCount())
+                .putCount(statistics.getPutCount())
+                .elementCount(statistics.getElementCountInMemory())
+                .build();
+    }
+}
@@ -3,16 +3,19 @@ package banking.boby.service;
 import banking.boby.entity.PreGeneratedCard;
 import banking.boby.exception.CardGenerationException;
 import banking.boby.repository.PreGeneratedCardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 
 
@@ -30,24 +33,36 @@ public class CardCacheService {
     private final CardGeneratorService cardGeneratorService;
     private BlockingQueue<PreGeneratedCard> queue;
     private final ReentrantLock lock = new ReentrantLock();
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final TaskExecutor executor;
+    private final AtomicBoolean refillScheduled = new AtomicBoolean();
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
 
     public CardCacheService(
             @Value("${card.cache-size}") int cacheSize,
             @Value("${card.generation-count}") int generationCount,
             PreGeneratedCardRepository preGeneratedCardRepository,
-            CardGeneratorService cardGeneratorService
+            CardGeneratorService cardGeneratorService,
+            @Qualifier("cardRefillExecutor") TaskExecutor executor,
+            MeterRegistry meterRegistry
     ) {
         this.cacheSize = cacheSize;
         this.generationCount = generationCount;
         this.preGeneratedCardRepository = preGeneratedCardRepository;
         this.cardGeneratorService = cardGeneratorService;
+        this.executor = executor;
         this.queue = new ArrayBlockingQueue<>(cacheSize);
+        this.cacheHits = Counter.builder("card.cache.take").tag("result", "hit").register(meterRegistry);
+        this.cacheMisses = Counter.builder("card.cache.take").tag("result", "miss").register(meterRegistry);
+        meterRegistry.gauge("card.cache.size", queue, BlockingQueue::size);
     }
 
     public PreGeneratedCard takePreGeneratedCardNumber() {
         PreGeneratedCard card = queue.poll();
-        if (card == null) {
+        if (card != null) {
+            cacheHits.increment();
+        } else {
+            cacheMisses.increment();
             fillCache();
 
             card = queue.poll();
@@ -65,12 +80,13 @@ public class CardCacheService {
     public void fillCache() {
         lock.lock();
         try {
-            if (queue.isEmpty()) {
-                if (preGeneratedCardRepository.count() < cacheSize) {
+            if (queue.size() <= cacheSize * 0.3) {
+                int missing = queue.remainingCapacity();
+                if (preGeneratedCardRepository.count() < missing) {
                     log.info("Репозиторий пуст, запускаю генератор");
                     cardGeneratorService.generateCards(generationCount);
                 }
-                loadCardsToCache(cacheSize);
+                loadCardsToCache(missing);
                 log.info("Карты загружены из репозитория");
             }
         } finally {
@@ -88,15 +104,19 @@ public class CardCacheService {
     }
 
     private void checkCacheAsync() {
-        if (queue.size() <= cacheSize * 0.3) {
-            log.info("Кеш опустел, запускаю генерацию");
+        if (queue.size() > cacheSize * 0.3 || !refillScheduled.compareAndSet(false, true)) {
+            return;
         }
-            executor.submit(() -> {
-                try {
-                    fillCache();
-                } catch (Exception e) {
-                    log.error("Ошибка при асинхронном пополнении кеша", e);
-                }
+
+        log.info("Кеш опустел, запускаю генерацию");
+        executor.execute(() -> {
+            try {
+                fillCache();
+            } catch (Exception e) {
+                log.error("Ошибка при асинхронном пополнении кеша", e);
+            } finally {
+                refillScheduled.set(false);
+            }
         });
     }
 
@@ -0,0 +1,250 @@
+package banking.boby.service;
+
+import banking.boby.dto.CardChangeDto;
+import banking.boby.event.CardChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Поток изменений карт по SSE. У каждого соединения своя очередь и не больше одной задачи отправки в пуле.
+ * Соединение, запись в которое висит дольше write-timeout, снимается с рассылки при очередном heartbeat,
+ * поток отправки прерывается. Emitter закрывает только поток, который не находится в send().
+ */
+@Slf4j
+@Service
+public class CardEventStreamService {
+
+    private final ConcurrentHashMap<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final TaskExecutor executor;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long writeTimeoutNanos;
+    private final Counter slowConsumerDisconnects;
+    private final Counter writeTimeoutDisconnects;
+
+    public CardEventStreamService(@Qualifier("sseDispatchExecutor") TaskExecutor executor,
+                                  @Value("${app.sse.buffer-size}") int bufferSize,
+                                  @Value("${app.sse.timeout}") Duration timeout,
+                                  @Value("${app.sse.write-timeout}") Duration writeTimeout,
+                                  MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.slowConsumerDisconnects = meterRegistry.counter("card.stream.slow-consumer.disconnects");
+        this.writeTimeoutDisconnects = meterRegistry.counter("card.stream.write-timeout.disconnects");
+        meterRegistry.gauge("card.stream.connections", connections);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+
+        subscriptions.compute(userId, (id, set) -> {
+            Set<Subscription> result = set != null ? set : ConcurrentHashMap.newKeySet();
+            result.add(subscription);
+            return result;
+        });
+        connections.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+
+        enqueue(subscription, SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCardChanged(CardChangedEvent event) {
+        if (event.userId() == null) {
+            return;
+        }
+        Set<Subscription> userSubscriptions = subscriptions.get(event.userId());
+        if (userSubscriptions == null) {
+            return;
+        }
+
+        CardChangeDto change = CardChangeDto.builder()
+                .cardId(event.cardId())
+                .balance(event.balance())
+                .status(event.status())
+                .build();
+        Set<ResponseBodyEmitter.DataWithMediaType> payload = SseEmitter.event()
+                .name("card")
+                .data(change, MediaType.APPLICATION_JSON)
+                .build();
+        userSubscriptions.forEach(subscription -> enqueue(subscription, payload));
+    }
+
+    public void sendHeartbeat() {
+        closeStalled(System.nanoTime());
+        Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        subscriptions.values().forEach(set -> set.forEach(subscription -> enqueue(subscription, heartbeat)));
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * Снимает с рассылки соединения, запись в которые длится дольше write-timeout.
+     */
+    void closeStalled(long now) {
+        subscriptions.values().forEach(set -> set.forEach(subscription -> {
+            long sendStartedAt = subscription.sendStartedAt().get();
+            if (sendStartedAt != 0 && now - sendStartedAt >= writeTimeoutNanos && close(subscription)) {
+                log.info("Запись в поток событий пользователя {} не завершилась за {} мс, соединение закрыто",
+                        subscription.userId(), writeTimeoutNanos / 1_000_000);
+                writeTimeoutDisconnects.increment();
+            }
+        }));
+    }
+
+    private void enqueue(Subscription subscription, Set<ResponseBodyEmitter.DataWithMediaType> payload) {
+        if (!subscription.queue().offer(payload)) {
+            if (close(subscription)) {
+                log.info("Клиент пользователя {} не успевает читать поток событий, соединение закрыто",
+                        subscription.userId());
+                slowConsumerDisconnects.increment();
+            }
+            return;
+        }
+        scheduleDrain(subscription);
+    }
+
+    private void scheduleDrain(Subscription subscription) {
+        if (!subscription.draining().compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(subscription));
+        } catch (TaskRejectedException e) {
+            subscription.draining().set(false);
+            if (close(subscription)) {
+                log.warn("Очередь отправки событий переполнена, соединение пользователя {} закрыто",
+                        subscription.userId());
+            }
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> payload;
+            while (!subscription.closed().get() && (payload = subscription.queue().poll()) != null) {
+                send(subscription, payload);
+            }
+        } catch (Exception e) {
+            log.debug("Не удалось отправить событие пользователю {}: {}", subscription.userId(), e.getMessage());
+            close(subscription);
+        } finally {
+            subscription.draining().set(false);
+            if (subscription.closed().get()) {
+                completeIfIdle(subscription);
+            } else if (!subscription.queue().isEmpty()) {
+                scheduleDrain(subscription);
+            }
+        }
+    }
+
+    /**
+     * Прерывание доставляется отправителю только под senderLock, пока он ещё в send(): после записи поток
+     * под той же блокировкой снимает себя и сбрасывает флаг, и прерывание не достанется следующей задаче пула.
+     */
+    private void send(Subscription subscription, Set<ResponseBodyEmitter.DataWithMediaType> payload)
+            throws IOException {
+        subscription.sender().set(Thread.currentThread());
+        subscription.sendStartedAt().set(System.nanoTime());
+        try {
+            subscription.emitter().send(payload);
+        } finally {
+            subscription.sendStartedAt().set(0);
+            subscription.senderLock().lock();
+            try {
+                subscription.sender().set(null);
+                Thread.interrupted();
+            } finally {
+                subscription.senderLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Закрывает соединение ровно один раз. Emitter закрывается здесь, только если отправка не идёт:
+     * complete() ждёт ту же блокировку, что и зависший send(), поэтому иначе его вызывает сам drain.
+     */
+    private boolean close(Subscription subscription) {
+        if (!subscription.closed().compareAndSet(false, true)) {
+            return false;
+        }
+        remove(subscription);
+        subscription.queue().clear();
+        subscription.senderLock().lock();
+        try {
+            Thread sender = subscription.sender().get();
+            if (sender != null) {
+                sender.interrupt();
+            }
+        } finally {
+            subscription.senderLock().unlock();
+        }
+        completeIfIdle(subscription);
+        return true;
+    }
+
+    /**
+     * Флаг draining остаётся занятым: после закрытия задач отправки для соединения больше не будет.
+     */
+    private void completeIfIdle(Subscription subscription) {
+        if (subscription.draining().compareAndSet(false, true)) {
+            subscription.emitter().complete();
+        }
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.userId(), (id, set) -> {
+            if (set.remove(subscription)) {
+                connections.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private record Subscription(Long userId,
+                                SseEmitter emitter,
+                                BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue,
+                                AtomicBoolean draining,
+                                AtomicBoolean closed,
+                                AtomicLong sendStartedAt,
+                                AtomicReference<Thread> sender,
+                                ReentrantLock senderLock) {
+
+        Subscription(Long userId, SseEmitter emitter, BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue) {
+            this(userId, emitter, queue, new AtomicBoolean(), new AtomicBoolean(), new AtomicLong(),
+                    new AtomicReference<>(), new ReentrantLock());
+        }
+    }
+}
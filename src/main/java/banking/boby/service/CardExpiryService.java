@@ -0,0 +1,90 @@
+package banking.boby.service;
+
+import banking.boby.entity.enums.CardStatus;
+import banking.boby.event.CardChangedEvent;
+import banking.boby.money.Money;
+import banking.boby.repository.CardRepository;
+import banking.boby.repository.projection.ExpiredCardView;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class CardExpiryService {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Moscow");
+
+    private final CardRepository cardRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CardStatsService cardStatsService;
+    private final int chunkSize;
+    private final Counter deactivatedCounter;
+    private final Counter chunkCounter;
+    private final AtomicInteger currentRunDeactivated = new AtomicInteger();
+
+    public CardExpiryService(CardRepository cardRepository,
+                             TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             CardStatsService cardStatsService,
+                             @Value("${app.card-expiry.chunk-size}") int chunkSize,
+                             MeterRegistry meterRegistry) {
+        this.cardRepository = cardRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.cardStatsService = cardStatsService;
+        this.chunkSize = chunkSize;
+        this.deactivatedCounter = meterRegistry.counter("card.expiry.deactivated");
+        this.chunkCounter = meterRegistry.counter("card.expiry.chunks");
+        meterRegistry.gauge("card.expiry.current-run.deactivated", currentRunDeactivated);
+    }
+
+    @Timed(value = "card.expiry.deactivation", histogram = true)
+    public int deactivateExpiredCards() {
+        LocalDate today = LocalDate.now(ZONE);
+        currentRunDeactivated.set(0);
+
+        int processed;
+        do {
+            Integer chunk = transactionTemplate.execute(status -> deactivateChunk(today));
+            processed = chunk != null ? chunk : 0;
+            currentRunDeactivated.addAndGet(processed);
+        } while (processed == chunkSize);
+
+        log.info("Заблокировано {} карт с истекшим сроком действия", currentRunDeactivated.get());
+        return currentRunDeactivated.get();
+    }
+
+    private int deactivateChunk(LocalDate today) {
+        List<ExpiredCardView> expiredCards = cardRepository.lockExpiredChunk(today, chunkSize);
+        if (expiredCards.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = expiredCards.stream().map(ExpiredCardView::getId).toList();
+        cardRepository.updateStatusByIdIn(ids, CardStatus.EXPIRED);
+        expiredCards.stream()
+                .collect(Collectors.groupingBy(ExpiredCardView::getStatus, Collectors.counting()))
+                .forEach((status, count) -> cardStatsService.onStatusChanged(status, CardStatus.EXPIRED,
+                        count.intValue()));
+        expiredCards.forEach(card -> eventPublisher.publishEvent(new CardChangedEvent(
+                card.getId(), card.getHolderId(), Money.of(card.getBalance()), CardStatus.EXPIRED)));
+
+        deactivatedCounter.increment(expiredCards.size());
+        chunkCounter.increment();
+        log.debug("Обработана пачка из {} просроченных карт", expiredCards.size());
+        return expiredCards.size();
+    }
+}
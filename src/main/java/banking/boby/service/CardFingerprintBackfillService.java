@@ -0,0 +1,88 @@
+package banking.boby.service;
+
+import banking.boby.security.CardEncryptor;
+import banking.boby.security.CardFingerprinter;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Заполняет отпечатки номеров у карт, выпущенных до появления колонки number_fingerprint.
+ * Пачки выбираются по частичному индексу через FOR UPDATE SKIP LOCKED, поэтому после заполнения
+ * запуск сводится к одному пустому чтению индекса.
+ */
+@Slf4j
+@Service
+public class CardFingerprintBackfillService {
+
+    private static final String CHUNK_SQL = """
+            SELECT id, encrypted_number
+            FROM cards
+            WHERE number_fingerprint IS NULL
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String UPDATE_SQL = "UPDATE cards SET number_fingerprint = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CardEncryptor cardEncryptor;
+    private final CardFingerprinter cardFingerprinter;
+    private final int chunkSize;
+    private final Counter backfilledCounter;
+
+    public CardFingerprintBackfillService(JdbcTemplate jdbcTemplate,
+                                          TransactionTemplate transactionTemplate,
+                                          CardEncryptor cardEncryptor,
+                                          CardFingerprinter cardFingerprinter,
+                                          @Value("${app.card-fingerprint.chunk-size}") int chunkSize,
+                                          MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.cardEncryptor = cardEncryptor;
+        this.cardFingerprinter = cardFingerprinter;
+        this.chunkSize = chunkSize;
+        this.backfilledCounter = meterRegistry.counter("card.fingerprint.backfilled");
+    }
+
+    @Timed(value = "card.fingerprint.backfill", histogram = true)
+    public int backfill() {
+        int total = 0;
+        int processed;
+        do {
+            Integer chunk = transactionTemplate.execute(status -> backfillChunk());
+            processed = chunk != null ? chunk : 0;
+            total += processed;
+        } while (processed == chunkSize);
+
+        if (total > 0) {
+            log.info("Заполнены отпечатки номеров для {} карт", total);
+        }
+        return total;
+    }
+
+    private int backfillChunk() {
+        List<Object[]> fingerprints = jdbcTemplate.query(CHUNK_SQL,
+                (rs, rowNum) -> new Object[]{
+                        cardFingerprinter.fingerprint(cardEncryptor.decrypt(rs.getString("encrypted_number"))),
+                        rs.getLong("id")},
+                chunkSize);
+        if (fingerprints.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_SQL, fingerprints);
+        backfilledCounter.increment(fingerprints.size());
+        log.debug("Обработана пачка из {} карт без отпечатка номера", fingerprints.size());
+        return fingerprints.size();
+    }
+}
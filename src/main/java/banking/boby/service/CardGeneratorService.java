@@ -7,6 +7,8 @@ import banking.boby.exception.CardGenerationException;
 import banking.boby.repository.CardGenerationLockRepository;
 import banking.boby.repository.PreGeneratedCardRepository;
 import banking.boby.security.CardEncryptor;
+import banking.boby.security.CardFingerprinter;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -33,6 +35,7 @@ public class CardGeneratorService {
     private int generateCount;
 
     private final CardEncryptor cardEncryptor;
+    private final CardFingerprinter cardFingerprinter;
     private final PreGeneratedCardRepository preGeneratedCardRepository;
     private final CardGenerationLockRepository cardGenerationLockRepository;
 
@@ -42,6 +45,7 @@ public class CardGeneratorService {
     private final ReentrantLock generationLock = new ReentrantLock();
 
 
+    @Timed(value = "card.generation", histogram = true)
     @Transactional(propagation = Propagation.REQUIRES_NEW)
         public List<PreGeneratedCard> generateCards(int generateCount) {
         if (!generationLock.tryLock()) {
@@ -87,7 +91,10 @@ public class CardGeneratorService {
 
                 String encryptedCardNumber = cardEncryptor.encrypt(cardNumber);
 
-                PreGeneratedCard card = PreGeneratedCard.builder().cardNumberEncrypted(encryptedCardNumber).build();
+                PreGeneratedCard card = PreGeneratedCard.builder()
+                        .cardNumberEncrypted(encryptedCardNumber)
+                        .numberFingerprint(cardFingerprinter.fingerprint(cardNumber))
+                        .build();
 
                 cards.add(card);
             }
@@ -0,0 +1,178 @@
+package banking.boby.service;
+
+import banking.boby.context.UserContext;
+import banking.boby.dto.SpendingPeriodDto;
+import banking.boby.dto.SpendingSummaryDto;
+import banking.boby.entity.Card;
+import banking.boby.entity.Transaction;
+import banking.boby.exception.AccessDeniedException;
+import banking.boby.exception.DataValidationException;
+import banking.boby.money.Money;
+import banking.boby.exception.EntityNotFoundException;
+import banking.boby.exception.WrongCardOperationException;
+import banking.boby.repository.CardDailyRollupRepository;
+import banking.boby.repository.CardRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Дневные агрегаты по картам: обновляются дельтой в транзакции каждой проводки,
+ * сводки за любой период считаются по ним, а не по сырым операциям.
+ */
+@Slf4j
+@Service
+public class CardRollupService {
+
+    private static final String REBUILD_LOCK = "card-rollup-rebuild";
+    private static final Duration REBUILD_LOCK_AT_MOST = Duration.ofHours(1);
+
+    private static final String LOCK_CARDS_SQL = "SELECT id FROM cards WHERE id BETWEEN ? AND ? ORDER BY id FOR UPDATE";
+
+    private static final String DELETE_ROLLUPS_SQL = "DELETE FROM card_daily_rollup WHERE card_id BETWEEN ? AND ?";
+
+    private static final String REBUILD_ROLLUPS_SQL = """
+            INSERT INTO card_daily_rollup (card_id, day, inflow, outflow, operation_count)
+            SELECT card_id,
+                   CAST(operation_date_time AS DATE),
+                   COALESCE(SUM(amount) FILTER (WHERE amount > 0), 0),
+                   COALESCE(-SUM(amount) FILTER (WHERE amount < 0), 0),
+                   COUNT(*)
+            FROM (
+                SELECT card_id, operation_date_time, amount FROM transactions WHERE card_id BETWEEN ? AND ?
+                UNION ALL
+                SELECT card_id, operation_date_time, amount FROM transactions_archive WHERE card_id BETWEEN ? AND ?
+            ) t
+            GROUP BY card_id, CAST(operation_date_time AS DATE)
+            """;
+
+    private final CardDailyRollupRepository rollupRepository;
+    private final CardRepository cardRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockService schedulerLockService;
+    private final TaskExecutor rebuildExecutor;
+    private final int rebuildChunkSize;
+
+    public CardRollupService(CardDailyRollupRepository rollupRepository,
+                             CardRepository cardRepository,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             SchedulerLockService schedulerLockService,
+                             @Qualifier("rollupRebuildExecutor") TaskExecutor rebuildExecutor,
+                             @Value("${app.rollup.rebuild-chunk-size}") int rebuildChunkSize) {
+        this.rollupRepository = rollupRepository;
+        this.cardRepository = cardRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.schedulerLockService = schedulerLockService;
+        this.rebuildExecutor = rebuildExecutor;
+        this.rebuildChunkSize = rebuildChunkSize;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Transaction transaction) {
+        Money amount = transaction.getAmount();
+        Money inflow = amount.signum() > 0 ? amount : Money.ZERO;
+        Money outflow = amount.signum() < 0 ? amount.negate() : Money.ZERO;
+        rollupRepository.addPosting(transaction.getCard().getId(),
+                transaction.getOperationDateTime().toLocalDate(), inflow.toBigDecimal(), outflow.toBigDecimal());
+    }
+
+    @Transactional(readOnly = true)
+    public SpendingSummaryDto getSummary(Long cardId, LocalDate from, LocalDate to, String granularity) {
+        if (from.isAfter(to)) {
+            throw new DataValidationException("Дата начала %s позже даты окончания %s", from, to);
+        }
+        String unit = switch (granularity.toLowerCase()) {
+            case "day", "month" -> granularity.toLowerCase();
+            default -> throw new DataValidationException("Неподдерживаемая детализация: %s", granularity);
+        };
+
+        Long userId = UserContext.getCurrentUserId();
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new EntityNotFoundException("Карта с id %d не найдена", cardId));
+        if (card.getHolder() == null || !card.getHolder().getId().equals(userId)) {
+            throw new AccessDeniedException("Карта %d не принадлежит пользователю %d", cardId, userId);
+        }
+
+        List<SpendingPeriodDto> periods = rollupRepository.summarize(cardId, from, to, unit).stream()
+                .map(view -> SpendingPeriodDto.builder()
+                        .period(view.getPeriod())
+                        .inflow(view.getInflow())
+                        .outflow(view.getOutflow())
+                        .operationCount(view.getOperationCount())
+                        .build())
+                .toList();
+
+        return SpendingSummaryDto.builder()
+                .cardId(cardId)
+                .from(from)
+                .to(to)
+                .inflow(periods.stream().map(SpendingPeriodDto::inflow).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .outflow(periods.stream().map(SpendingPeriodDto::outflow).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .operationCount(periods.stream().mapToLong(SpendingPeriodDto::operationCount).sum())
+                .periods(periods)
+                .build();
+    }
+
+    /**
+     * Запускает пересчёт в фоне на пуле rollupRebuildExecutor и возвращает число пачек. Пока пересчёт идёт
+     * на любом узле, блокировка в scheduler_lock занята и повторный запуск отклоняется.
+     */
+    public int startRebuild() {
+        if (!schedulerLockService.tryLock(REBUILD_LOCK, REBUILD_LOCK_AT_MOST)) {
+            throw new WrongCardOperationException("Пересчёт агрегатов уже выполняется");
+        }
+
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        try {
+            Long maxCardId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM cards", Long.class);
+            for (long start = 1; start <= maxCardId; start += rebuildChunkSize) {
+                long from = start;
+                long to = start + rebuildChunkSize - 1;
+                chunks.add(CompletableFuture.runAsync(() -> rebuildChunk(from, to), rebuildExecutor));
+            }
+        } catch (RuntimeException e) {
+            chunks.forEach(chunk -> chunk.cancel(false));
+            schedulerLockService.unlock(REBUILD_LOCK, Duration.ZERO);
+            throw e;
+        }
+
+        int total = chunks.size();
+        CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).whenComplete((ignored, error) -> {
+            try {
+                schedulerLockService.unlock(REBUILD_LOCK, Duration.ZERO);
+            } finally {
+                if (error != null) {
+                    log.error("Пересчёт агрегатов по картам завершился с ошибкой: {}", error.getMessage());
+                } else {
+                    log.info("Агрегаты по картам пересчитаны, пачек: {}", total);
+                }
+            }
+        });
+        return total;
+    }
+
+    private void rebuildChunk(long fromCardId, long toCardId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList(LOCK_CARDS_SQL, Long.class, fromCardId, toCardId);
+            jdbcTemplate.update(DELETE_ROLLUPS_SQL, fromCardId, toCardId);
+            jdbcTemplate.update(REBUILD_ROLLUPS_SQL, fromCardId, toCardId, fromCardId, toCardId);
+        });
+        log.debug("Пересчитаны агрегаты карт {}-{}", fromCardId, toCardId);
+    }
+}
@@ -0,0 +1,315 @@
+package banking.boby.service;
+
+import banking.boby.dto.CardStatsDto;
+import banking.boby.entity.enums.CardStatus;
+import banking.boby.money.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счётчики карт для статистики администратора. Изменения копятся в памяти узла после коммита,
+ * периодически сбрасываются дельтами в таблицу card_stats_counter и перечитываются из неё.
+ * Сверка с cards пересчитывает значения целиком и исправляет накопившийся дрейф.
+ * <p>
+ * Каждая дельта помечена эпохой сверки. Транзакция, меняющая карты, берёт разделяемую advisory-блокировку эпохи
+ * и читает эпоху. Сверка на короткое время берёт ту же блокировку монопольно, увеличивает эпоху и фиксирует снимок
+ * для подсчёта в отдельном соединении. Поэтому изменения старой эпохи вошли в подсчёт, а их ещё не сброшенные
+ * дельты на любом узле отбрасываются. Изменения новой эпохи в снимок не попали и добавляются как обычно,
+ * а сам подсчёт идёт без блокировок и не задерживает изменения карт.
+ */
+@Slf4j
+@Service
+public class CardStatsService {
+
+    private static final String STATUS_PREFIX = "status.";
+    private static final String BALANCE_CENTS = "balance.total-cents";
+    private static final String ISSUED_TOTAL = "issued.total";
+    private static final String EPOCH = "reconcile.epoch";
+
+    private static final String EPOCH_SHARE_SQL = "SELECT pg_advisory_xact_lock_shared(hashtext('" + EPOCH + "'))";
+
+    private static final String EPOCH_LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('" + EPOCH + "'))";
+
+    private static final String EPOCH_SQL = "SELECT value FROM card_stats_counter WHERE name = '" + EPOCH + "'";
+
+    private static final String EPOCH_BUMP_SQL =
+            "UPDATE card_stats_counter SET value = value + 1 WHERE name = '" + EPOCH + "'";
+
+    private static final String ADD_SQL = """
+            INSERT INTO card_stats_counter (name, value) VALUES (?, ?)
+            ON CONFLICT (name) DO UPDATE SET value = card_stats_counter.value + EXCLUDED.value
+            """;
+
+    private static final String SET_SQL = """
+            INSERT INTO card_stats_counter (name, value) VALUES (?, ?)
+            ON CONFLICT (name) DO UPDATE SET value = EXCLUDED.value
+            """;
+
+    private static final String AGGREGATE_SQL = """
+            SELECT status, COUNT(*) AS cards, COALESCE(ROUND(SUM(balance) * 100), 0) AS balance_cents
+            FROM cards
+            GROUP BY status
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter issuedCounter;
+    private final Object epochResource = new Object();
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<String, AtomicLong>> pending = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(0, Map.of(), null);
+
+    public CardStatsService(JdbcTemplate jdbcTemplate, DataSource dataSource, TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.transactionTemplate = transactionTemplate;
+        this.issuedCounter = meterRegistry.counter("card.issued");
+    }
+
+    public void onCardCreated(CardStatus status) {
+        long epoch = epoch();
+        afterCommit(() -> {
+            add(epoch, STATUS_PREFIX + status, 1);
+            add(epoch, ISSUED_TOTAL, 1);
+            issuedCounter.increment();
+        });
+    }
+
+    public void onStatusChanged(CardStatus from, CardStatus to, int cards) {
+        if (from == to || cards == 0) {
+            return;
+        }
+        long epoch = epoch();
+        afterCommit(() -> {
+            add(epoch, STATUS_PREFIX + from, -cards);
+            add(epoch, STATUS_PREFIX + to, cards);
+        });
+    }
+
+    public void onCardDeleted(CardStatus status, Money balance) {
+        long epoch = epoch();
+        afterCommit(() -> {
+            add(epoch, STATUS_PREFIX + status, -1);
+            add(epoch, BALANCE_CENTS, -balance.minorUnits());
+        });
+    }
+
+    public void onBalanceChanged(Money delta) {
+        if (delta.signum() == 0) {
+            return;
+        }
+        long epoch = epoch();
+        afterCommit(() -> add(epoch, BALANCE_CENTS, delta.minorUnits()));
+    }
+
+    public CardStatsDto getStats() {
+        Map<CardStatus, Long> byStatus = new EnumMap<>(CardStatus.class);
+        long total = 0;
+        for (CardStatus status : CardStatus.values()) {
+            long count = current(STATUS_PREFIX + status);
+            byStatus.put(status, count);
+            total += count;
+        }
+
+        return CardStatsDto.builder()
+                .cardsByStatus(byStatus)
+                .totalCards(total)
+                .totalBalance(BigDecimal.valueOf(current(BALANCE_CENTS), 2))
+                .issuedTotal(current(ISSUED_TOTAL))
+                .syncedAt(snapshot.syncedAt())
+                .build();
+    }
+
+    public long getTotalCards() {
+        long total = 0;
+        for (CardStatus status : CardStatus.values()) {
+            total += current(STATUS_PREFIX + status);
+        }
+        return total;
+    }
+
+    public void flush() {
+        Map<Long, Map<String, Long>> deltas = drain();
+        try {
+            if (!deltas.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    long epoch = lockEpoch();
+                    List<Object[]> batch = deltas.getOrDefault(epoch, Map.of()).entrySet().stream()
+                            .map(entry -> new Object[]{entry.getKey(), entry.getValue()})
+                            .toList();
+                    if (!batch.isEmpty()) {
+                        jdbcTemplate.batchUpdate(ADD_SQL, batch);
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            deltas.forEach((epoch, values) -> values.forEach((name, delta) -> add(epoch, name, delta)));
+            throw e;
+        }
+        reload();
+    }
+
+    /**
+     * Под монопольной блокировкой эпохи запоминаются текущие счётчики, эпоха увеличивается и фиксируется снимок
+     * REPEATABLE READ в отдельном соединении. Подсчёт по cards идёт в этом снимке уже после снятия блокировки,
+     * а к счётчикам добавляется разница между подсчётом и запомненными значениями: дельты новой эпохи,
+     * сброшенные за время подсчёта, при этом сохраняются.
+     */
+    public void reconcile() {
+        flush();
+        try (Connection scanConnection = dataSource.getConnection()) {
+            scanConnection.setAutoCommit(false);
+            scanConnection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            JdbcTemplate scan = new JdbcTemplate(new SingleConnectionDataSource(scanConnection, true));
+
+            Map<String, Long> counted = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute(EPOCH_LOCK_SQL);
+                Map<String, Long> values = readCounters();
+                jdbcTemplate.update(EPOCH_BUMP_SQL);
+                scan.queryForObject("SELECT 1", Integer.class);
+                return values;
+            });
+            Map<String, Long> actual = aggregate(scan);
+            scanConnection.commit();
+
+            List<Object[]> corrections = actual.entrySet().stream()
+                    .filter(entry -> entry.getValue() != counted.getOrDefault(entry.getKey(), 0L).longValue())
+                    .map(entry -> new Object[]{entry.getKey(),
+                            entry.getValue() - counted.getOrDefault(entry.getKey(), 0L)})
+                    .toList();
+            if (!corrections.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(ADD_SQL, corrections));
+            }
+        } catch (SQLException e) {
+            throw jdbcTemplate.getExceptionTranslator().translate("Сверка счётчиков карт", null, e);
+        }
+        reload();
+        log.info("Счётчики карт сверены с базой: {}", snapshot.values());
+    }
+
+    private Map<String, Long> aggregate(JdbcTemplate scan) {
+        Map<String, Long> actual = new HashMap<>();
+        for (CardStatus cardStatus : CardStatus.values()) {
+            actual.put(STATUS_PREFIX + cardStatus, 0L);
+        }
+        long balanceCents = 0;
+        for (Map<String, Object> row : scan.queryForList(AGGREGATE_SQL)) {
+            actual.put(STATUS_PREFIX + row.get("status"), ((Number) row.get("cards")).longValue());
+            balanceCents += ((Number) row.get("balance_cents")).longValue();
+        }
+        actual.put(BALANCE_CENTS, balanceCents);
+        return actual;
+    }
+
+    private Map<String, Long> readCounters() {
+        Map<String, Long> values = new HashMap<>();
+        jdbcTemplate.query("SELECT name, value FROM card_stats_counter",
+                rs -> { values.put(rs.getString("name"), rs.getLong("value")); });
+        return values;
+    }
+
+    private Map<Long, Map<String, Long>> drain() {
+        Map<Long, Map<String, Long>> deltas = new HashMap<>();
+        pending.forEach((epoch, values) -> values.forEach((name, value) -> {
+            long delta = value.getAndSet(0);
+            if (delta != 0) {
+                deltas.computeIfAbsent(epoch, key -> new HashMap<>()).put(name, delta);
+            }
+        }));
+        return deltas;
+    }
+
+    private void reload() {
+        Map<String, Long> values = readCounters();
+        Long epoch = values.remove(EPOCH);
+        Snapshot reloaded = new Snapshot(epoch != null ? epoch : 0, Map.copyOf(values), Instant.now());
+        snapshot = reloaded;
+        pending.keySet().removeIf(pendingEpoch -> pendingEpoch < reloaded.epoch());
+    }
+
+    private long current(String name) {
+        Snapshot current = snapshot;
+        long value = current.values().getOrDefault(name, 0L);
+        for (Map.Entry<Long, ConcurrentHashMap<String, AtomicLong>> entry : pending.entrySet()) {
+            AtomicLong local = entry.getKey() >= current.epoch() ? entry.getValue().get(name) : null;
+            if (local != null) {
+                value += local.get();
+            }
+        }
+        return value;
+    }
+
+    private void add(long epoch, String name, long delta) {
+        pending.computeIfAbsent(epoch, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, key -> new AtomicLong())
+                .addAndGet(delta);
+    }
+
+    /**
+     * Эпоха читается один раз на транзакцию, разделяемая блокировка держится до её завершения.
+     */
+    private long epoch() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return snapshot.epoch();
+        }
+        Long epoch = (Long) TransactionSynchronizationManager.getResource(epochResource);
+        if (epoch == null) {
+            epoch = lockEpoch();
+            TransactionSynchronizationManager.bindResource(epochResource, epoch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(epochResource);
+                }
+            });
+        }
+        return epoch;
+    }
+
+    /**
+     * Эпоха читается отдельным запросом после получения блокировки: в READ COMMITTED его снимок уже видит
+     * эпоху, увеличенную сверкой, которую транзакция ждала.
+     */
+    private long lockEpoch() {
+        jdbcTemplate.execute(EPOCH_SHARE_SQL);
+        Long epoch = jdbcTemplate.queryForObject(EPOCH_SQL, Long.class);
+        return epoch != null ? epoch : 0L;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Snapshot(long epoch, Map<String, Long> values, Instant syncedAt) {
+    }
+}
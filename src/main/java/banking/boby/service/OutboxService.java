@@ -0,0 +1,212 @@
+package banking.boby.service;
+
+import banking.boby.entity.Transaction;
+import banking.boby.entity.enums.OperationType;
+import banking.boby.outbox.OutboxChannel;
+import banking.boby.outbox.OutboxConsumer;
+import banking.boby.outbox.PostingEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Outbox проводок: строки пишутся в транзакции операции и раздаются локальным получателям пачками.
+ * Пачка захватывается короткой транзакцией: available_at сдвигается на время аренды (lease), и другие диспетчеры
+ * не видят строки, пока аренда не истекла. Доставка идёт вне транзакции, после неё строки удаляются,
+ * после сбоя откладываются на retry-delay. Строки, не доставленные за max-attempts попыток, паркуются
+ * (parked_at) и больше не выбираются.
+ */
+@Slf4j
+@Service
+public class OutboxService {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO posting_outbox (transaction_id, card_id, amount, operation_type, operation_date_time)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String CLAIM_BATCH_SQL = """
+            UPDATE posting_outbox
+            SET attempts = attempts + 1, available_at = LOCALTIMESTAMP + (? * INTERVAL '1 millisecond')
+            WHERE id IN (
+                SELECT id
+                FROM posting_outbox
+                WHERE available_at <= LOCALTIMESTAMP AND parked_at IS NULL
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING id, transaction_id, card_id, amount, operation_type, operation_date_time,
+                      (EXTRACT(EPOCH FROM (LOCALTIMESTAMP - created_at)) * 1000)::BIGINT AS lag_millis
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM posting_outbox WHERE id = ANY(?)";
+
+    private static final String PARK_SQL = """
+            UPDATE posting_outbox
+            SET parked_at = LOCALTIMESTAMP
+            WHERE id = ANY(?) AND attempts >= ?
+            """;
+
+    private static final String POSTPONE_SQL = """
+            UPDATE posting_outbox
+            SET available_at = LOCALTIMESTAMP + (? * INTERVAL '1 millisecond')
+            WHERE id = ANY(?) AND parked_at IS NULL
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OutboxChannel> channels;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final Duration deliveryTimeout;
+    private final Duration retryDelay;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Counter dispatched;
+    private final Counter failed;
+    private final Counter parked;
+    private final Timer lag;
+
+    public OutboxService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                         List<OutboxConsumer> consumers,
+                         @Value("${app.outbox.batch-size}") int batchSize,
+                         @Value("${app.outbox.max-batches-per-poll}") int maxBatchesPerPoll,
+                         @Value("${app.outbox.queue-capacity}") int queueCapacity,
+                         @Value("${app.outbox.delivery-timeout}") Duration deliveryTimeout,
+                         @Value("${app.outbox.retry-delay}") Duration retryDelay,
+                         @Value("${app.outbox.lease}") Duration lease,
+                         @Value("${app.outbox.max-attempts}") int maxAttempts,
+                         MeterRegistry meterRegistry) {
+        if (lease.compareTo(deliveryTimeout) <= 0) {
+            throw new IllegalArgumentException("app.outbox.lease (" + lease
+                    + ") должен быть больше app.outbox.delivery-timeout (" + deliveryTimeout + ")");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.deliveryTimeout = deliveryTimeout;
+        this.retryDelay = retryDelay;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.channels = consumers.stream()
+                .map(consumer -> new OutboxChannel(consumer, queueCapacity))
+                .toList();
+        this.dispatched = meterRegistry.counter("outbox.dispatched");
+        this.failed = meterRegistry.counter("outbox.failed");
+        this.parked = meterRegistry.counter("outbox.parked");
+        this.lag = Timer.builder("outbox.lag")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        channels.forEach(channel -> meterRegistry.gauge("outbox.queue.size", Tags.of("consumer", channel.name()),
+                channel, OutboxChannel::queued));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(List<Transaction> transactions) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, transactions.size(), (ps, transaction) -> {
+            ps.setLong(1, transaction.getId());
+            ps.setLong(2, transaction.getCard().getId());
+            ps.setBigDecimal(3, transaction.getAmount().toBigDecimal());
+            ps.setString(4, transaction.getOperationType().name());
+            ps.setTimestamp(5, Timestamp.valueOf(transaction.getOperationDateTime()));
+        });
+    }
+
+    public int drain() {
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            int delivered = dispatchBatch();
+            total += delivered;
+            if (delivered < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    public int dispatchBatch() {
+        List<Long> lags = new ArrayList<>();
+        List<PostingEvent> claimed = transactionTemplate.execute(status -> jdbcTemplate.query(CLAIM_BATCH_SQL,
+                (rs, rowNum) -> {
+                    lags.add(rs.getLong("lag_millis"));
+                    return new PostingEvent(
+                            rs.getLong("id"),
+                            rs.getLong("transaction_id"),
+                            rs.getLong("card_id"),
+                            rs.getBigDecimal("amount"),
+                            OperationType.valueOf(rs.getString("operation_type")),
+                            rs.getTimestamp("operation_date_time").toLocalDateTime());
+                }, lease.toMillis(), batchSize));
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<PostingEvent> events = claimed.stream()
+                .sorted(Comparator.comparing(PostingEvent::outboxId))
+                .toList();
+        Long[] ids = events.stream().map(PostingEvent::outboxId).toArray(Long[]::new);
+        try {
+            deliver(events);
+        } catch (RuntimeException e) {
+            failed.increment(events.size());
+            int parkedRows = jdbcTemplate.update(PARK_SQL, ids, maxAttempts);
+            jdbcTemplate.update(POSTPONE_SQL, retryDelay.toMillis(), ids);
+            if (parkedRows > 0) {
+                parked.increment(parkedRows);
+                log.error("{} событий outbox припарковано после {} попыток доставки: {}",
+                        parkedRows, maxAttempts, e.getMessage());
+            }
+            log.warn("Пачка outbox из {} событий не доставлена, повтор через {}: {}",
+                    events.size(), retryDelay, e.getMessage());
+            return 0;
+        }
+
+        jdbcTemplate.update(DELETE_SQL, (Object) ids);
+        lags.forEach(millis -> lag.record(millis, TimeUnit.MILLISECONDS));
+        dispatched.increment(events.size());
+        return events.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        channels.forEach(OutboxChannel::close);
+    }
+
+    private void deliver(List<PostingEvent> events) {
+        try {
+            List<CompletableFuture<Void>> results = new ArrayList<>(channels.size());
+            for (OutboxChannel channel : channels) {
+                results.add(channel.submit(events, deliveryTimeout));
+            }
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                    .get(deliveryTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Доставка outbox прервана", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Получатели не ответили за " + deliveryTimeout, e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package banking.boby.service;
+
+import banking.boby.audit.AuditAction;
+import banking.boby.audit.AuditJournal;
+import banking.boby.context.UserContext;
+import banking.boby.entity.Card;
+import banking.boby.entity.Transaction;
+import banking.boby.entity.enums.CardStatus;
+import banking.boby.entity.enums.OperationType;
+import banking.boby.event.CardChangedEvent;
+import banking.boby.exception.DataValidationException;
+import banking.boby.exception.EntityNotFoundException;
+import banking.boby.exception.UnsafeOperationException;
+import banking.boby.money.Money;
+import banking.boby.posting.PostingLeg;
+import banking.boby.repository.CardRepository;
+import banking.boby.repository.TransactionRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Атомарно применяет набор проводок любого типа операции: проверяет форму проводки,
+ * статус карт и достаточность средств, затем одной пачкой пишет операции и обновляет балансы.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostingService {
+
+    private final CardRepository cardRepository;
+    private final TransactionRepository transactionRepository;
+    private final CardRollupService cardRollupService;
+    private final CardStatsService cardStatsService;
+    private final OutboxService outboxService;
+    private final AuditJournal auditJournal;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Timed(value = "card.posting", histogram = true)
+    @Transactional
+    public List<Transaction> post(OperationType operationType, List<PostingLeg> legs) {
+        validateShape(operationType, legs);
+
+        Map<Long, Money> deltas = new LinkedHashMap<>();
+        legs.forEach(leg -> deltas.merge(leg.cardId(), leg.amount(), Money::plus));
+
+        Map<Long, Card> cards = cardRepository.findAllById(deltas.keySet()).stream()
+                .collect(Collectors.toMap(Card::getId, Function.identity()));
+        deltas.forEach((cardId, delta) -> {
+            Card card = cards.get(cardId);
+            if (card == null) {
+                throw new EntityNotFoundException("Карта с id %d не найдена", cardId);
+            }
+            if (card.getStatus() != CardStatus.ACTIVE) {
+                throw new UnsafeOperationException("Карта %d не активна", cardId);
+            }
+            if (card.getBalance().plus(delta).signum() < 0) {
+                throw new UnsafeOperationException("Недостаточно средств на карте %d", cardId);
+            }
+        });
+
+        deltas.forEach((cardId, delta) -> {
+            Card card = cards.get(cardId);
+            card.setBalance(card.getBalance().plus(delta));
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> transactions = legs.stream()
+                .map(leg -> Transaction.builder()
+                        .card(cards.get(leg.cardId()))
+                        .amount(leg.amount())
+                        .operationType(operationType)
+                        .operationDateTime(now)
+                        .build())
+                .toList();
+
+        cardRepository.saveAll(cards.values());
+        transactionRepository.saveAll(transactions);
+        outboxService.append(transactions);
+        transactions.forEach(cardRollupService::record);
+        cardStatsService.onBalanceChanged(deltas.values().stream().reduce(Money.ZERO, Money::plus));
+        cards.values().forEach(card -> eventPublisher.publishEvent(CardChangedEvent.of(card)));
+        audit(operationType, legs);
+
+        log.debug("Проводка {} из {} частей применена к картам {}", operationType, legs.size(), deltas.keySet());
+        return transactions;
+    }
+
+    private void audit(OperationType operationType, List<PostingLeg> legs) {
+        AuditAction action = AuditAction.valueOf(operationType.name());
+        Long actorId = UserContext.getCurrentUserId();
+        if (legs.size() == 2 && operationType == OperationType.TRANSFER) {
+            PostingLeg debit = legs.get(0).amount().signum() < 0 ? legs.get(0) : legs.get(1);
+            PostingLeg credit = debit == legs.get(0) ? legs.get(1) : legs.get(0);
+            auditJournal.recordAfterCommit(action, actorId, debit.cardId(), credit.cardId(), credit.amount());
+            return;
+        }
+        legs.forEach(leg -> auditJournal.recordAfterCommit(action, actorId, leg.cardId(), null, leg.amount()));
+    }
+
+    private void validateShape(OperationType operationType, List<PostingLeg> legs) {
+        if (legs == null || legs.isEmpty()) {
+            throw new DataValidationException("Проводка %s не содержит ни одной части", operationType);
+        }
+        for (PostingLeg leg : legs) {
+            if (leg.cardId() == null || leg.amount() == null || leg.amount().signum() == 0) {
+                throw new DataValidationException("Некорректная часть проводки %s: %s", operationType, leg);
+            }
+        }
+
+        switch (operationType) {
+            case TRANSFER -> {
+                Money net = legs.stream().map(PostingLeg::amount).reduce(Money.ZERO, Money::plus);
+                if (legs.size() < 2 || net.signum() != 0) {
+                    throw new DataValidationException("Перевод должен списывать и зачислять одинаковую сумму");
+                }
+            }
+            case DEPOSIT -> {
+                if (legs.stream().anyMatch(leg -> leg.amount().signum() < 0)) {
+                    throw new DataValidationException("Пополнение может только зачислять средства");
+                }
+            }
+            case WITHDRAW, PAYMENT -> {
+                if (legs.stream().anyMatch(leg -> leg.amount().signum() > 0)) {
+                    throw new DataValidationException("Операция %s может только списывать средства", operationType);
+                }
+            }
+        }
+    }
+}
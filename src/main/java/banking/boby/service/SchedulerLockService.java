@@ -0,0 +1,52 @@
+package banking.boby.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+/**
+ * Аренда именованной блокировки в таблице scheduler_lock: задачу выполняет только узел,
+ * успевший занять строку. Время берётся из БД, поэтому расхождение часов узлов не важно.
+ */
+@Slf4j
+@Service
+public class SchedulerLockService {
+
+    private static final String ACQUIRE_SQL = """
+            INSERT INTO scheduler_lock (name, locked_until, locked_at, locked_by)
+            VALUES (?, now() + ? * INTERVAL '1 millisecond', now(), ?)
+            ON CONFLICT (name) DO UPDATE
+            SET locked_until = EXCLUDED.locked_until,
+                locked_at = EXCLUDED.locked_at,
+                locked_by = EXCLUDED.locked_by
+            WHERE scheduler_lock.locked_until <= now()
+            """;
+
+    private static final String RELEASE_SQL = """
+            UPDATE scheduler_lock
+            SET locked_until = GREATEST(now(), locked_at + ? * INTERVAL '1 millisecond')
+            WHERE name = ? AND locked_by = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    public SchedulerLockService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean tryLock(String name, Duration lockAtMost) {
+        boolean acquired = jdbcTemplate.update(ACQUIRE_SQL, name, lockAtMost.toMillis(), nodeId) > 0;
+        if (!acquired) {
+            log.debug("Блокировка {} занята другим узлом", name);
+        }
+        return acquired;
+    }
+
+    public void unlock(String name, Duration lockAtLeast) {
+        jdbcTemplate.update(RELEASE_SQL, lockAtLeast.toMillis(), name, nodeId);
+    }
+}
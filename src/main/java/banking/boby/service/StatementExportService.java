@@ -0,0 +1,98 @@
+package banking.boby.service;
+
+import banking.boby.context.UserContext;
+import banking.boby.entity.Card;
+import banking.boby.exception.AccessDeniedException;
+import banking.boby.exception.DataValidationException;
+import banking.boby.exception.EntityNotFoundException;
+import banking.boby.repository.CardRepository;
+import banking.boby.statement.StatementFormat;
+import banking.boby.statement.StatementWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Service
+public class StatementExportService {
+
+    private static final String STATEMENT_SQL = """
+            SELECT id, operation_date_time, operation_type, amount
+            FROM transactions
+            WHERE card_id = ? AND operation_date_time >= ? AND operation_date_time < ?
+            UNION ALL
+            SELECT id, operation_date_time, operation_type, amount
+            FROM transactions_archive
+            WHERE card_id = ? AND operation_date_time >= ? AND operation_date_time < ?
+            ORDER BY operation_date_time, id
+            """;
+
+    private final CardRepository cardRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public StatementExportService(CardRepository cardRepository,
+                                  DataSource dataSource,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.statement.fetch-size}") int fetchSize) {
+        this.cardRepository = cardRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Transactional(readOnly = true)
+    public StreamingResponseBody prepareExport(Long cardId, LocalDate from, LocalDate to, StatementFormat format) {
+        if (from.isAfter(to)) {
+            throw new DataValidationException("Дата начала %s позже даты окончания %s", from, to);
+        }
+
+        Long userId = UserContext.getCurrentUserId();
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new EntityNotFoundException("Карта с id %d не найдена", cardId));
+        if (card.getHolder() == null || !card.getHolder().getId().equals(userId)) {
+            throw new AccessDeniedException("Карта %d не принадлежит пользователю %d", cardId, userId);
+        }
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        return out -> export(cardId, start, end, format, out);
+    }
+
+    void export(Long cardId, LocalDateTime from, LocalDateTime to, StatementFormat format, OutputStream out)
+            throws IOException {
+        long startedAt = System.nanoTime();
+        StatementWriter writer = new StatementWriter(out, format);
+        writer.writeHeader();
+
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(STATEMENT_SQL, rs -> {
+                try {
+                    writer.writeRow(rs.getLong(1), rs.getObject(2, LocalDateTime.class),
+                            rs.getString(3), rs.getBigDecimal(4));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, cardId, from, to, cardId, from, to));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+        log.info("Выписка по карте {} выгружена: {} операций за {} мс", cardId, writer.getRows(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+    }
+}
@@ -0,0 +1,92 @@
+package banking.boby.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Обслуживание помесячных секций таблицы transactions: заранее создаёт секции на ближайшие месяцы
+ * и переносит секции старше срока хранения в холодную таблицу transactions_archive.
+ */
+@Slf4j
+@Service
+public class TransactionPartitionService {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Moscow");
+    private static final String PARTITION_PREFIX = "transactions_";
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = 'transactions'
+            ORDER BY c.relname
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int premakeMonths;
+    private final int retentionMonths;
+
+    public TransactionPartitionService(JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       @Value("${app.transactions.partitions.premake-months}") int premakeMonths,
+                                       @Value("${app.transactions.partitions.retention-months}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.premakeMonths = premakeMonths;
+        this.retentionMonths = retentionMonths;
+    }
+
+    public void ensureFuturePartitions() {
+        YearMonth current = YearMonth.now(ZONE);
+        for (int i = 0; i <= premakeMonths; i++) {
+            LocalDate monthStart = current.plusMonths(i).atDay(1);
+            jdbcTemplate.queryForObject("SELECT create_transactions_partition(?)", String.class, monthStart);
+        }
+    }
+
+    public int archiveExpiredPartitions() {
+        YearMonth cutoff = YearMonth.now(ZONE).minusMonths(retentionMonths);
+        List<String> expired = jdbcTemplate.queryForList(PARTITIONS_SQL, String.class).stream()
+                .filter(name -> parseMonth(name).map(month -> month.isBefore(cutoff)).orElse(false))
+                .toList();
+
+        expired.forEach(this::archivePartition);
+        return expired.size();
+    }
+
+    private void archivePartition(String partition) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE transactions DETACH PARTITION " + partition);
+            int archived = jdbcTemplate.update("""
+                    INSERT INTO transactions_archive (id, card_id, operation_date_time, operation_type, amount)
+                    SELECT id, card_id, operation_date_time, operation_type, amount FROM %s
+                    """.formatted(partition));
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            log.info("Секция {} перенесена в архив, {} операций", partition, archived);
+        });
+    }
+
+    private static Optional<YearMonth> parseMonth(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_FORMAT));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -1,24 +1,33 @@
 package banking.boby.service;
 
+import banking.boby.audit.AuditAction;
+import banking.boby.audit.AuditJournal;
 import banking.boby.context.UserContext;
 import banking.boby.dto.BalanceResponseDto;
 import banking.boby.dto.CardDigitsDto;
+import banking.boby.dto.CardNumberTransferRequestDto;
 import banking.boby.dto.CardUserDto;
 import banking.boby.dto.TransferRequestDto;
 import banking.boby.entity.Card;
-import banking.boby.entity.Transaction;
 import banking.boby.entity.enums.CardStatus;
 import banking.boby.entity.enums.OperationType;
+import banking.boby.event.CardChangedEvent;
 import banking.boby.exception.AccessDeniedException;
 import banking.boby.exception.EntityNotFoundException;
 import banking.boby.exception.UnsafeOperationException;
 import banking.boby.exception.WrongCardOperationException;
+import banking.boby.money.Money;
+import banking.boby.posting.PostingLeg;
 import banking.boby.repository.CardRepository;
-import banking.boby.repository.TransactionRepository;
+import banking.boby.repository.projection.CardSummaryView;
+import banking.boby.repository.projection.CardVersionView;
 import banking.boby.security.CardEncryptor;
+import banking.boby.security.CardFingerprinter;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -26,9 +35,9 @@ import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Service
@@ -36,64 +45,79 @@ import java.util.List;
 public class UserCardService {
 
     private static final Logger log = LoggerFactory.getLogger(UserCardService.class);
+    private static final Money MIN_TRANSFER = Money.ofMajor(1);
     private final CardRepository cardRepository;
     private final CardEncryptor cardEncryptor;
-    private final TransactionRepository transactionRepository;
+    private final CardFingerprinter cardFingerprinter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CardStatsService cardStatsService;
+    private final PostingService postingService;
+    private final AuditJournal auditJournal;
+    private final VelocityLimitService velocityLimitService;
 
 
+    @Timed(value = "card.transfer", histogram = true)
     @Retryable(maxAttempts = 3, backoff = @Backoff(delay = 5000, multiplier = 2),
-            exclude = {AccessDeniedException.class, UnsafeOperationException.class})
+            exclude = {AccessDeniedException.class, UnsafeOperationException.class},
+            listeners = "transferRetryListener")
     @Transactional(noRollbackFor = {AccessDeniedException.class, UnsafeOperationException.class})
     public void transferFunds(TransferRequestDto request) {
-        List<Card> cards = validateTransfer(request);
-        Card fromCard = cards.get(0);
-        Card toCard = cards.get(1);
+        transfer(request);
+    }
 
-        BigDecimal newBalanceForFromCard = fromCard.getBalance().subtract(request.amount());
-        Transaction sentFunds = Transaction.builder()
-                .amount(request.amount().negate())
-                .operationDateTime(LocalDateTime.now())
-                .card(fromCard)
-                .operationType(OperationType.TRANSFER)
-                .build();
-        fromCard.setBalance(newBalanceForFromCard);
-        cardRepository.save(fromCard);
-        transactionRepository.save(sentFunds);
+    /**
+     * Перевод без повторов для пакетного протокола: пауза между повторами задержала бы все следующие кадры
+     * соединения, поэтому конфликт параллельного изменения возвращается вызывающему сразу.
+     */
+    @Timed(value = "card.transfer.batch", histogram = true)
+    @Transactional(noRollbackFor = {AccessDeniedException.class, UnsafeOperationException.class})
+    public void transferFundsOnce(TransferRequestDto request) {
+        transfer(request);
+    }
 
+    @Timed(value = "card.transfer.by-number", histogram = true)
+    @Retryable(maxAttempts = 3, backoff = @Backoff(delay = 5000, multiplier = 2),
+            exclude = {AccessDeniedException.class, UnsafeOperationException.class, EntityNotFoundException.class},
+            listeners = "transferRetryListener")
+    @Transactional(noRollbackFor = {AccessDeniedException.class, UnsafeOperationException.class})
+    public void transferToCardNumber(CardNumberTransferRequestDto request) {
+        Long toCardId = cardRepository.findIdByNumberFingerprintAndHolderId(
+                        cardFingerprinter.fingerprint(request.toCardNumber()), UserContext.getCurrentUserId())
+                .orElseThrow(() -> new EntityNotFoundException("Карта с таким номером не найдена"));
+        transfer(new TransferRequestDto(request.fromCardId(), toCardId, request.amount()));
+    }
 
-        BigDecimal newBalanceForToCard = toCard.getBalance().add(request.amount());
-        Transaction receiveFunds = Transaction.builder()
-                .amount(request.amount())
-                .operationDateTime(LocalDateTime.now())
-                .card(toCard)
-                .operationType(OperationType.TRANSFER)
-                .build();
-        toCard.setBalance(newBalanceForToCard);
-        cardRepository.save(toCard);
-        transactionRepository.save(receiveFunds);
+    private void transfer(TransferRequestDto request) {
+        List<Card> cards = validateTransfer(request);
+        Card fromCard = cards.get(0);
+        Card toCard = cards.get(1);
 
+        postingService.post(OperationType.TRANSFER, List.of(
+                PostingLeg.debit(fromCard.getId(), request.amount()),
+                PostingLeg.credit(toCard.getId(), request.amount())));
 
         log.info("Перевод {} выполнен с карты {} на карту {} пользователем {}",
                 request.amount(), fromCard.getId(), toCard.getId(), UserContext.getCurrentUserId());
     }
 
+    @Transactional(readOnly = true)
     public Page<CardUserDto> getMyCards(Pageable pageable, String search) {
         Long userId = UserContext.getCurrentUserId();
         assert userId != null;
 
         if (search == null || search.isBlank()) {
-            return cardRepository.findByHolderId(userId, pageable)
+            return cardRepository.findSummariesByHolderId(userId, pageable)
                     .map(this::mapToCardUserDto);
         }
         String digitsSearch = search.replaceAll("\\D", "");
         if (digitsSearch.isEmpty()) {
-            return cardRepository.findByHolderId(userId, pageable)
+            return cardRepository.findSummariesByHolderId(userId, pageable)
                     .map(this::mapToCardUserDto);
         }
-        List<Card> allCards = cardRepository.findByHolderId(userId);
+        List<CardSummaryView> allCards = cardRepository.findSummariesByHolderId(userId);
         List<CardUserDto> filtered = allCards.stream()
                 .filter(card -> {
-                    String decrypted = cardEncryptor.decrypt(card.getEncryptedNumber());
+                    String decrypted = cardEncryptor.decrypt(card.encryptedNumber());
                     return decrypted.contains(digitsSearch);
                 })
                 .map(this::mapToCardUserDto)
@@ -106,22 +130,45 @@ public class UserCardService {
         return new PageImpl<>(pageContent, pageable, filtered.size());
     }
 
+    @Transactional(readOnly = true)
     public BalanceResponseDto getBalance(Long cardId) {
         Long userId = UserContext.getCurrentUserId();
-        Card card = validateCard(cardId);
+        CardSummaryView card = cardRepository.findSummaryById(cardId)
+                .orElseThrow(() -> new EntityNotFoundException("Карта с id %d не найдена", cardId));
 
-        if (card.getHolder() == null || !card.getHolder().getId().equals(userId)) {
+        if (!card.holderId().equals(userId)) {
             throw new AccessDeniedException("Карта %d не принадлежит пользователю %d", cardId, userId);
 
         }
 
         return BalanceResponseDto.builder()
-                .balance(card.getBalance())
+                .balance(card.balance())
                 .cardId(cardId)
-                .maskedNum(maskCardNumber(cardEncryptor.decrypt(card.getEncryptedNumber())))
+                .maskedNum(maskCardNumber(cardEncryptor.decrypt(card.encryptedNumber())))
                 .build();
     }
 
+    @Transactional(readOnly = true)
+    public String getBalanceEtag(Long cardId) {
+        Long userId = UserContext.getCurrentUserId();
+        return cardRepository.findVersionByIdAndHolderId(cardId, userId)
+                .map(version -> String.format("W/\"b%d-%d\"", cardId, version))
+                .orElse(null);
+    }
+
+    @Transactional(readOnly = true)
+    public String getMyCardsEtag(Pageable pageable, String search) {
+        Long userId = UserContext.getCurrentUserId();
+        StringBuilder state = new StringBuilder()
+                .append(pageable.getPageNumber()).append(':')
+                .append(pageable.getPageSize()).append(':')
+                .append(search == null ? "" : search.replaceAll("\\D", ""));
+        for (CardVersionView card : cardRepository.findVersionsByHolderId(userId)) {
+            state.append(';').append(card.getId()).append('-').append(card.getVersion());
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
     @Transactional
     public void blockCardRequest(Long cardId) {
         Long userId = UserContext.getCurrentUserId();
@@ -135,12 +182,17 @@ public class UserCardService {
             throw new WrongCardOperationException("Карта уже заблокирована");
         }
 
+        CardStatus previous = card.getStatus();
         card.setStatus(CardStatus.BLOCKED);
         cardRepository.save(card);
+        cardStatsService.onStatusChanged(previous, CardStatus.BLOCKED, 1);
+        eventPublisher.publishEvent(CardChangedEvent.of(card));
+        auditJournal.recordAfterCommit(AuditAction.CARD_BLOCK_REQUEST, userId, cardId, null, null);
         log.info("Запрос на блокировку карты {} выполнен пользователем {}", cardId, userId);
 
     }
 
+    @Transactional(readOnly = true)
     public CardDigitsDto getFullCardNumber(Long cardId) {
         Long userId = UserContext.getCurrentUserId();
         Card card = validateCard(cardId);
@@ -172,11 +224,11 @@ public class UserCardService {
             throw new UnsafeOperationException("Средства возможно переводить только между своими картами");
         }
 
-        if (fromCard.getBalance().compareTo(request.amount()) < 0) {
+        if (fromCard.getBalance().isLessThan(request.amount())) {
             throw new UnsafeOperationException("Недостаточно средств для перевода");
         }
 
-        if (request.amount().compareTo(BigDecimal.ONE) < 0) {
+        if (request.amount().isLessThan(MIN_TRANSFER)) {
             throw new UnsafeOperationException("Сумма должна быть не меньше 1");
         }
 
@@ -189,6 +241,7 @@ public class UserCardService {
             throw new UnsafeOperationException("Выберите другую карту для получения");
         }
 
+        velocityLimitService.reserveTransfer(userId, fromCard.getId(), request.amount());
         return List.of(fromCard, toCard);
     }
 
@@ -200,16 +253,16 @@ public class UserCardService {
         return new String(chars);
     }
 
-    private CardUserDto mapToCardUserDto(Card card) {
-        String decrypted = cardEncryptor.decrypt(card.getEncryptedNumber());
+    private CardUserDto mapToCardUserDto(CardSummaryView card) {
+        String decrypted = cardEncryptor.decrypt(card.encryptedNumber());
         String masked = maskCardNumber(decrypted);
 
         return CardUserDto.builder()
-                .id(card.getId())
+                .id(card.id())
                 .maskedNum(masked)
-                .status(card.getStatus())
-                .expDate(card.getExpiryDate())
-                .balance(card.getBalance())
+                .status(card.status())
+                .expDate(card.expiryDate())
+                .balance(card.balance())
                 .build();
     }
 
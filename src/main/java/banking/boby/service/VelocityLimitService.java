@@ -0,0 +1,210 @@
+package banking.boby.service;
+
+import banking.boby.config.VelocityLimitProperties;
+import banking.boby.exception.UnsafeOperationException;
+import banking.boby.money.Money;
+import banking.boby.velocity.VelocityLimit;
+import banking.boby.velocity.VelocityScope;
+import banking.boby.velocity.VelocityTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Лимиты частоты и суммы переводов в скользящих окнах по карте и пользователю. Проверка идёт по окнам в памяти,
+ * перевод резервируется сразу и снимается при откате транзакции.
+ * <p>
+ * Переводы других узлов дочитываются из transactions инкрементально: каждая сверка читает строки, начиная
+ * с момента предыдущей минус reconcile-overlap, уже учтённые строки отсекаются по id. Строка, которой
+ * соответствует локальное резервирование (та же карта и сумма), не добавляется повторно: резервирование
+ * уже лежит в окнах. Окна не пересобираются и не подменяются, поэтому резервирования во время сверки не теряются.
+ */
+@Slf4j
+@Service
+public class VelocityLimitService {
+
+    private static final String TRANSFERS_SINCE_SQL = """
+            SELECT t.id, c.user_id, t.card_id, t.operation_date_time, -t.amount AS amount
+            FROM transactions t
+            JOIN cards c ON c.id = t.card_id
+            WHERE t.operation_type = 'TRANSFER'
+              AND t.amount < 0
+              AND t.operation_date_time >= ?
+            """;
+
+    private final VelocityLimitProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final List<VelocityLimit> limits;
+    private final Duration longestWindow;
+    private final VelocityTracker tracker;
+    private final ConcurrentHashMap<ReservationKey, Queue<Reservation>> unobserved = new ConcurrentHashMap<>();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    private final Map<Long, Long> observed = new HashMap<>();
+    private final Counter rejected;
+    private long readFrom = Long.MIN_VALUE;
+
+    public VelocityLimitService(VelocityLimitProperties properties, JdbcTemplate jdbcTemplate,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.limits = properties.getLimits().stream()
+                .map(limit -> new VelocityLimit(limit.getScope(), limit.getWindow(), limit.getBuckets(),
+                        limit.getMaxCount(),
+                        limit.getMaxAmount() == null ? Long.MAX_VALUE : toCents(limit.getMaxAmount())))
+                .toList();
+        this.longestWindow = limits.stream().map(VelocityLimit::window).max(Duration::compareTo).orElse(Duration.ZERO);
+        this.tracker = new VelocityTracker(limits, properties.getStripes());
+        this.rejected = meterRegistry.counter("card.transfer.velocity.rejected");
+        meterRegistry.gauge("card.transfer.velocity.windows", tracker, VelocityTracker::size);
+    }
+
+    public void reserveTransfer(Long userId, Long cardId, Money amount) {
+        if (!properties.isEnabled() || limits.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long cents = amount.minorUnits();
+        VelocityLimit violated = tracker.tryAcquire(userId, cardId, cents, now);
+        if (violated != null) {
+            rejected.increment();
+            throw new UnsafeOperationException("Превышен лимит переводов по %s за %s",
+                    violated.scope() == VelocityScope.CARD ? "карте" : "пользователю", describe(violated.window()));
+        }
+
+        Reservation reservation = new Reservation(now);
+        ReservationKey key = new ReservationKey(cardId, cents);
+        unobserved.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>()).add(reservation);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED && reservation.rollBack()) {
+                    tracker.release(userId, cardId, cents, now);
+                }
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось прогреть лимиты переводов из базы: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Первая сверка читает переводы за самое длинное окно, следующие — только строки после предыдущей сверки.
+     */
+    public void reconcile() {
+        if (!properties.isEnabled() || limits.isEmpty()) {
+            return;
+        }
+        reconcileLock.lock();
+        try {
+            long startedAt = System.currentTimeMillis();
+            long windowStart = startedAt - longestWindow.toMillis();
+            long from = Math.max(readFrom, windowStart);
+            int[] added = new int[1];
+            jdbcTemplate.query(TRANSFERS_SINCE_SQL, rs -> {
+                long id = rs.getLong("id");
+                long timestamp = rs.getTimestamp("operation_date_time").getTime();
+                if (observed.putIfAbsent(id, timestamp) != null) {
+                    return;
+                }
+                long cardId = rs.getLong("card_id");
+                long cents = toCents(rs.getBigDecimal("amount"));
+                if (!claimReservation(new ReservationKey(cardId, cents))) {
+                    tracker.add(rs.getLong("user_id"), cardId, cents, timestamp);
+                    added[0]++;
+                }
+            }, new Timestamp(from));
+
+            readFrom = startedAt - properties.getReconcileOverlap().toMillis();
+            observed.values().removeIf(timestamp -> timestamp < readFrom);
+            long staleBefore = readFrom;
+            unobserved.values().forEach(queue -> queue.removeIf(r -> r.isRolledBack() || r.reservedAt < staleBefore));
+            unobserved.values().removeIf(Queue::isEmpty);
+            int evicted = tracker.evictExpired(startedAt);
+            log.debug("Лимиты переводов сверены: добавлено {} переводов других узлов, удалено {} пустых окон, всего {}",
+                    added[0], evicted, tracker.size());
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private boolean claimReservation(ReservationKey key) {
+        Queue<Reservation> queue = unobserved.get(key);
+        if (queue == null) {
+            return false;
+        }
+        for (Reservation reservation = queue.poll(); reservation != null; reservation = queue.poll()) {
+            if (reservation.observe()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static String describe(Duration window) {
+        return window.toHours() >= 1 ? window.toHours() + " ч" : window.toMinutes() + " мин";
+    }
+
+    private record ReservationKey(long cardId, long cents) {
+    }
+
+    /**
+     * Резервирование либо сопоставляется строке из базы, либо откатывается, но не то и другое сразу:
+     * если строка уже засчитана через резервирование, откат не снимает её из окон.
+     */
+    private static final class Reservation {
+        private static final int PENDING = 0;
+        private static final int OBSERVED = 1;
+        private static final int ROLLED_BACK = 2;
+
+        private final long reservedAt;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private Reservation(long reservedAt) {
+            this.reservedAt = reservedAt;
+        }
+
+        private boolean observe() {
+            return state.compareAndSet(PENDING, OBSERVED);
+        }
+
+        private boolean rollBack() {
+            return state.compareAndSet(PENDING, ROLLED_BACK);
+        }
+
+        private boolean isRolledBack() {
+            return state.get() == ROLLED_BACK;
+        }
+    }
+}
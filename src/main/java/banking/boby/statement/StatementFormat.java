@@ -0,0 +1,25 @@
+package banking.boby.statement;
+
+import banking.boby.exception.DataValidationException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+@Getter
+@RequiredArgsConstructor
+public enum StatementFormat {
+    CSV(new MediaType("text", "csv"), "csv"),
+    NDJSON(new MediaType("application", "x-ndjson"), "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    public static StatementFormat from(String value) {
+        for (StatementFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new DataValidationException("Неподдерживаемый формат выписки: %s", value);
+    }
+}
@@ -0,0 +1,61 @@
+package banking.boby.statement;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Построчная запись выписки в поток ответа. Память ограничена буфером писателя,
+ * поэтому размер выписки на неё не влияет.
+ */
+public class StatementWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,operation_date_time,operation_type,amount\n";
+
+    private final Writer writer;
+    private final StatementFormat format;
+    private long rows;
+
+    public StatementWriter(OutputStream out, StatementFormat format) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.format = format;
+    }
+
+    public void writeHeader() throws IOException {
+        if (format == StatementFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+    }
+
+    public void writeRow(long id, LocalDateTime operationDateTime, String operationType, BigDecimal amount)
+            throws IOException {
+        String dateTime = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(operationDateTime);
+        if (format == StatementFormat.CSV) {
+            writer.append(Long.toString(id)).append(',')
+                    .append(dateTime).append(',')
+                    .append(operationType).append(',')
+                    .append(amount.toPlainString()).append('\n');
+        } else {
+            writer.append("{\"id\":").append(Long.toString(id))
+                    .append(",\"operationDateTime\":\"").append(dateTime)
+                    .append("\",\"operationType\":\"").append(operationType)
+                    .append("\",\"amount\":").append(amount.toPlainString()).append("}\n");
+        }
+        rows++;
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    public long getRows() {
+        return rows;
+    }
+}
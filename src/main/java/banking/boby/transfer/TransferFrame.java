@@ -0,0 +1,6 @@
+package banking.boby.transfer;
+
+import banking.boby.money.Money;
+
+public record TransferFrame(int correlationId, long fromCardId, long toCardId, Money amount) {
+}
@@ -0,0 +1,94 @@
+package banking.boby.transfer;
+
+import banking.boby.money.Money;
+import org.springframework.http.MediaType;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Кадры пакетного перевода, big-endian, каждый начинается с длины остатка кадра.
+ * Запрос: int длина (28), int correlationId, long карта списания, long карта зачисления, long сумма в копейках.
+ * Ответ: int длина, int correlationId, byte код результата, short длина сообщения, сообщение в UTF-8.
+ */
+public final class TransferFrameCodec {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-boby-transfer";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    public static final int REQUEST_BODY_LENGTH = 4 + 8 + 8 + 8;
+    private static final int MAX_MESSAGE_BYTES = 1024;
+
+    private TransferFrameCodec() {
+    }
+
+    /**
+     * Возвращает null в конце потока между кадрами. Кадр с неожиданной длиной считается нарушением протокола,
+     * после него границы следующих кадров неизвестны.
+     */
+    public static TransferFrame readRequest(DataInputStream in) throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return null;
+        }
+        int length = (first << 24) | (in.readUnsignedByte() << 16) | (in.readUnsignedByte() << 8) | in.readUnsignedByte();
+        if (length != REQUEST_BODY_LENGTH) {
+            throw new TransferProtocolException("Некорректная длина кадра: " + length);
+        }
+        return new TransferFrame(in.readInt(), in.readLong(), in.readLong(), Money.ofMinor(in.readLong()));
+    }
+
+    public static void writeRequest(DataOutputStream out, TransferFrame frame) throws IOException {
+        out.writeInt(REQUEST_BODY_LENGTH);
+        out.writeInt(frame.correlationId());
+        out.writeLong(frame.fromCardId());
+        out.writeLong(frame.toCardId());
+        out.writeLong(frame.amount().minorUnits());
+    }
+
+    public static void writeResult(DataOutputStream out, int correlationId, TransferResultCode code, String message)
+            throws IOException {
+        byte[] text = message == null ? new byte[0] : truncate(message.getBytes(StandardCharsets.UTF_8));
+        out.writeInt(4 + 1 + 2 + text.length);
+        out.writeInt(correlationId);
+        out.writeByte(code.getCode());
+        out.writeShort(text.length);
+        out.write(text);
+    }
+
+    public static TransferResult readResult(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        int correlationId = in.readInt();
+        TransferResultCode code = TransferResultCode.of(in.readUnsignedByte());
+        byte[] text = new byte[in.readUnsignedShort()];
+        if (length != 4 + 1 + 2 + text.length) {
+            throw new TransferProtocolException("Некорректная длина кадра: " + length);
+        }
+        in.readFully(text);
+        return new TransferResult(correlationId, code, text.length == 0 ? null : new String(text, StandardCharsets.UTF_8));
+    }
+
+    private static byte[] truncate(byte[] text) {
+        if (text.length <= MAX_MESSAGE_BYTES) {
+            return text;
+        }
+        int end = MAX_MESSAGE_BYTES;
+        while ((text[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        byte[] truncated = new byte[end];
+        System.arraycopy(text, 0, truncated, 0, end);
+        return truncated;
+    }
+
+    public record TransferResult(int correlationId, TransferResultCode code, String message) {
+    }
+}
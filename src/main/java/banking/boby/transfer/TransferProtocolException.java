@@ -0,0 +1,10 @@
+package banking.boby.transfer;
+
+import java.io.IOException;
+
+public class TransferProtocolException extends IOException {
+
+    public TransferProtocolException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,28 @@
+package banking.boby.transfer;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum TransferResultCode {
+    OK(0),
+    INVALID(1),
+    ACCESS_DENIED(2),
+    NOT_FOUND(3),
+    CONFLICT(4),
+    ERROR(5),
+    PROTOCOL_ERROR(6),
+    RATE_LIMITED(7);
+
+    private final int code;
+
+    public static TransferResultCode of(int code) {
+        for (TransferResultCode value : values()) {
+            if (value.code == code) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный код результата: " + code);
+    }
+}
@@ -0,0 +1,97 @@
+package banking.boby.velocity;
+
+/**
+ * Скользящее окно из кольца временных корзин с накопленными итогами. Устаревшие корзины вычитаются
+ * из итогов при сдвиге окна, поэтому чтение итогов не зависит от числа операций.
+ * Не потокобезопасно, доступ защищается блокировкой полосы в {@link VelocityTracker}.
+ */
+public final class SlidingWindow {
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final long[] epochs;
+    private final long[] counts;
+    private final long[] cents;
+    private long totalCount;
+    private long totalCents;
+    private long head = Long.MIN_VALUE;
+
+    public SlidingWindow(long windowMillis, int buckets) {
+        if (buckets < 1 || windowMillis < buckets) {
+            throw new IllegalArgumentException("Некорректное окно: " + windowMillis + " мс на " + buckets + " корзин");
+        }
+        this.bucketMillis = windowMillis / buckets;
+        this.buckets = buckets;
+        this.epochs = new long[buckets];
+        this.counts = new long[buckets];
+        this.cents = new long[buckets];
+    }
+
+    public void add(long timestampMillis, long count, long amountCents) {
+        long epoch = timestampMillis / bucketMillis;
+        advance(epoch);
+        if (epoch <= head - buckets) {
+            return;
+        }
+        int index = (int) Math.floorMod(epoch, (long) buckets);
+        counts[index] += count;
+        cents[index] += amountCents;
+        totalCount += count;
+        totalCents += amountCents;
+    }
+
+    /**
+     * Убирает ранее добавленное значение, если его корзина ещё не вышла из окна.
+     */
+    public void remove(long timestampMillis, long count, long amountCents) {
+        long epoch = timestampMillis / bucketMillis;
+        advance(epoch);
+        int index = (int) Math.floorMod(epoch, (long) buckets);
+        if (epoch <= head - buckets || epochs[index] != epoch) {
+            return;
+        }
+        counts[index] -= count;
+        cents[index] -= amountCents;
+        totalCount -= count;
+        totalCents -= amountCents;
+    }
+
+    public long count(long nowMillis) {
+        advance(nowMillis / bucketMillis);
+        return totalCount;
+    }
+
+    public long amountCents(long nowMillis) {
+        advance(nowMillis / bucketMillis);
+        return totalCents;
+    }
+
+    public boolean isEmpty(long nowMillis) {
+        return count(nowMillis) == 0 && totalCents == 0;
+    }
+
+    private void advance(long epoch) {
+        if (epoch <= head) {
+            return;
+        }
+        if (head == Long.MIN_VALUE || epoch - head >= buckets) {
+            for (int i = 0; i < buckets; i++) {
+                epochs[i] = epoch - Math.floorMod(epoch - i, (long) buckets);
+                counts[i] = 0;
+                cents[i] = 0;
+            }
+            totalCount = 0;
+            totalCents = 0;
+        } else {
+            for (long e = head + 1; e <= epoch; e++) {
+                int index = (int) Math.floorMod(e, (long) buckets);
+                totalCount -= counts[index];
+                totalCents -= cents[index];
+                counts[index] = 0;
+                cents[index] = 0;
+                epochs[index] = e;
+            }
+        }
+        head = epoch;
+    }
+}
@@ -0,0 +1,6 @@
+package banking.boby.velocity;
+
+import java.time.Duration;
+
+public record VelocityLimit(VelocityScope scope, Duration window, int buckets, long maxCount, long maxAmountCents) {
+}
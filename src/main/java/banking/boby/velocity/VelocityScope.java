@@ -0,0 +1,6 @@
+package banking.boby.velocity;
+
+public enum VelocityScope {
+    CARD,
+    USER
+}
@@ -0,0 +1,129 @@
+package banking.boby.velocity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Окна всех лимитов по картам и пользователям. Окна одного ключа защищаются блокировкой полосы,
+ * проверка и резервирование по карте и пользователю выполняются под обеими полосами сразу.
+ */
+public class VelocityTracker {
+
+    private final List<VelocityLimit> limits;
+    private final List<Map<Long, SlidingWindow>> windows;
+    private final ReentrantLock[] stripes;
+
+    public VelocityTracker(List<VelocityLimit> limits, int stripes) {
+        this.limits = List.copyOf(limits);
+        this.windows = limits.stream().<Map<Long, SlidingWindow>>map(limit -> new ConcurrentHashMap<>()).toList();
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, stripes))];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Резервирует операцию во всех окнах или возвращает первый нарушенный лимит, ничего не меняя.
+     */
+    public VelocityLimit tryAcquire(Long userId, Long cardId, long amountCents, long nowMillis) {
+        return locked(userId, cardId, () -> {
+            for (int i = 0; i < limits.size(); i++) {
+                VelocityLimit limit = limits.get(i);
+                SlidingWindow window = windows.get(i).get(key(limit, userId, cardId));
+                long count = window == null ? 0 : window.count(nowMillis);
+                long cents = window == null ? 0 : window.amountCents(nowMillis);
+                if (count + 1 > limit.maxCount() || cents + amountCents > limit.maxAmountCents()) {
+                    return limit;
+                }
+            }
+            addUnlocked(userId, cardId, amountCents, nowMillis);
+            return null;
+        });
+    }
+
+    public void add(Long userId, Long cardId, long amountCents, long timestampMillis) {
+        locked(userId, cardId, () -> {
+            addUnlocked(userId, cardId, amountCents, timestampMillis);
+            return null;
+        });
+    }
+
+    public void release(Long userId, Long cardId, long amountCents, long timestampMillis) {
+        locked(userId, cardId, () -> {
+            for (int i = 0; i < limits.size(); i++) {
+                SlidingWindow window = windows.get(i).get(key(limits.get(i), userId, cardId));
+                if (window != null) {
+                    window.remove(timestampMillis, 1, amountCents);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Удаляет окна, в которых не осталось операций. Окно удаляется под блокировкой своей полосы,
+     * поэтому параллельное резервирование по тому же ключу не теряется.
+     */
+    public int evictExpired(long nowMillis) {
+        int evicted = 0;
+        for (int i = 0; i < limits.size(); i++) {
+            VelocityScope scope = limits.get(i).scope();
+            Map<Long, SlidingWindow> byKey = windows.get(i);
+            for (Long key : byKey.keySet()) {
+                ReentrantLock lock = stripes[stripe(scope, key)];
+                lock.lock();
+                try {
+                    SlidingWindow window = byKey.get(key);
+                    if (window != null && window.isEmpty(nowMillis)) {
+                        byKey.remove(key);
+                        evicted++;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        return windows.stream().mapToInt(Map::size).sum();
+    }
+
+    private void addUnlocked(Long userId, Long cardId, long amountCents, long timestampMillis) {
+        for (int i = 0; i < limits.size(); i++) {
+            VelocityLimit limit = limits.get(i);
+            windows.get(i)
+                    .computeIfAbsent(key(limit, userId, cardId),
+                            k -> new SlidingWindow(limit.window().toMillis(), limit.buckets()))
+                    .add(timestampMillis, 1, amountCents);
+        }
+    }
+
+    private VelocityLimit locked(Long userId, Long cardId, Supplier<VelocityLimit> action) {
+        int first = stripe(VelocityScope.USER, userId);
+        int second = stripe(VelocityScope.CARD, cardId);
+        ReentrantLock lower = stripes[Math.min(first, second)];
+        ReentrantLock upper = stripes[Math.max(first, second)];
+        lower.lock();
+        upper.lock();
+        try {
+            return action.get();
+        } finally {
+            upper.unlock();
+            lower.unlock();
+        }
+    }
+
+    private int stripe(VelocityScope scope, Long key) {
+        int hash = (31 * scope.ordinal() + Long.hashCode(key)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    private static Long key(VelocityLimit limit, Long userId, Long cardId) {
+        return limit.scope() == VelocityScope.USER ? userId : cardId;
+    }
+}
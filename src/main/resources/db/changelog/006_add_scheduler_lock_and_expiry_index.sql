@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS scheduler_lock (
+    name VARCHAR(64) PRIMARY KEY,
+    locked_until TIMESTAMP NOT NULL,
+    locked_at TIMESTAMP NOT NULL,
+    locked_by VARCHAR(255) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_cards_expiry_date_live
+    ON cards (expiry_date)
+    WHERE status IN ('ACTIVE', 'BLOCKED');
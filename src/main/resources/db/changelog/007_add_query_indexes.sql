@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS idx_cards_user_id
+    ON cards (user_id, id) INCLUDE (version);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_card_id_date
+    ON transactions (card_id, operation_date_time);
@@ -0,0 +1,64 @@
+--liquibase formatted sql
+
+--changeset boby:008-partition-transactions splitStatements:false
+CREATE OR REPLACE FUNCTION create_transactions_partition(month_start DATE) RETURNS TEXT AS $$
+DECLARE
+    partition_start DATE := date_trunc('month', month_start)::DATE;
+    partition_name TEXT := 'transactions_' || to_char(partition_start, 'YYYY_MM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, partition_start, (partition_start + INTERVAL '1 month')::DATE);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE transactions RENAME TO transactions_legacy;
+ALTER TABLE transactions_legacy ALTER COLUMN id DROP IDENTITY;
+ALTER INDEX idx_transactions_card_id_date RENAME TO idx_transactions_legacy_card_id_date;
+
+CREATE SEQUENCE transactions_id_seq;
+
+CREATE TABLE transactions (
+    id BIGINT NOT NULL DEFAULT nextval('transactions_id_seq'),
+    card_id BIGINT NOT NULL,
+    operation_date_time TIMESTAMP NOT NULL,
+    operation_type VARCHAR(50) NOT NULL,
+    amount NUMERIC(19, 2) NOT NULL,
+    CONSTRAINT pk_transactions PRIMARY KEY (id, operation_date_time),
+    CONSTRAINT fk_transactions_card FOREIGN KEY (card_id) REFERENCES cards(id)
+) PARTITION BY RANGE (operation_date_time);
+
+ALTER SEQUENCE transactions_id_seq OWNED BY transactions.id;
+
+CREATE INDEX idx_transactions_card_id_date ON transactions (card_id, operation_date_time);
+
+DO $$
+DECLARE
+    partition_month DATE := date_trunc('month', COALESCE((SELECT min(operation_date_time) FROM transactions_legacy), now()))::DATE;
+BEGIN
+    WHILE partition_month <= date_trunc('month', now() + INTERVAL '3 months') LOOP
+        PERFORM create_transactions_partition(partition_month);
+        partition_month := (partition_month + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO transactions (id, card_id, operation_date_time, operation_type, amount)
+SELECT id, card_id, operation_date_time, operation_type, round(amount, 2)
+FROM transactions_legacy;
+
+SELECT setval('transactions_id_seq', COALESCE((SELECT max(id) FROM transactions), 0) + 1, false);
+
+DROP TABLE transactions_legacy;
+
+CREATE TABLE IF NOT EXISTS transactions_archive (
+    id BIGINT NOT NULL,
+    card_id BIGINT NOT NULL,
+    operation_date_time TIMESTAMP NOT NULL,
+    operation_type VARCHAR(50) NOT NULL,
+    amount NUMERIC(19, 2) NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_archive_card_id_date
+    ON transactions_archive (card_id, operation_date_time);
@@ -0,0 +1,18 @@
+CREATE TABLE IF NOT EXISTS card_daily_rollup (
+    card_id BIGINT NOT NULL,
+    day DATE NOT NULL,
+    inflow NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    outflow NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    operation_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_card_daily_rollup PRIMARY KEY (card_id, day),
+    CONSTRAINT fk_card_daily_rollup_card FOREIGN KEY (card_id) REFERENCES cards(id)
+);
+
+INSERT INTO card_daily_rollup (card_id, day, inflow, outflow, operation_count)
+SELECT card_id,
+       CAST(operation_date_time AS DATE),
+       COALESCE(SUM(amount) FILTER (WHERE amount > 0), 0),
+       COALESCE(-SUM(amount) FILTER (WHERE amount < 0), 0),
+       COUNT(*)
+FROM transactions
+GROUP BY card_id, CAST(operation_date_time AS DATE);
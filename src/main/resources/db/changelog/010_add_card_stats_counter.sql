@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS card_stats_counter (
+    name VARCHAR(64) PRIMARY KEY,
+    value BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO card_stats_counter (name, value)
+SELECT 'status.' || s.status, COUNT(c.id)
+FROM (VALUES ('ACTIVE'), ('BLOCKED'), ('EXPIRED')) AS s(status)
+LEFT JOIN cards c ON c.status = s.status
+GROUP BY s.status
+ON CONFLICT (name) DO NOTHING;
+
+INSERT INTO card_stats_counter (name, value)
+SELECT 'balance.total-cents', COALESCE(ROUND(SUM(balance) * 100), 0) FROM cards
+ON CONFLICT (name) DO NOTHING;
+
+INSERT INTO card_stats_counter (name, value)
+SELECT 'issued.total', COUNT(*) FROM cards
+ON CONFLICT (name) DO NOTHING;
@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS posting_outbox (
+    id BIGINT PRIMARY KEY GENERATED ALWAYS AS IDENTITY,
+    transaction_id BIGINT NOT NULL,
+    card_id BIGINT NOT NULL,
+    amount NUMERIC(19, 2) NOT NULL,
+    operation_type VARCHAR(32) NOT NULL,
+    operation_date_time TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT LOCALTIMESTAMP,
+    attempts INT NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL DEFAULT LOCALTIMESTAMP
+);
@@ -0,0 +1,10 @@
+ALTER TABLE cards ADD COLUMN IF NOT EXISTS number_fingerprint BYTEA;
+
+ALTER TABLE pre_generated_card ADD COLUMN IF NOT EXISTS number_fingerprint BYTEA;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_cards_number_fingerprint
+    ON cards (number_fingerprint);
+
+CREATE INDEX IF NOT EXISTS idx_cards_number_fingerprint_missing
+    ON cards (id)
+    WHERE number_fingerprint IS NULL;
@@ -0,0 +1,2 @@
+INSERT INTO card_stats_counter (name, value) VALUES ('reconcile.epoch', 0)
+ON CONFLICT (name) DO NOTHING;
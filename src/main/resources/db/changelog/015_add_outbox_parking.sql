@@ -0,0 +1,5 @@
+ALTER TABLE posting_outbox ADD COLUMN IF NOT EXISTS parked_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_posting_outbox_pending
+    ON posting_outbox (id)
+    WHERE parked_at IS NULL;
@@ -0,0 +1,75 @@
+package banking.boby.service;
+
+import banking.boby.limiter.AdaptiveConcurrencyLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AtomicLong clock = new AtomicLong(0);
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, THRESHOLD, 0.5, clock::get);
+    }
+
+    @Test
+    void negativeRejectAboveLimit() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        assertFalse(limiter.tryAcquire());
+        assertEquals(4, limiter.getInFlight());
+        assertEquals(1, limiter.getRejected());
+    }
+
+    @Test
+    void positiveIncreaseOnFastResponsesUnderLoad() {
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertEquals(5, limiter.getLimit());
+        assertEquals(3, limiter.getInFlight());
+    }
+
+    @Test
+    void positiveNoIncreaseWhenUnderutilized() {
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void positiveBackoffOnSlowResponsesOncePerThreshold() {
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+
+        limiter.release(THRESHOLD * 2);
+        limiter.release(THRESHOLD * 2);
+        assertEquals(2, limiter.getLimit());
+
+        clock.addAndGet(THRESHOLD);
+        limiter.release(THRESHOLD * 2);
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    void negativeInvalidBounds() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(1, 2, 10, THRESHOLD, 0.5, clock::get));
+    }
+}
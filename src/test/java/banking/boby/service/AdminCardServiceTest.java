@@ -1,23 +1,34 @@
 package banking.boby.service;
 
+import banking.boby.audit.AuditJournal;
 import banking.boby.dto.CardAdminDto;
+import banking.boby.dto.CardNumberLookupDto;
 import banking.boby.entity.Card;
 import banking.boby.entity.PreGeneratedCard;
 import banking.boby.entity.User;
 import banking.boby.entity.enums.CardStatus;
+import banking.boby.entity.enums.OperationType;
+import banking.boby.event.CardChangedEvent;
 import banking.boby.exception.DataValidationException;
 import banking.boby.exception.EntityNotFoundException;
 import banking.boby.exception.WrongCardOperationException;
+import banking.boby.money.Money;
+import banking.boby.posting.PostingLeg;
 import banking.boby.repository.CardRepository;
 import banking.boby.repository.UserRepository;
+import banking.boby.repository.projection.CardSummaryView;
 import banking.boby.security.CardEncryptor;
+import banking.boby.security.CardFingerprinter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +42,11 @@ class AdminCardServiceTest {
     private CardRepository cardRepository;
     private UserRepository userRepository;
     private CardEncryptor cardEncryptor;
+    private CardFingerprinter cardFingerprinter;
+    private ApplicationEventPublisher eventPublisher;
+    private CardStatsService cardStatsService;
+    private PostingService postingService;
+    private AuditJournal auditJournal;
     private AdminCardService adminCardService;
 
     @BeforeEach
@@ -39,7 +55,13 @@ class AdminCardServiceTest {
         cardRepository = mock(CardRepository.class);
         userRepository = mock(UserRepository.class);
         cardEncryptor = mock(CardEncryptor.class);
-        adminCardService = new AdminCardService(cardCacheService, cardRepository, userRepository, cardEncryptor);
+        cardFingerprinter = new CardFingerprinter("fingerprint-test-key-0123456789abcdef");
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        cardStatsService = mock(CardStatsService.class);
+        postingService = mock(PostingService.class);
+        auditJournal = mock(AuditJournal.class);
+        adminCardService = new AdminCardService(cardCacheService, cardRepository, userRepository, cardEncryptor,
+                cardFingerprinter, eventPublisher, cardStatsService, postingService, auditJournal);
     }
 
     @Test
@@ -51,8 +73,10 @@ class AdminCardServiceTest {
                 .lastName("Doe")
                 .build();
 
+        byte[] fingerprint = cardFingerprinter.fingerprint("4000001234567899");
         PreGeneratedCard preCard = PreGeneratedCard.builder()
                 .cardNumberEncrypted("enc-num")
+                .numberFingerprint(fingerprint)
                 .build();
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
@@ -60,7 +84,52 @@ class AdminCardServiceTest {
 
         adminCardService.createCard(userId);
 
-        verify(cardRepository).save(any(Card.class));
+        ArgumentCaptor<Card> saved = ArgumentCaptor.forClass(Card.class);
+        verify(cardRepository).save(saved.capture());
+        assertArrayEquals(fingerprint, saved.getValue().getNumberFingerprint());
+        verifyNoInteractions(cardEncryptor);
+    }
+
+    @Test
+    void positiveCreateCardComputesMissingFingerprint() {
+        User user = User.builder().id(1L).firstName("John").lastName("Doe").build();
+        PreGeneratedCard preCard = PreGeneratedCard.builder()
+                .cardNumberEncrypted("enc-num")
+                .build();
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(cardCacheService.takePreGeneratedCardNumber()).thenReturn(preCard);
+        when(cardEncryptor.decrypt("enc-num")).thenReturn("4000001234567899");
+
+        adminCardService.createCard(1L);
+
+        ArgumentCaptor<Card> saved = ArgumentCaptor.forClass(Card.class);
+        verify(cardRepository).save(saved.capture());
+        assertArrayEquals(cardFingerprinter.fingerprint("4000001234567899"), saved.getValue().getNumberFingerprint());
+    }
+
+    @Test
+    void positiveFindCardByNumber() {
+        CardSummaryView card = new CardSummaryView(7L, "enc-num", 3L, LocalDate.now().plusYears(2),
+                CardStatus.ACTIVE, Money.ZERO);
+        byte[] fingerprint = cardFingerprinter.fingerprint("4000001234567899");
+        when(cardRepository.findSummaryByNumberFingerprint(any())).thenAnswer(invocation ->
+                Arrays.equals(fingerprint, invocation.getArgument(0)) ? Optional.of(card) : Optional.empty());
+
+        CardAdminDto result = adminCardService.findCardByNumber(new CardNumberLookupDto("4000001234567899"));
+
+        assertEquals(7L, result.id());
+        assertEquals(3L, result.userId());
+        assertEquals("************7899", result.maskedNum());
+        verifyNoInteractions(cardEncryptor);
+    }
+
+    @Test
+    void negativeFindCardByUnknownNumber() {
+        when(cardRepository.findSummaryByNumberFingerprint(any())).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> adminCardService.findCardByNumber(new CardNumberLookupDto("4000001234567899")));
     }
 
     @Test
@@ -84,6 +153,8 @@ class AdminCardServiceTest {
 
         assertEquals(CardStatus.BLOCKED, card.getStatus());
         verify(cardRepository).save(card);
+        verify(eventPublisher).publishEvent(new CardChangedEvent(1L, null, null, CardStatus.BLOCKED));
+        verify(cardStatsService).onStatusChanged(CardStatus.ACTIVE, CardStatus.BLOCKED, 1);
     }
 
     @Test
@@ -128,36 +199,26 @@ class AdminCardServiceTest {
     }
 
     @Test
-    void positiveDeactivateExpiredCards() {
-        Card card1 = Card.builder().id(1L).expiryDate(LocalDate.now().minusDays(1)).status(CardStatus.ACTIVE).build();
-        Card card2 = Card.builder().id(2L).expiryDate(LocalDate.now().minusDays(1)).status(CardStatus.BLOCKED).build();
-
-        when(cardRepository.findByExpiryDateBeforeAndStatusIn(any(LocalDate.class), anyList()))
-                .thenReturn(List.of(card1, card2));
+    void positiveDepositAndWithdraw() {
+        adminCardService.deposit(1L, Money.ofMajor(10));
+        adminCardService.withdraw(1L, Money.ofMajor(1));
 
-        adminCardService.deactivateExpiredCards();
-
-        assertEquals(CardStatus.EXPIRED, card1.getStatus());
-        assertEquals(CardStatus.EXPIRED, card2.getStatus());
-        verify(cardRepository).saveAll(List.of(card1, card2));
+        verify(postingService).post(OperationType.DEPOSIT, List.of(PostingLeg.credit(1L, Money.ofMajor(10))));
+        verify(postingService).post(OperationType.WITHDRAW, List.of(PostingLeg.debit(1L, Money.ofMajor(1))));
     }
 
     @Test
     void positiveGetAllCards() {
-        Card card = Card.builder()
-                .id(1L)
-                .expiryDate(LocalDate.now())
-                .encryptedNumber("enc")
-                .status(CardStatus.ACTIVE)
-                .holder(User.builder().id(10L).build())
-                .build();
+        CardSummaryView card = new CardSummaryView(1L, "enc", 10L, LocalDate.now(), CardStatus.ACTIVE, Money.ZERO);
 
-        when(cardRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(card)));
+        when(cardRepository.findSummariesBy(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(card)));
+        when(cardStatsService.getTotalCards()).thenReturn(1L);
         when(cardEncryptor.decrypt("enc")).thenReturn("1234567890123456");
 
         Page<CardAdminDto> result = adminCardService.getAllCards(Pageable.unpaged());
 
         assertEquals(1, result.getTotalElements());
         assertTrue(result.getContent().get(0).maskedNum().endsWith("3456"));
+        assertEquals(10L, result.getContent().get(0).userId());
     }
 }
@@ -0,0 +1,156 @@
+package banking.boby.service;
+
+import banking.boby.audit.AuditAction;
+import banking.boby.audit.AuditJournal;
+import banking.boby.audit.AuditRecord;
+import banking.boby.money.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditJournalTest {
+
+    private static final Instant FROM = Instant.EPOCH;
+    private static final Instant TO = Instant.now().plusSeconds(60);
+
+    @TempDir
+    Path directory;
+
+    private AuditJournal auditJournal;
+
+    @BeforeEach
+    void setUp() {
+        auditJournal = new AuditJournal(directory, 4);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        auditJournal.close();
+    }
+
+    @Test
+    void positiveRecordAndScanByCard() {
+        auditJournal.record(AuditAction.TRANSFER, 100L, 1L, 2L, Money.parse("40.50"));
+        auditJournal.record(AuditAction.CARD_BLOCK, 1L, 3L, null, null);
+        auditJournal.record(AuditAction.LOGIN, 100L, null, null, null);
+
+        List<AuditRecord> all = auditJournal.scan(FROM, TO, null, 100);
+        List<AuditRecord> secondCard = auditJournal.scan(FROM, TO, 2L, 100);
+
+        assertEquals(3, all.size());
+        assertEquals(1, secondCard.size());
+        AuditRecord transfer = secondCard.get(0);
+        assertEquals(AuditAction.TRANSFER, transfer.action());
+        assertEquals(100L, transfer.actorId());
+        assertEquals(new BigDecimal("40.50"), transfer.amount());
+        assertNull(all.stream().filter(r -> r.action() == AuditAction.LOGIN).findFirst().orElseThrow().cardId());
+    }
+
+    @Test
+    void positiveRollsSegmentsUnderConcurrentWriters() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                long cardId = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 25; i++) {
+                        auditJournal.record(AuditAction.DEPOSIT, null, cardId, null, Money.ofMajor(1));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(100, auditJournal.scan(FROM, TO, null, 1000).size());
+        assertEquals(25, auditJournal.scan(FROM, TO, 3L, 1000).size());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.count() >= 25);
+        }
+    }
+
+    @Test
+    void positiveScanRespectsPeriodAndLimit() {
+        for (int i = 0; i < 10; i++) {
+            auditJournal.record(AuditAction.WITHDRAW, null, 1L, null, Money.ofMajor(10));
+        }
+
+        assertEquals(3, auditJournal.scan(FROM, TO, 1L, 3).size());
+        assertTrue(auditJournal.scan(FROM, FROM.plusSeconds(1), 1L, 100).isEmpty());
+    }
+
+    @Test
+    void positiveContinuesNumberingAfterRestart() throws IOException {
+        auditJournal.record(AuditAction.CARD_CREATE, 1L, 5L, null, null);
+        auditJournal.close();
+
+        auditJournal = new AuditJournal(directory, 4);
+        auditJournal.record(AuditAction.CARD_DELETE, 1L, 5L, null, Money.ZERO);
+
+        List<AuditRecord> records = auditJournal.scan(FROM, TO, 5L, 100);
+        assertEquals(List.of(AuditAction.CARD_CREATE, AuditAction.CARD_DELETE),
+                records.stream().map(AuditRecord::action).toList());
+    }
+
+    @Test
+    void positiveRestartAppendsToLastSegment() throws IOException {
+        auditJournal.record(AuditAction.CARD_CREATE, 1L, 5L, null, null);
+        auditJournal.close();
+
+        auditJournal = new AuditJournal(directory, 4);
+        auditJournal.record(AuditAction.CARD_BLOCK, 1L, 5L, null, null);
+
+        assertEquals(1, segmentFiles());
+        assertEquals(2, auditJournal.scan(FROM, TO, 5L, 100).size());
+    }
+
+    @Test
+    void positiveRestartWithFullSegmentRollsOver() throws IOException {
+        for (int i = 0; i < 4; i++) {
+            auditJournal.record(AuditAction.DEPOSIT, null, 1L, null, Money.ofMajor(1));
+        }
+        auditJournal.close();
+
+        auditJournal = new AuditJournal(directory, 4);
+        auditJournal.record(AuditAction.DEPOSIT, null, 1L, null, Money.ofMajor(1));
+
+        assertEquals(2, segmentFiles());
+        assertEquals(5, auditJournal.scan(FROM, TO, 1L, 100).size());
+    }
+
+    @Test
+    void positiveNoSegmentCreatedWithoutRecords() throws IOException {
+        auditJournal.flush();
+        auditJournal.close();
+
+        auditJournal = new AuditJournal(directory.resolve("unused"), 4);
+
+        assertEquals(0, segmentFiles());
+        assertFalse(Files.exists(directory.resolve("unused")));
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".seg")).count();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package banking.boby.service;
 
+import banking.boby.audit.AuditAction;
+import banking.boby.audit.AuditJournal;
 import banking.boby.dto.UserLoginDto;
 import banking.boby.dto.UserRegisterDto;
 import banking.boby.entity.User;
@@ -40,6 +42,9 @@ public class AuthServiceTest {
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
+    @Mock
+    private AuditJournal auditJournal;
+
     @InjectMocks
     private AuthService authService;
 
@@ -95,7 +100,7 @@ public class AuthServiceTest {
 
         verify(userRepository).findByUsername("benask");
         verify(passwordEncoder).matches(loginDto.password(), user.getPassword());
-
+        verify(auditJournal).record(AuditAction.LOGIN, null, null, null, null);
     }
 
     @Test
@@ -132,6 +137,7 @@ public class AuthServiceTest {
         verify(userRepository).findByUsername("benask");
         verify(passwordEncoder).matches("wrongPassword", "password");
         verify(jwtTokenProvider, never()).generateToken(anyLong(), anyString());
+        verify(auditJournal).record(AuditAction.LOGIN_FAILED, null, null, null, null);
     }
 
     private UserRegisterDto getRegisterDto() {
@@ -0,0 +1,164 @@
+package banking.boby.service;
+
+import banking.boby.dto.TransferRequestDto;
+import banking.boby.exception.AccessDeniedException;
+import banking.boby.exception.UnsafeOperationException;
+import banking.boby.money.Money;
+import banking.boby.security.RateLimitFilter;
+import banking.boby.transfer.TransferFrame;
+import banking.boby.transfer.TransferFrameCodec;
+import banking.boby.transfer.TransferFrameCodec.TransferResult;
+import banking.boby.transfer.TransferResultCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BinaryTransferServiceTest {
+
+    @Mock
+    UserCardService userCardService;
+
+    @Mock
+    RateLimitFilter rateLimitFilter;
+
+    BinaryTransferService binaryTransferService;
+
+    @BeforeEach
+    void setUp() {
+        binaryTransferService = new BinaryTransferService(userCardService, rateLimitFilter, 3, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void positivePipelinedFramesAnsweredInOrder() throws IOException {
+        doAnswer(invocation -> {
+            TransferRequestDto request = invocation.getArgument(0);
+            if (request.fromCardId() == 3L) {
+                throw new AccessDeniedException("Карта %d не принадлежит пользователю %d", 3L, 100L);
+            }
+            if (request.amount().equals(Money.ofMajor(500))) {
+                throw new UnsafeOperationException("Недостаточно средств для перевода");
+            }
+            return null;
+        }).when(userCardService).transferFundsOnce(any());
+
+        byte[] request = frames(
+                new TransferFrame(11, 1L, 2L, Money.parse("40.50")),
+                new TransferFrame(12, 1L, 2L, Money.ofMajor(500)),
+                new TransferFrame(13, 3L, 2L, Money.ofMajor(1)));
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+
+        int processed = binaryTransferService.process(new ByteArrayInputStream(request), response);
+
+        List<TransferResult> results = results(response.toByteArray());
+        assertEquals(3, processed);
+        assertEquals(new TransferResult(11, TransferResultCode.OK, null), results.get(0));
+        assertEquals(new TransferResult(12, TransferResultCode.INVALID, "Недостаточно средств для перевода"), results.get(1));
+        assertEquals(TransferResultCode.ACCESS_DENIED, results.get(2).code());
+        verify(userCardService).transferFundsOnce(new TransferRequestDto(1L, 2L, Money.parse("40.50")));
+    }
+
+    @Test
+    void negativeRateLimitedFrameSkipsService() throws IOException {
+        when(rateLimitFilter.tryAcquire(eq("POST"), eq("/cards/transfer/batch/frames"), any()))
+                .thenReturn(0L, 1_500_000_000L);
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+
+        binaryTransferService.process(new ByteArrayInputStream(frames(
+                new TransferFrame(1, 1L, 2L, Money.ofMajor(1)),
+                new TransferFrame(2, 1L, 2L, Money.ofMajor(1)))), response);
+
+        List<TransferResult> results = results(response.toByteArray());
+        assertEquals(TransferResultCode.OK, results.get(0).code());
+        assertEquals(new TransferResult(2, TransferResultCode.RATE_LIMITED,
+                "Слишком много переводов, повторите через 2 с"), results.get(1));
+        verify(userCardService, times(1)).transferFundsOnce(any());
+    }
+
+    @Test
+    void negativeConcurrentUpdateReportedAsConflictWithoutRetry() throws IOException {
+        doThrow(new ObjectOptimisticLockingFailureException("Card", 1L))
+                .when(userCardService).transferFundsOnce(any());
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+
+        binaryTransferService.process(new ByteArrayInputStream(frames(new TransferFrame(7, 1L, 2L, Money.ofMajor(1)))),
+                response);
+
+        assertEquals(TransferResultCode.CONFLICT, results(response.toByteArray()).get(0).code());
+        verify(userCardService, times(1)).transferFundsOnce(any());
+        verify(userCardService, never()).transferFunds(any());
+    }
+
+    @Test
+    void negativeNonPositiveAmountSkipsService() throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+
+        binaryTransferService.process(new ByteArrayInputStream(frames(new TransferFrame(1, 1L, 2L, Money.ZERO))), response);
+
+        assertEquals(TransferResultCode.INVALID, results(response.toByteArray()).get(0).code());
+        verifyNoInteractions(userCardService);
+    }
+
+    @Test
+    void negativeTruncatedFrameStopsBatch() throws IOException {
+        byte[] request = frames(new TransferFrame(1, 1L, 2L, Money.ofMajor(1)), new TransferFrame(2, 1L, 2L, Money.ofMajor(1)));
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+
+        int processed = binaryTransferService.process(
+                new ByteArrayInputStream(Arrays.copyOf(request, request.length - 5)), response);
+
+        List<TransferResult> results = results(response.toByteArray());
+        assertEquals(1, processed);
+        assertEquals(2, results.size());
+        assertEquals(new TransferResult(0, TransferResultCode.PROTOCOL_ERROR, "Кадр обрезан"), results.get(1));
+    }
+
+    @Test
+    void negativeTooManyFrames() throws IOException {
+        TransferFrame frame = new TransferFrame(1, 1L, 2L, Money.ofMajor(1));
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+
+        int processed = binaryTransferService.process(
+                new ByteArrayInputStream(frames(frame, frame, frame, frame)), response);
+
+        List<TransferResult> results = results(response.toByteArray());
+        assertEquals(3, processed);
+        assertEquals(TransferResultCode.PROTOCOL_ERROR, results.get(3).code());
+        verify(userCardService, times(3)).transferFundsOnce(any());
+    }
+
+    private byte[] frames(TransferFrame... frames) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (TransferFrame frame : frames) {
+            TransferFrameCodec.writeRequest(out, frame);
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<TransferResult> results(byte[] response) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(response));
+        List<TransferResult> results = new ArrayList<>();
+        TransferResult result;
+        while ((result = TransferFrameCodec.readResult(in)) != null) {
+            results.add(result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,76 @@
+package banking.boby.service;
+
+import banking.boby.dto.CacheRegionStatsDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheStatisticsServiceTest {
+
+    @Mock
+    EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    SessionFactory sessionFactory;
+
+    @Mock
+    Statistics statistics;
+
+    @InjectMocks
+    CacheStatisticsService cacheStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+    }
+
+    @Test
+    void positiveRegionStatsSortedByName() {
+        CacheRegionStatistics users = regionStatistics(90, 10, 10, 10);
+        CacheRegionStatistics byUsername = regionStatistics(5, 1, 1, -1);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[]{"users-by-username", "users", "gone"});
+        when(statistics.getCacheRegionStatistics("users")).thenReturn(users);
+        when(statistics.getCacheRegionStatistics("users-by-username")).thenReturn(byUsername);
+
+        List<CacheRegionStatsDto> result = cacheStatisticsService.getRegionStats();
+
+        assertEquals(2, result.size());
+        assertEquals(new CacheRegionStatsDto("users", 90, 10, 10, 10), result.get(0));
+        assertEquals("users-by-username", result.get(1).region());
+        assertEquals(-1, result.get(1).elementCount());
+    }
+
+    @Test
+    void positiveEvictAll() {
+        Cache cache = mock(Cache.class);
+        when(sessionFactory.getCache()).thenReturn(cache);
+
+        cacheStatisticsService.evictAll();
+
+        verify(cache).evictAllRegions();
+    }
+
+    private CacheRegionStatistics regionStatistics(long hits, long misses, long puts, long elements) {
+        CacheRegionStatistics statistics = mock(CacheRegionStatistics.class);
+        when(statistics.getHitCount()).thenReturn(hits);
+        when(statistics.getMissCount()).thenReturn(misses);
+        when(statistics.getPutCount()).thenReturn(puts);
+        when(statistics.getElementCountInMemory()).thenReturn(elements);
+        return statistics;
+    }
+}
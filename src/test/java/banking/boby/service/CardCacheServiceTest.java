@@ -2,8 +2,10 @@ package banking.boby.service;
 
 import banking.boby.entity.PreGeneratedCard;
 import banking.boby.repository.PreGeneratedCardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
 
 
 import java.util.List;
@@ -25,7 +27,8 @@ class CardCacheServiceTest {
     void setUp() {
         repository = mock(PreGeneratedCardRepository.class);
         generatorService = mock(CardGeneratorService.class);
-        cardCacheService = new CardCacheService(cacheSize, generationCount, repository, generatorService);
+        cardCacheService = new CardCacheService(cacheSize, generationCount, repository, generatorService,
+                new SyncTaskExecutor(), new SimpleMeterRegistry());
     }
 
 
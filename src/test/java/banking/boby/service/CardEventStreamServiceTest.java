@@ -0,0 +1,102 @@
+package banking.boby.service;
+
+import banking.boby.entity.enums.CardStatus;
+import banking.boby.event.CardChangedEvent;
+import banking.boby.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardEventStreamServiceTest {
+
+    private final List<Runnable> pendingTasks = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private CardEventStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        streamService = new CardEventStreamService(pendingTasks::add, 2, Duration.ofMinutes(1),
+                Duration.ofSeconds(10), meterRegistry);
+    }
+
+    @Test
+    void positiveSubscribeRegistersConnection() {
+        streamService.subscribe(1L);
+        streamService.subscribe(1L);
+        streamService.subscribe(2L);
+
+        assertEquals(3, streamService.getConnectionCount());
+        assertEquals(3, meterRegistry.get("card.stream.connections").gauge().value());
+    }
+
+    @Test
+    void positiveDrainIsScheduledOncePerSubscription() {
+        streamService.subscribe(1L);
+        streamService.onCardChanged(new CardChangedEvent(10L, 1L, Money.ofMajor(10), CardStatus.ACTIVE));
+
+        assertEquals(1, pendingTasks.size());
+    }
+
+    @Test
+    void positiveEventForOtherUserIsIgnored() {
+        streamService.subscribe(1L);
+        for (int i = 0; i < 5; i++) {
+            streamService.onCardChanged(new CardChangedEvent(10L, 2L, Money.ofMajor(10), CardStatus.ACTIVE));
+        }
+
+        assertEquals(1, streamService.getConnectionCount());
+    }
+
+    @Test
+    void negativeSlowConsumerIsDisconnected() {
+        streamService.subscribe(1L);
+        streamService.onCardChanged(new CardChangedEvent(10L, 1L, Money.ofMajor(10), CardStatus.ACTIVE));
+        streamService.onCardChanged(new CardChangedEvent(10L, 1L, Money.ofMajor(1), CardStatus.ACTIVE));
+
+        assertEquals(0, streamService.getConnectionCount());
+        assertEquals(1, meterRegistry.get("card.stream.slow-consumer.disconnects").counter().count());
+    }
+
+    @Test
+    void negativeOverflowDuringDrainLeavesCompletionToDrain() {
+        streamService.subscribe(1L);
+        streamService.onCardChanged(new CardChangedEvent(10L, 1L, Money.ofMajor(10), CardStatus.ACTIVE));
+        streamService.onCardChanged(new CardChangedEvent(10L, 1L, Money.ofMajor(1), CardStatus.ACTIVE));
+
+        assertEquals(1, pendingTasks.size());
+        pendingTasks.get(0).run();
+
+        assertEquals(0, streamService.getConnectionCount());
+        assertEquals(1, pendingTasks.size());
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    void positiveIdleConnectionIsNotClosedByWriteTimeout() {
+        streamService.subscribe(1L);
+
+        streamService.closeStalled(System.nanoTime() + Duration.ofHours(1).toNanos());
+
+        assertEquals(1, streamService.getConnectionCount());
+        assertEquals(0, meterRegistry.get("card.stream.write-timeout.disconnects").counter().count());
+    }
+
+    @Test
+    void negativeConnectionIsClosedWhenNoDispatchThreadIsFree() {
+        CardEventStreamService saturated = new CardEventStreamService(task -> {
+            throw new TaskRejectedException("пул занят");
+        }, 2, Duration.ofMinutes(1), Duration.ofSeconds(10), meterRegistry);
+
+        saturated.subscribe(1L);
+
+        assertEquals(0, saturated.getConnectionCount());
+    }
+}
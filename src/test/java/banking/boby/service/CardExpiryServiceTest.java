@@ -0,0 +1,86 @@
+package banking.boby.service;
+
+import banking.boby.entity.enums.CardStatus;
+import banking.boby.event.CardChangedEvent;
+import banking.boby.money.Money;
+import banking.boby.repository.CardRepository;
+import banking.boby.repository.projection.ExpiredCardView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CardExpiryServiceTest {
+
+    private CardRepository cardRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private CardStatsService cardStatsService;
+    private SimpleMeterRegistry meterRegistry;
+    private CardExpiryService cardExpiryService;
+
+    @BeforeEach
+    void setUp() {
+        cardRepository = mock(CardRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        cardStatsService = mock(CardStatsService.class);
+        cardExpiryService = new CardExpiryService(cardRepository, transactionTemplate, eventPublisher,
+                cardStatsService, 2, meterRegistry);
+    }
+
+    @Test
+    void positiveDeactivateExpiredCardsInChunks() {
+        List<ExpiredCardView> firstChunk = List.of(expiredCard(1L), expiredCard(2L));
+        List<ExpiredCardView> secondChunk = List.of(expiredCard(3L));
+        when(cardRepository.lockExpiredChunk(any(LocalDate.class), eq(2)))
+                .thenReturn(firstChunk)
+                .thenReturn(secondChunk);
+
+        int deactivated = cardExpiryService.deactivateExpiredCards();
+
+        assertEquals(3, deactivated);
+        verify(cardRepository).updateStatusByIdIn(List.of(1L, 2L), CardStatus.EXPIRED);
+        verify(cardRepository).updateStatusByIdIn(List.of(3L), CardStatus.EXPIRED);
+        verify(cardRepository, times(2)).lockExpiredChunk(any(LocalDate.class), eq(2));
+        verify(eventPublisher).publishEvent(new CardChangedEvent(3L, 10L, Money.ofMajor(10), CardStatus.EXPIRED));
+        assertEquals(3, meterRegistry.get("card.expiry.deactivated").counter().count());
+        assertEquals(2, meterRegistry.get("card.expiry.chunks").counter().count());
+        verify(cardStatsService).onStatusChanged(CardStatus.ACTIVE, CardStatus.EXPIRED, 2);
+        verify(cardStatsService).onStatusChanged(CardStatus.ACTIVE, CardStatus.EXPIRED, 1);
+    }
+
+    @Test
+    void positiveNoExpiredCards() {
+        when(cardRepository.lockExpiredChunk(any(LocalDate.class), anyInt())).thenReturn(List.of());
+
+        int deactivated = cardExpiryService.deactivateExpiredCards();
+
+        assertEquals(0, deactivated);
+        verify(cardRepository, never()).updateStatusByIdIn(anyCollection(), any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    private ExpiredCardView expiredCard(Long id) {
+        ExpiredCardView view = mock(ExpiredCardView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getHolderId()).thenReturn(10L);
+        when(view.getBalance()).thenReturn(BigDecimal.TEN);
+        when(view.getStatus()).thenReturn(CardStatus.ACTIVE);
+        return view;
+    }
+}
@@ -0,0 +1,113 @@
+package banking.boby.service;
+
+import banking.boby.security.CardEncryptor;
+import banking.boby.security.CardFingerprinter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CardFingerprintBackfillServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private CardFingerprinter cardFingerprinter;
+    private SimpleMeterRegistry meterRegistry;
+    private CardFingerprintBackfillService backfillService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        CardEncryptor cardEncryptor = mock(CardEncryptor.class);
+        when(cardEncryptor.decrypt(anyString())).thenAnswer(invocation ->
+                invocation.<String>getArgument(0).replace("enc-", ""));
+
+        cardFingerprinter = new CardFingerprinter("fingerprint-test-key-0123456789abcdef");
+        backfillService = new CardFingerprintBackfillService(jdbcTemplate, transactionTemplate, cardEncryptor,
+                cardFingerprinter, 2, meterRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void positiveBackfillInChunks() {
+        List<List<Map.Entry<Long, String>>> chunks = List.of(
+                List.of(Map.entry(1L, "enc-4000001234567899"), Map.entry(2L, "enc-4000001234567808")),
+                List.of(Map.entry(3L, "enc-4000001234567816")));
+        AtomicInteger call = new AtomicInteger();
+        doAnswer(invocation -> {
+            RowMapper<Object[]> mapper = invocation.getArgument(1);
+            List<Object[]> rows = new ArrayList<>();
+            for (Map.Entry<Long, String> row : chunks.get(call.getAndIncrement())) {
+                rows.add(mapper.mapRow(resultSet(row.getKey(), row.getValue()), rows.size()));
+            }
+            return rows;
+        }).when(jdbcTemplate).query(anyString(), any(RowMapper.class), any());
+
+        int backfilled = backfillService.backfill();
+
+        assertEquals(3, backfilled);
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture());
+        Object[] first = batches.getAllValues().get(0).get(0);
+        assertArrayEquals(cardFingerprinter.fingerprint("4000001234567899"), (byte[]) first[0]);
+        assertEquals(1L, first[1]);
+        assertEquals(3, meterRegistry.get("card.fingerprint.backfilled").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void positiveNothingToBackfill() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any())).thenReturn(List.of());
+
+        assertEquals(0, backfillService.backfill());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void positiveFingerprintIgnoresSeparators() {
+        assertArrayEquals(cardFingerprinter.fingerprint("4000001234567899"),
+                cardFingerprinter.fingerprint("4000 0012-3456 7899"));
+        assertEquals(CardFingerprinter.LENGTH, cardFingerprinter.fingerprint("4000001234567899").length);
+    }
+
+    @Test
+    void negativeMissingOrShortKeyRejected() {
+        assertThrows(IllegalStateException.class, () -> new CardFingerprinter(""));
+        assertThrows(IllegalStateException.class, () -> new CardFingerprinter("short-key"));
+    }
+
+    @Test
+    void negativeFingerprintDependsOnKey() {
+        CardFingerprinter other = new CardFingerprinter("other-test-key-0123456789abcdefghijk");
+
+        assertFalse(Arrays.equals(cardFingerprinter.fingerprint("4000001234567899"),
+                other.fingerprint("4000001234567899")));
+    }
+
+    private ResultSet resultSet(long id, String encryptedNumber) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("id")).thenReturn(id);
+        when(resultSet.getString("encrypted_number")).thenReturn(encryptedNumber);
+        return resultSet;
+    }
+}
@@ -4,6 +4,7 @@ import banking.boby.entity.PreGeneratedCard;
 import banking.boby.repository.CardGenerationLockRepository;
 import banking.boby.repository.PreGeneratedCardRepository;
 import banking.boby.security.CardEncryptor;
+import banking.boby.security.CardFingerprinter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -18,6 +19,7 @@ import static org.mockito.Mockito.*;
 class CardGeneratorServiceTest {
 
     private CardEncryptor cardEncryptor;
+    private CardFingerprinter cardFingerprinter;
     private PreGeneratedCardRepository preGeneratedCardRepository;
     private CardGeneratorService cardGeneratorService;
     private CardGenerationLockRepository cardGenerationLockRepository;
@@ -25,10 +27,12 @@ class CardGeneratorServiceTest {
     @BeforeEach
     void setUp() {
         cardEncryptor = mock(CardEncryptor.class);
+        cardFingerprinter = new CardFingerprinter("fingerprint-test-key-0123456789abcdef");
         preGeneratedCardRepository = mock(PreGeneratedCardRepository.class);
         cardGenerationLockRepository = mock(CardGenerationLockRepository.class);
         cardGeneratorService = new CardGeneratorService(
                 cardEncryptor,
+                cardFingerprinter,
                 preGeneratedCardRepository,
                 cardGenerationLockRepository);
 
@@ -53,6 +57,10 @@ class CardGeneratorServiceTest {
 
         assertNotNull(result);
         assertEquals(generateCount, result.size());
+        for (PreGeneratedCard card : result) {
+            String cardNumber = card.getCardNumberEncrypted().replace("-enc", "");
+            assertArrayEquals(cardFingerprinter.fingerprint(cardNumber), card.getNumberFingerprint());
+        }
 
         when(cardGenerationLockRepository.findTopByOrderByIdDesc()).thenReturn(Optional.empty());
         verify(cardEncryptor, times(generateCount + 1)).encrypt(anyString());
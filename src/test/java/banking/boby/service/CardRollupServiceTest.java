@@ -0,0 +1,141 @@
+package banking.boby.service;
+
+import banking.boby.context.UserContext;
+import banking.boby.dto.SpendingSummaryDto;
+import banking.boby.entity.Card;
+import banking.boby.entity.Transaction;
+import banking.boby.entity.User;
+import banking.boby.exception.AccessDeniedException;
+import banking.boby.exception.DataValidationException;
+import banking.boby.exception.WrongCardOperationException;
+import banking.boby.money.Money;
+import banking.boby.repository.CardDailyRollupRepository;
+import banking.boby.repository.CardRepository;
+import banking.boby.repository.projection.RollupPeriodView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CardRollupServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 2, 28);
+
+    private CardDailyRollupRepository rollupRepository;
+    private CardRepository cardRepository;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private SchedulerLockService schedulerLockService;
+    private CardRollupService cardRollupService;
+    private MockedStatic<UserContext> mockedUserContext;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository = mock(CardDailyRollupRepository.class);
+        cardRepository = mock(CardRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        schedulerLockService = mock(SchedulerLockService.class);
+        cardRollupService = new CardRollupService(rollupRepository, cardRepository, jdbcTemplate,
+                transactionTemplate, schedulerLockService, Runnable::run, 1000);
+        mockedUserContext = mockStatic(UserContext.class);
+        mockedUserContext.when(UserContext::getCurrentUserId).thenReturn(100L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockedUserContext.close();
+    }
+
+    @Test
+    void positiveRecordOutflowAndInflow() {
+        Card card = Card.builder().id(1L).build();
+        LocalDateTime dateTime = LocalDateTime.of(2025, 1, 15, 12, 30);
+
+        cardRollupService.record(Transaction.builder().card(card).operationDateTime(dateTime)
+                .amount(Money.parse("-40.00")).build());
+        cardRollupService.record(Transaction.builder().card(card).operationDateTime(dateTime)
+                .amount(Money.parse("15.00")).build());
+
+        verify(rollupRepository).addPosting(1L, dateTime.toLocalDate(), BigDecimal.ZERO, new BigDecimal("40.00"));
+        verify(rollupRepository).addPosting(1L, dateTime.toLocalDate(), new BigDecimal("15.00"), BigDecimal.ZERO);
+    }
+
+    @Test
+    void positiveGetSummaryTotalsPeriods() {
+        mockOwnCard();
+        RollupPeriodView january = period(LocalDate.of(2025, 1, 1), "100.00", "30.00", 3);
+        RollupPeriodView february = period(LocalDate.of(2025, 2, 1), "50.00", "20.50", 2);
+        when(rollupRepository.summarize(1L, FROM, TO, "month")).thenReturn(List.of(january, february));
+
+        SpendingSummaryDto summary = cardRollupService.getSummary(1L, FROM, TO, "MONTH");
+
+        assertEquals(new BigDecimal("150.00"), summary.inflow());
+        assertEquals(new BigDecimal("50.50"), summary.outflow());
+        assertEquals(5, summary.operationCount());
+        assertEquals(2, summary.periods().size());
+    }
+
+    @Test
+    void negativeGetSummaryForeignCard() {
+        Card card = Card.builder().id(1L).holder(User.builder().id(200L).build()).build();
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+
+        assertThrows(AccessDeniedException.class, () -> cardRollupService.getSummary(1L, FROM, TO, "day"));
+    }
+
+    @Test
+    void negativeGetSummaryUnknownGranularity() {
+        assertThrows(DataValidationException.class, () -> cardRollupService.getSummary(1L, FROM, TO, "year"));
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void positiveStartRebuildRunsChunksAndReleasesLock() {
+        when(schedulerLockService.tryLock(eq("card-rollup-rebuild"), any(Duration.class))).thenReturn(true);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(2500L);
+
+        assertEquals(3, cardRollupService.startRebuild());
+
+        verify(transactionTemplate, times(3)).executeWithoutResult(any());
+        verify(schedulerLockService).unlock("card-rollup-rebuild", Duration.ZERO);
+    }
+
+    @Test
+    void negativeStartRebuildWhileRunning() {
+        when(schedulerLockService.tryLock(eq("card-rollup-rebuild"), any(Duration.class))).thenReturn(false);
+
+        assertThrows(WrongCardOperationException.class, () -> cardRollupService.startRebuild());
+
+        verifyNoInteractions(jdbcTemplate, transactionTemplate);
+        verify(schedulerLockService, never()).unlock(anyString(), any());
+    }
+
+    private void mockOwnCard() {
+        Card card = Card.builder().id(1L).holder(User.builder().id(100L).build()).build();
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+    }
+
+    private RollupPeriodView period(LocalDate start, String inflow, String outflow, long count) {
+        RollupPeriodView view = mock(RollupPeriodView.class);
+        when(view.getPeriod()).thenReturn(start);
+        when(view.getInflow()).thenReturn(new BigDecimal(inflow));
+        when(view.getOutflow()).thenReturn(new BigDecimal(outflow));
+        when(view.getOperationCount()).thenReturn(count);
+        return view;
+    }
+}
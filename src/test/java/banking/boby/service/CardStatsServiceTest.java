@@ -0,0 +1,104 @@
+package banking.boby.service;
+
+import banking.boby.dto.CardStatsDto;
+import banking.boby.entity.enums.CardStatus;
+import banking.boby.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CardStatsServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private CardStatsService cardStatsService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        cardStatsService = new CardStatsService(jdbcTemplate, mock(DataSource.class), transactionTemplate,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void positiveCountersReflectChangesBeforeFlush() {
+        cardStatsService.onCardCreated(CardStatus.ACTIVE);
+        cardStatsService.onCardCreated(CardStatus.ACTIVE);
+        cardStatsService.onStatusChanged(CardStatus.ACTIVE, CardStatus.BLOCKED, 1);
+        cardStatsService.onBalanceChanged(Money.parse("100.25"));
+        cardStatsService.onBalanceChanged(Money.parse("-0.25"));
+
+        CardStatsDto stats = cardStatsService.getStats();
+
+        assertEquals(1, stats.cardsByStatus().get(CardStatus.ACTIVE));
+        assertEquals(1, stats.cardsByStatus().get(CardStatus.BLOCKED));
+        assertEquals(2, stats.totalCards());
+        assertEquals(2, stats.issuedTotal());
+        assertEquals(new BigDecimal("100.00"), stats.totalBalance());
+    }
+
+    @Test
+    void positiveDeletedCardRemovesBalance() {
+        cardStatsService.onCardCreated(CardStatus.ACTIVE);
+        cardStatsService.onBalanceChanged(Money.parse("50.00"));
+        cardStatsService.onCardDeleted(CardStatus.ACTIVE, Money.parse("50.00"));
+
+        assertEquals(0, cardStatsService.getTotalCards());
+        assertEquals(0, cardStatsService.getStats().totalBalance().signum());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void negativeFailedFlushKeepsDeltas() {
+        cardStatsService.onCardCreated(CardStatus.ACTIVE);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class, () -> cardStatsService.flush());
+
+        assertEquals(1, cardStatsService.getTotalCards());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void positiveFlushAddsDeltasOfCurrentEpoch() {
+        cardStatsService.onCardCreated(CardStatus.ACTIVE);
+        when(jdbcTemplate.queryForObject(contains("reconcile.epoch"), eq(Long.class))).thenReturn(0L);
+
+        cardStatsService.flush();
+
+        verify(jdbcTemplate).batchUpdate(contains("card_stats_counter.value + EXCLUDED.value"),
+                argThat((List<Object[]> batch) -> batch.size() == 2
+                        && batch.stream().anyMatch(row -> row[0].equals("status.ACTIVE") && row[1].equals(1L))));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void positiveFlushDropsDeltasCountedByReconcile() {
+        cardStatsService.onCardCreated(CardStatus.ACTIVE);
+        when(jdbcTemplate.queryForObject(contains("reconcile.epoch"), eq(Long.class))).thenReturn(1L);
+
+        cardStatsService.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertEquals(0, cardStatsService.getTotalCards());
+    }
+}
@@ -0,0 +1,102 @@
+package banking.boby.service;
+
+import banking.boby.config.ConcurrencyLimitProperties;
+import banking.boby.limiter.AdaptiveConcurrencyLimiter;
+import banking.boby.limiter.ConcurrencyGroup;
+import banking.boby.limiter.ConcurrencyLimitInterceptor;
+import banking.boby.limiter.ConcurrencyLimiterRegistry;
+import banking.boby.limiter.EndpointGroup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private static final int LIMIT = 2;
+
+    private AdaptiveConcurrencyLimiter readLimiter;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitProperties.Group group = new ConcurrencyLimitProperties.Group();
+        group.setInitialLimit(LIMIT);
+        group.setMinLimit(1);
+        group.setMaxLimit(LIMIT);
+        group.setLatencyThreshold(Duration.ofSeconds(10));
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.getGroups().put(EndpointGroup.READ, group);
+
+        ConcurrencyLimiterRegistry registry = new ConcurrencyLimiterRegistry(properties, new SimpleMeterRegistry());
+        readLimiter = registry.get(EndpointGroup.READ);
+        mockMvc = MockMvcBuilders.standaloneSetup(new StreamController())
+                .addInterceptors(new ConcurrencyLimitInterceptor(registry, properties))
+                .build();
+    }
+
+    @Test
+    void positiveAsyncRequestHoldsPermitUntilCompletion() throws Exception {
+        MvcResult result = mockMvc.perform(get("/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+
+        assertEquals(1, readLimiter.getInFlight());
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("a;b"));
+
+        assertEquals(0, readLimiter.getInFlight());
+    }
+
+    @Test
+    void positiveAsyncRequestsDoNotLeakPermits() throws Exception {
+        for (int i = 0; i < LIMIT * 5; i++) {
+            MvcResult result = mockMvc.perform(get("/stream")).andReturn();
+            result.getAsyncResult();
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        }
+
+        assertEquals(0, readLimiter.getInFlight());
+        assertEquals(0, readLimiter.getRejected());
+        mockMvc.perform(get("/plain")).andExpect(status().isOk());
+    }
+
+    @Test
+    void positiveSyncRequestReleasesPermit() throws Exception {
+        mockMvc.perform(get("/plain")).andExpect(status().isOk());
+
+        assertEquals(0, readLimiter.getInFlight());
+    }
+
+    @RestController
+    @ConcurrencyGroup(EndpointGroup.READ)
+    public static class StreamController {
+
+        @GetMapping("/stream")
+        public ResponseEntity<StreamingResponseBody> stream() {
+            return ResponseEntity.ok(out -> out.write("a;b".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @GetMapping("/plain")
+        public String plain() {
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package banking.boby.service;
+
+import banking.boby.dto.TransferRequestDto;
+import banking.boby.money.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void positiveParseAndFormat() {
+        assertEquals(12345, Money.parse("123.45").minorUnits());
+        assertEquals(12340, Money.parse("123.4").minorUnits());
+        assertEquals(12300, Money.parse("123").minorUnits());
+        assertEquals(-5, Money.parse("-0.05").minorUnits());
+        assertEquals(12345, Money.parse("123.4500").minorUnits());
+        assertEquals(150, Money.parse("1.5E0").minorUnits());
+
+        assertEquals("123.45", Money.ofMinor(12345).toString());
+        assertEquals("-0.05", Money.ofMinor(-5).toString());
+        assertEquals("0.00", Money.ZERO.toString());
+    }
+
+    @Test
+    void negativeParseRejectsSubCentAndGarbage() {
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("1.001"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("abc"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("-"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("."));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("0.125")));
+    }
+
+    @Test
+    void positiveArithmeticMatchesBigDecimal() {
+        Money a = Money.parse("100.10");
+        Money b = Money.parse("0.20");
+
+        assertEquals(new BigDecimal("100.30"), a.plus(b).toBigDecimal());
+        assertEquals(new BigDecimal("99.90"), a.minus(b).toBigDecimal());
+        assertEquals(Money.parse("-100.10"), a.negate());
+        assertTrue(b.isLessThan(a));
+        assertEquals(Money.of(new BigDecimal("100.1")), a);
+    }
+
+    @Test
+    void negativeArithmeticOverflow() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).negate());
+        assertThrows(ArithmeticException.class, () -> Money.ofMajor(Long.MAX_VALUE / 10));
+    }
+
+    @Test
+    void positiveJsonRoundTrip() throws Exception {
+        TransferRequestDto request = objectMapper.readValue(
+                "{\"fromCardId\":1,\"toCardId\":2,\"amount\":40.5}", TransferRequestDto.class);
+
+        assertEquals(Money.parse("40.50"), request.amount());
+        assertEquals("{\"fromCardId\":1,\"toCardId\":2,\"amount\":40.50}", objectMapper.writeValueAsString(request));
+        assertEquals(Money.ofMajor(7), objectMapper.readValue("7", Money.class));
+        assertEquals(Money.parse("7.25"), objectMapper.readValue("\"7.25\"", Money.class));
+    }
+
+    @Test
+    void negativeJsonRejectsSubCent() {
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("1.005", Money.class));
+    }
+}
@@ -0,0 +1,129 @@
+package banking.boby.service;
+
+import banking.boby.entity.enums.OperationType;
+import banking.boby.outbox.OutboxConsumer;
+import banking.boby.outbox.PostingEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private MeterRegistry meterRegistry;
+    private RecordingConsumer consumer;
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = new RecordingConsumer();
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        outboxService = new OutboxService(jdbcTemplate, transactionTemplate, List.of(consumer), 2, 5, 4,
+                Duration.ofSeconds(5), Duration.ofSeconds(30), Duration.ofMinutes(1), 3, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxService.close();
+    }
+
+    @Test
+    void positiveDispatchDeliversAndDeletesBatch() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(60_000L), eq(2)))
+                .thenReturn(List.of(event(2L), event(1L)), List.of(event(3L)));
+
+        int delivered = outboxService.drain();
+
+        assertEquals(3, delivered);
+        assertEquals(List.of(1L, 2L, 3L), consumer.received.stream().map(PostingEvent::outboxId).toList());
+        verify(jdbcTemplate, times(2)).update(startsWith("DELETE"), (Object) any(Long[].class));
+        assertEquals(3, meterRegistry.counter("outbox.dispatched").count());
+    }
+
+    @Test
+    void positiveEmptyOutbox() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(60_000L), eq(2))).thenReturn(List.of());
+
+        assertEquals(0, outboxService.drain());
+        verify(jdbcTemplate, never()).update(anyString(), (Object) any(Long[].class));
+        verify(jdbcTemplate, never()).update(anyString(), any(), any());
+    }
+
+    @Test
+    void negativeConsumerFailurePostponesBatch() {
+        consumer.failing = true;
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(60_000L), eq(2))).thenReturn(List.of(event(1L)));
+
+        assertEquals(0, outboxService.dispatchBatch());
+
+        verify(jdbcTemplate).update(contains("parked_at = LOCALTIMESTAMP"), any(Long[].class), eq(3));
+        verify(jdbcTemplate).update(contains("parked_at IS NULL"), eq(30_000L), any(Long[].class));
+        verify(jdbcTemplate, never()).update(startsWith("DELETE"), (Object) any(Long[].class));
+        assertEquals(1, meterRegistry.counter("outbox.failed").count());
+        assertEquals(0, meterRegistry.counter("outbox.parked").count());
+    }
+
+    @Test
+    void negativeExhaustedAttemptsParkRows() {
+        consumer.failing = true;
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(60_000L), eq(2))).thenReturn(List.of(event(1L)));
+        when(jdbcTemplate.update(contains("parked_at = LOCALTIMESTAMP"), any(Long[].class), eq(3))).thenReturn(1);
+
+        assertEquals(0, outboxService.dispatchBatch());
+
+        assertEquals(1, meterRegistry.counter("outbox.parked").count());
+    }
+
+    @Test
+    void negativeLeaseShorterThanDeliveryTimeout() {
+        assertThrows(IllegalArgumentException.class, () -> new OutboxService(jdbcTemplate,
+                mock(TransactionTemplate.class), List.of(consumer), 2, 5, 4, Duration.ofSeconds(30),
+                Duration.ofSeconds(30), Duration.ofSeconds(30), 3, meterRegistry));
+    }
+
+    private PostingEvent event(Long outboxId) {
+        return new PostingEvent(outboxId, outboxId * 10, 1L, BigDecimal.TEN, OperationType.DEPOSIT,
+                LocalDateTime.of(2025, 1, 1, 12, 0));
+    }
+
+    private static class RecordingConsumer implements OutboxConsumer {
+
+        private final List<PostingEvent> received = new CopyOnWriteArrayList<>();
+        private volatile boolean failing;
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void accept(List<PostingEvent> events) {
+            if (failing) {
+                throw new IllegalStateException("Получатель недоступен");
+            }
+            received.addAll(events);
+        }
+    }
+}
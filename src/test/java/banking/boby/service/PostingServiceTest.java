@@ -0,0 +1,136 @@
+package banking.boby.service;
+
+import banking.boby.audit.AuditAction;
+import banking.boby.audit.AuditJournal;
+import banking.boby.entity.Card;
+import banking.boby.entity.Transaction;
+import banking.boby.entity.enums.CardStatus;
+import banking.boby.entity.enums.OperationType;
+import banking.boby.exception.DataValidationException;
+import banking.boby.exception.EntityNotFoundException;
+import banking.boby.exception.UnsafeOperationException;
+import banking.boby.money.Money;
+import banking.boby.posting.PostingLeg;
+import banking.boby.repository.CardRepository;
+import banking.boby.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PostingServiceTest {
+
+    private CardRepository cardRepository;
+    private TransactionRepository transactionRepository;
+    private CardRollupService cardRollupService;
+    private CardStatsService cardStatsService;
+    private OutboxService outboxService;
+    private AuditJournal auditJournal;
+    private ApplicationEventPublisher eventPublisher;
+    private PostingService postingService;
+
+    @BeforeEach
+    void setUp() {
+        cardRepository = mock(CardRepository.class);
+        transactionRepository = mock(TransactionRepository.class);
+        cardRollupService = mock(CardRollupService.class);
+        cardStatsService = mock(CardStatsService.class);
+        outboxService = mock(OutboxService.class);
+        auditJournal = mock(AuditJournal.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        postingService = new PostingService(cardRepository, transactionRepository, cardRollupService,
+                cardStatsService, outboxService, auditJournal, eventPublisher);
+    }
+
+    @Test
+    void positiveTransferMovesFundsInOneBatch() {
+        Card from = card(1L, "100.00", CardStatus.ACTIVE);
+        Card to = card(2L, "5.00", CardStatus.ACTIVE);
+        when(cardRepository.findAllById(any())).thenReturn(List.of(from, to));
+
+        List<Transaction> transactions = postingService.post(OperationType.TRANSFER, List.of(
+                PostingLeg.debit(1L, Money.parse("40.00")),
+                PostingLeg.credit(2L, Money.parse("40.00"))));
+
+        assertEquals(Money.parse("60.00"), from.getBalance());
+        assertEquals(Money.parse("45.00"), to.getBalance());
+        assertEquals(2, transactions.size());
+        verify(transactionRepository).saveAll(transactions);
+        verify(outboxService).append(transactions);
+        verify(cardRollupService, times(2)).record(any());
+        verify(cardStatsService).onBalanceChanged(Money.ZERO);
+        verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+        verify(auditJournal).recordAfterCommit(AuditAction.TRANSFER, null, 1L, 2L, Money.parse("40.00"));
+    }
+
+    @Test
+    void positiveDepositCreditsCard() {
+        Card card = card(1L, "10.00", CardStatus.ACTIVE);
+        when(cardRepository.findAllById(any())).thenReturn(List.of(card));
+
+        postingService.post(OperationType.DEPOSIT, List.of(PostingLeg.credit(1L, Money.parse("15.50"))));
+
+        assertEquals(Money.parse("25.50"), card.getBalance());
+        verify(cardStatsService).onBalanceChanged(Money.parse("15.50"));
+    }
+
+    @Test
+    void negativeUnbalancedTransfer() {
+        assertThrows(DataValidationException.class, () -> postingService.post(OperationType.TRANSFER, List.of(
+                PostingLeg.debit(1L, Money.parse("40.00")),
+                PostingLeg.credit(2L, Money.parse("30.00")))));
+
+        verifyNoInteractions(cardRepository, transactionRepository);
+    }
+
+    @Test
+    void negativeWrongDirectionForOperation() {
+        assertThrows(DataValidationException.class, () -> postingService.post(OperationType.DEPOSIT,
+                List.of(PostingLeg.debit(1L, Money.ofMajor(10)))));
+        assertThrows(DataValidationException.class, () -> postingService.post(OperationType.WITHDRAW,
+                List.of(PostingLeg.credit(1L, Money.ofMajor(10)))));
+        assertThrows(DataValidationException.class, () -> postingService.post(OperationType.PAYMENT,
+                List.of(PostingLeg.credit(1L, Money.ofMajor(10)))));
+    }
+
+    @Test
+    void negativeNotEnoughFunds() {
+        Card card = card(1L, "10.00", CardStatus.ACTIVE);
+        when(cardRepository.findAllById(any())).thenReturn(List.of(card));
+
+        assertThrows(UnsafeOperationException.class, () -> postingService.post(OperationType.WITHDRAW,
+                List.of(PostingLeg.debit(1L, Money.parse("10.01")))));
+
+        assertEquals(Money.parse("10.00"), card.getBalance());
+        verifyNoInteractions(transactionRepository, outboxService);
+    }
+
+    @Test
+    void negativeBlockedCard() {
+        when(cardRepository.findAllById(any())).thenReturn(List.of(card(1L, "10.00", CardStatus.BLOCKED)));
+
+        assertThrows(UnsafeOperationException.class, () -> postingService.post(OperationType.DEPOSIT,
+                List.of(PostingLeg.credit(1L, Money.ofMajor(1)))));
+    }
+
+    @Test
+    void negativeCardNotFound() {
+        when(cardRepository.findAllById(any())).thenReturn(List.of());
+
+        assertThrows(EntityNotFoundException.class, () -> postingService.post(OperationType.DEPOSIT,
+                List.of(PostingLeg.credit(1L, Money.ofMajor(1)))));
+    }
+
+    private Card card(Long id, String balance, CardStatus status) {
+        return Card.builder()
+                .id(id)
+                .balance(Money.parse(balance))
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,222 @@
+package banking.boby.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Планы запросов репозиториев на базе с объёмом данных, близким к рабочему.
+ * SQL повторяет то, что генерирует Hibernate для соответствующих методов.
+ */
+@Tag("query-plan")
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+
+    private static final int USERS = 20_000;
+    private static final int CARDS = 200_000;
+    private static final int TRANSACTIONS = 1_000_000;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @BeforeAll
+    static void migrateAndSeed() throws Exception {
+        try (Connection connection = connect()) {
+            Database database = DatabaseFactory.getInstance()
+                    .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            new Liquibase("db/changelog/changelog-master.yaml", new ClassLoaderResourceAccessor(), database)
+                    .update(new Contexts(), new LabelExpression());
+        }
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO users (email, first_name, last_name, username, password, role)
+                    SELECT 'user' || g || '@example.com', 'First', 'Last', 'user' || g, 'hash', 'USER'
+                    FROM generate_series(1, %d) g
+                    """.formatted(USERS));
+            statement.execute("""
+                    INSERT INTO cards (encrypted_number, holder_name, expiry_date, status, balance, user_id)
+                    SELECT md5(g::text), 'First Last',
+                           CASE WHEN g %% 100 = 0 THEN DATE '2020-01-31' ELSE DATE '2030-01-31' END,
+                           CASE WHEN g %% 10 = 1 THEN 'EXPIRED' WHEN g %% 10 = 2 THEN 'BLOCKED' ELSE 'ACTIVE' END,
+                           100, (SELECT min(id) FROM users) + g %% %d
+                    FROM generate_series(1, %d) g
+                    """.formatted(USERS, CARDS));
+            statement.execute("""
+                    UPDATE cards SET number_fingerprint = sha256(encrypted_number::BYTEA) WHERE id % 100 <> 0
+                    """);
+            statement.execute("""
+                    SELECT create_transactions_partition(month::DATE)
+                    FROM generate_series(DATE '2025-01-01', DATE '2026-01-01', INTERVAL '1 month') month
+                    """);
+            statement.execute("""
+                    INSERT INTO transactions (card_id, operation_date_time, operation_type, amount)
+                    SELECT (SELECT min(id) FROM cards) + g %% %d,
+                           TIMESTAMP '2025-01-01' + g * INTERVAL '30 seconds', 'TRANSFER', 10
+                    FROM generate_series(1, %d) g
+                    """.formatted(CARDS, TRANSACTIONS));
+            statement.execute("""
+                    INSERT INTO pre_generated_card (card_number_encrypted)
+                    SELECT md5(g::text) FROM generate_series(1, 10000) g
+                    """);
+            statement.execute("VACUUM ANALYZE");
+        }
+    }
+
+    @Test
+    void positiveFindCardsByHolderPage() throws Exception {
+        assertUsesIndex("""
+                SELECT * FROM cards WHERE user_id = 500 OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY
+                """, "idx_cards_user_id");
+    }
+
+    @Test
+    void positiveCountCardsByHolder() throws Exception {
+        assertUsesIndex("SELECT count(*) FROM cards WHERE user_id = 500", "idx_cards_user_id");
+    }
+
+    @Test
+    void positiveFindCardVersionsByHolderIsIndexOnly() throws Exception {
+        JsonNode plan = explain("SELECT id, version FROM cards WHERE user_id = 500 ORDER BY id");
+
+        assertNoSeqScan(plan);
+        assertTrue(nodeTypes(plan).contains("Index Only Scan"), "Ожидался Index Only Scan: " + plan);
+        assertFalse(nodeTypes(plan).contains("Sort"), "Лишняя сортировка: " + plan);
+    }
+
+    @Test
+    void positiveFindCardVersionByIdAndHolder() throws Exception {
+        assertUsesIndex("SELECT version FROM cards WHERE id = 500 AND user_id = 500", "cards_pkey");
+    }
+
+    @Test
+    void positiveLockExpiredChunkUsesPartialIndex() throws Exception {
+        assertUsesIndex("""
+                SELECT id, user_id, balance
+                FROM cards
+                WHERE expiry_date < DATE '2025-06-01' AND status IN ('ACTIVE', 'BLOCKED')
+                ORDER BY id
+                LIMIT 1000
+                FOR UPDATE SKIP LOCKED
+                """, "idx_cards_expiry_date_live");
+    }
+
+    @Test
+    void positiveFindCardByNumberFingerprint() throws Exception {
+        assertUsesIndex("""
+                SELECT id, encrypted_number, user_id, expiry_date, status, balance
+                FROM cards
+                WHERE number_fingerprint = sha256('c4ca4238a0b923820dcc509a6f75849b'::BYTEA)
+                """, "idx_cards_number_fingerprint");
+    }
+
+    @Test
+    void positiveFingerprintBackfillChunkUsesPartialIndex() throws Exception {
+        assertUsesIndex("""
+                SELECT id, encrypted_number
+                FROM cards
+                WHERE number_fingerprint IS NULL
+                ORDER BY id
+                LIMIT 1000
+                FOR UPDATE SKIP LOCKED
+                """, "idx_cards_number_fingerprint_missing");
+    }
+
+    @Test
+    void positiveStatementQueryPrunesPartitions() throws Exception {
+        JsonNode plan = explain("""
+                SELECT * FROM transactions
+                WHERE card_id = 500
+                  AND operation_date_time >= TIMESTAMP '2025-03-01' AND operation_date_time < TIMESTAMP '2025-04-01'
+                ORDER BY operation_date_time
+                """);
+
+        assertNoSeqScan(plan);
+        assertEquals(List.of("transactions_2025_03"), relationNames(plan).stream().distinct().toList(),
+                "Ожидалось чтение одной секции: " + plan);
+        assertTrue(indexNames(plan).stream().anyMatch(name -> name.contains("card_id_operation_date_time")),
+                "Запрос не использует индекс по карте и дате: " + plan);
+    }
+
+    @Test
+    void positiveFindEarliestPreGeneratedCards() throws Exception {
+        assertUsesIndex("SELECT * FROM pre_generated_card ORDER BY id ASC LIMIT 100", "pre_generated_card_pkey");
+    }
+
+    @Test
+    void positiveFindUserByUsername() throws Exception {
+        JsonNode plan = explain("SELECT * FROM users WHERE username = 'user500'");
+
+        assertNoSeqScan(plan);
+    }
+
+    private static void assertUsesIndex(String sql, String indexName) throws Exception {
+        JsonNode plan = explain(sql);
+
+        assertNoSeqScan(plan);
+        assertTrue(indexNames(plan).stream().anyMatch(name -> name.startsWith(indexName)),
+                "Запрос не использует индекс " + indexName + ": " + plan);
+    }
+
+    private static void assertNoSeqScan(JsonNode plan) {
+        assertFalse(nodeTypes(plan).contains("Seq Scan"), "Последовательное сканирование в плане: " + plan);
+    }
+
+    private static JsonNode explain(String sql) throws Exception {
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN (FORMAT JSON) " + sql)) {
+            resultSet.next();
+            return MAPPER.readTree(resultSet.getString(1)).get(0).get("Plan");
+        }
+    }
+
+    private static List<String> nodeTypes(JsonNode plan) {
+        return collect(plan, "Node Type", new ArrayList<>());
+    }
+
+    private static List<String> relationNames(JsonNode plan) {
+        return collect(plan, "Relation Name", new ArrayList<>());
+    }
+
+    private static List<String> indexNames(JsonNode plan) {
+        return collect(plan, "Index Name", new ArrayList<>());
+    }
+
+    private static List<String> collect(JsonNode node, String field, List<String> values) {
+        if (node.has(field)) {
+            values.add(node.get(field).asText());
+        }
+        if (node.has("Plans")) {
+            node.get("Plans").forEach(child -> collect(child, field, values));
+        }
+        return values;
+    }
+
+    private static Connection connect() throws Exception {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
@@ -0,0 +1,75 @@
+package banking.boby.service;
+
+import banking.boby.security.RateLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private RateLimiter rateLimiter;
+    private RateLimiter.Bandwidth bandwidth;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new RateLimiter(clock::get);
+        bandwidth = RateLimiter.Bandwidth.of(3, 1);
+    }
+
+    @Test
+    void positiveBurstUpToCapacity() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("scope", 1L, bandwidth));
+        }
+
+        long wait = rateLimiter.tryAcquire("scope", 1L, bandwidth);
+        assertEquals(TimeUnit.SECONDS.toNanos(1), wait);
+    }
+
+    @Test
+    void positiveRefillAfterInterval() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("scope", 1L, bandwidth);
+        }
+        assertTrue(rateLimiter.tryAcquire("scope", 1L, bandwidth) > 0);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(0, rateLimiter.tryAcquire("scope", 1L, bandwidth));
+        assertTrue(rateLimiter.tryAcquire("scope", 1L, bandwidth) > 0);
+    }
+
+    @Test
+    void positiveBucketsAreIsolated() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("scope", 1L, bandwidth);
+        }
+
+        assertEquals(0, rateLimiter.tryAcquire("scope", 2L, bandwidth));
+        assertEquals(0, rateLimiter.tryAcquire("other", 1L, bandwidth));
+    }
+
+    @Test
+    void positiveEvictIdleBuckets() {
+        rateLimiter.tryAcquire("scope", 1L, bandwidth);
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+        rateLimiter.tryAcquire("scope", 2L, bandwidth);
+
+        int evicted = rateLimiter.evictIdle(Duration.ofMinutes(1));
+
+        assertEquals(1, evicted);
+        assertEquals(1, rateLimiter.size());
+    }
+
+    @Test
+    void negativeInvalidBandwidth() {
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.Bandwidth.of(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.Bandwidth.of(1, 0));
+    }
+}
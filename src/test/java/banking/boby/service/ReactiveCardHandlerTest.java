@@ -0,0 +1,202 @@
+package banking.boby.service;
+
+import banking.boby.config.ConcurrencyLimitProperties;
+import banking.boby.entity.enums.CardStatus;
+import banking.boby.limiter.ConcurrencyLimiterRegistry;
+import banking.boby.limiter.EndpointGroup;
+import banking.boby.money.Money;
+import banking.boby.reactive.ReactiveCardHandler;
+import banking.boby.reactive.ReactiveCardReader;
+import banking.boby.reactive.ReactiveJwtAuthenticationFilter;
+import banking.boby.reactive.ReactiveLimitFilter;
+import banking.boby.repository.projection.CardSummaryView;
+import banking.boby.security.CardEncryptor;
+import banking.boby.security.JwtTokenProvider;
+import banking.boby.security.RateLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveCardHandlerTest {
+
+    @Mock
+    ReactiveCardReader cardReader;
+
+    @Mock
+    CardEncryptor cardEncryptor;
+
+    @Mock
+    JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    RateLimitFilter rateLimitFilter;
+
+    ConcurrencyLimiterRegistry limiterRegistry;
+    WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitProperties concurrencyProperties = new ConcurrencyLimitProperties();
+        limiterRegistry = new ConcurrencyLimiterRegistry(concurrencyProperties, new SimpleMeterRegistry());
+        ReactiveCardHandler handler = new ReactiveCardHandler(cardReader, cardEncryptor, 100);
+        client = WebTestClient.bindToRouterFunction(handler.routes())
+                .webFilter(new ReactiveJwtAuthenticationFilter(jwtTokenProvider),
+                        new ReactiveLimitFilter(rateLimitFilter, limiterRegistry, concurrencyProperties,
+                                new ObjectMapper()))
+                .build();
+    }
+
+    @Test
+    void positiveStreamMyCards() {
+        authenticate("user-token", 100L, "USER");
+        when(cardReader.findByHolderId(100L, 2, 2L)).thenReturn(Flux.just(
+                card(3L, "enc3", 100L, Money.parse("10.50")),
+                card(4L, "enc4", 100L, Money.ZERO)));
+        when(cardEncryptor.decrypt("enc3")).thenReturn("1111222233334444");
+        when(cardEncryptor.decrypt("enc4")).thenReturn("5555666677778888");
+
+        client.get().uri("/cards/cards?page=1&size=2")
+                .header("Authorization", "Bearer user-token")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(Map.class).hasSize(2);
+    }
+
+    @Test
+    void positiveGetBalance() {
+        authenticate("user-token", 100L, "USER");
+        when(cardReader.findById(1L)).thenReturn(Mono.just(card(1L, "enc", 100L, Money.parse("123.45"))));
+        when(cardEncryptor.decrypt("enc")).thenReturn("1234567890123456");
+
+        client.get().uri("/cards/1/balance")
+                .header("Authorization", "Bearer user-token")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.balance").isEqualTo(123.45)
+                .jsonPath("$.maskedNum").isEqualTo("************3456");
+    }
+
+    @Test
+    void negativeGetForeignBalance() {
+        authenticate("user-token", 100L, "USER");
+        when(cardReader.findById(1L)).thenReturn(Mono.just(card(1L, "enc", 999L, Money.ZERO)));
+
+        client.get().uri("/cards/1/balance")
+                .header("Authorization", "Bearer user-token")
+                .exchange()
+                .expectStatus().isForbidden();
+        verifyNoInteractions(cardEncryptor);
+    }
+
+    @Test
+    void negativeGetMissingBalance() {
+        authenticate("user-token", 100L, "USER");
+        when(cardReader.findById(1L)).thenReturn(Mono.empty());
+
+        client.get().uri("/cards/1/balance")
+                .header("Authorization", "Bearer user-token")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Карта с id 1 не найдена");
+    }
+
+    @Test
+    void negativeWithoutToken() {
+        client.get().uri("/cards/cards")
+                .exchange()
+                .expectStatus().isUnauthorized();
+        verifyNoInteractions(cardReader);
+    }
+
+    @Test
+    void negativeUserOnAdminListing() {
+        authenticate("user-token", 100L, "USER");
+
+        client.get().uri("/admin/cards")
+                .header("Authorization", "Bearer user-token")
+                .exchange()
+                .expectStatus().isForbidden();
+        verifyNoInteractions(cardReader);
+    }
+
+    @Test
+    void negativePageSizeOutOfRange() {
+        authenticate("user-token", 100L, "USER");
+
+        client.get().uri("/cards/cards?size=1000")
+                .header("Authorization", "Bearer user-token")
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(cardReader);
+    }
+
+    @Test
+    void positiveAdminListing() {
+        authenticate("admin-token", 1L, "ADMIN");
+        when(cardReader.findAll(10, 0L)).thenReturn(Flux.just(card(5L, "enc", 42L, Money.ZERO)));
+        when(cardEncryptor.decrypt("enc")).thenReturn("1234567890123456");
+
+        client.get().uri("/admin/cards")
+                .header("Authorization", "Bearer admin-token")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].userId").isEqualTo(42)
+                .jsonPath("$[0].maskedNum").isEqualTo("************3456");
+    }
+
+    @Test
+    void negativeBalancePollingIsRateLimitedByUser() {
+        authenticate("user-token", 100L, "USER");
+        when(rateLimitFilter.tryAcquire("GET", "/cards/1/balance", 100L)).thenReturn(1_500_000_000L);
+
+        client.get().uri("/cards/1/balance")
+                .header("Authorization", "Bearer user-token")
+                .exchange()
+                .expectStatus().isEqualTo(429)
+                .expectHeader().valueEquals("Retry-After", "2");
+        verifyNoInteractions(cardReader);
+    }
+
+    @Test
+    void positiveReadPermitReleasedAfterResponse() {
+        authenticate("user-token", 100L, "USER");
+        when(cardReader.findById(1L)).thenReturn(Mono.just(card(1L, "enc", 100L, Money.ZERO)));
+        when(cardEncryptor.decrypt("enc")).thenReturn("1234567890123456");
+
+        client.get().uri("/cards/1/balance")
+                .header("Authorization", "Bearer user-token")
+                .exchange()
+                .expectStatus().isOk();
+
+        assertEquals(0, limiterRegistry.get(EndpointGroup.READ).getInFlight());
+    }
+
+    private void authenticate(String token, Long userId, String role) {
+        when(jwtTokenProvider.validateToken(token)).thenReturn(true);
+        when(jwtTokenProvider.getUserId(token)).thenReturn(userId);
+        when(jwtTokenProvider.getRole(token)).thenReturn(role);
+    }
+
+    private CardSummaryView card(Long id, String encrypted, Long holderId, Money balance) {
+        return new CardSummaryView(id, encrypted, holderId, LocalDate.now().plusYears(2), CardStatus.ACTIVE, balance);
+    }
+}
@@ -0,0 +1,115 @@
+package banking.boby.service;
+
+import banking.boby.datasource.ReadYourWritesTracker;
+import banking.boby.datasource.Replica;
+import banking.boby.datasource.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private DataSource primary;
+    private DataSource replicaDataSource;
+    private Replica replica;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        primary = mock(DataSource.class);
+        replicaDataSource = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(mock(Connection.class));
+        when(replicaDataSource.getConnection()).thenReturn(mock(Connection.class));
+
+        replica = new Replica("replica-0", replicaDataSource);
+        replica.setHealthy(true);
+        replica.setCheckedAt(clock.get());
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(5), clock::get);
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica), tracker,
+                Duration.ofSeconds(15), clock::get);
+        routingDataSource.afterPropertiesSet();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(100L, null, List.of()));
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void positiveReadOnlyGoesToReplica() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        routingDataSource.getConnection();
+
+        verify(replicaDataSource).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void positiveUnhealthyReplicaFallsBackToPrimary() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        replica.setHealthy(false);
+
+        routingDataSource.getConnection();
+
+        verify(primary).getConnection();
+        verify(replicaDataSource, never()).getConnection();
+    }
+
+    @Test
+    void negativeStaleHealthCheckFallsBackToPrimary() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        clock.addAndGet(Duration.ofSeconds(16).toNanos());
+
+        routingDataSource.getConnection();
+
+        verify(primary).getConnection();
+        verify(replicaDataSource, never()).getConnection();
+    }
+
+    @Test
+    void positiveReadYourWritesAfterCommit() throws Exception {
+        routingDataSource.getConnection();
+        verify(primary).getConnection();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        routingDataSource.getConnection();
+        verify(primary, times(2)).getConnection();
+
+        clock.addAndGet(Duration.ofSeconds(6).toNanos());
+        routingDataSource.getConnection();
+        verify(replicaDataSource).getConnection();
+    }
+
+    @Test
+    void positiveNoTransactionGoesToPrimary() throws Exception {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+
+        routingDataSource.getConnection();
+
+        verify(primary).getConnection();
+    }
+}
@@ -0,0 +1,112 @@
+package banking.boby.service;
+
+import banking.boby.context.UserContext;
+import banking.boby.entity.Card;
+import banking.boby.entity.User;
+import banking.boby.exception.AccessDeniedException;
+import banking.boby.exception.DataValidationException;
+import banking.boby.exception.EntityNotFoundException;
+import banking.boby.repository.CardRepository;
+import banking.boby.statement.StatementFormat;
+import banking.boby.statement.StatementWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StatementExportServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 1, 31);
+
+    private CardRepository cardRepository;
+    private StatementExportService statementExportService;
+    private MockedStatic<UserContext> mockedUserContext;
+
+    @BeforeEach
+    void setUp() {
+        cardRepository = mock(CardRepository.class);
+        statementExportService = new StatementExportService(cardRepository, mock(DataSource.class),
+                mock(PlatformTransactionManager.class), 1000);
+        mockedUserContext = mockStatic(UserContext.class);
+        mockedUserContext.when(UserContext::getCurrentUserId).thenReturn(100L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockedUserContext.close();
+    }
+
+    @Test
+    void positivePrepareExport() {
+        Card card = Card.builder().id(1L).holder(User.builder().id(100L).build()).build();
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+
+        assertNotNull(statementExportService.prepareExport(1L, FROM, TO, StatementFormat.CSV));
+    }
+
+    @Test
+    void negativePrepareExportForeignCard() {
+        Card card = Card.builder().id(1L).holder(User.builder().id(200L).build()).build();
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+
+        assertThrows(AccessDeniedException.class,
+                () -> statementExportService.prepareExport(1L, FROM, TO, StatementFormat.CSV));
+    }
+
+    @Test
+    void negativePrepareExportCardNotFound() {
+        when(cardRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> statementExportService.prepareExport(1L, FROM, TO, StatementFormat.CSV));
+    }
+
+    @Test
+    void negativePrepareExportInvertedPeriod() {
+        assertThrows(DataValidationException.class,
+                () -> statementExportService.prepareExport(1L, TO, FROM, StatementFormat.CSV));
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void negativeUnknownFormat() {
+        assertThrows(DataValidationException.class, () -> StatementFormat.from("xml"));
+        assertEquals(StatementFormat.NDJSON, StatementFormat.from("ndjson"));
+    }
+
+    @Test
+    void positiveWriteCsvAndNdjsonRows() throws Exception {
+        LocalDateTime dateTime = LocalDateTime.of(2025, 1, 2, 10, 0);
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        StatementWriter csvWriter = new StatementWriter(csv, StatementFormat.CSV);
+        csvWriter.writeHeader();
+        csvWriter.writeRow(7L, dateTime, "TRANSFER", new BigDecimal("-15.50"));
+        csvWriter.flush();
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        StatementWriter ndjsonWriter = new StatementWriter(ndjson, StatementFormat.NDJSON);
+        ndjsonWriter.writeHeader();
+        ndjsonWriter.writeRow(7L, dateTime, "TRANSFER", new BigDecimal("-15.50"));
+        ndjsonWriter.flush();
+
+        assertEquals("id,operation_date_time,operation_type,amount\n7,2025-01-02T10:00:00,TRANSFER,-15.50\n",
+                csv.toString(StandardCharsets.UTF_8));
+        assertEquals("{\"id\":7,\"operationDateTime\":\"2025-01-02T10:00:00\",\"operationType\":\"TRANSFER\","
+                + "\"amount\":-15.50}\n", ndjson.toString(StandardCharsets.UTF_8));
+        assertEquals(1, csvWriter.getRows());
+    }
+}
@@ -1,19 +1,27 @@
 package banking.boby.service;
 
+import banking.boby.audit.AuditAction;
+import banking.boby.audit.AuditJournal;
 import banking.boby.context.UserContext;
 import banking.boby.dto.BalanceResponseDto;
 import banking.boby.dto.CardDigitsDto;
+import banking.boby.dto.CardNumberTransferRequestDto;
 import banking.boby.dto.CardUserDto;
 import banking.boby.dto.TransferRequestDto;
 import banking.boby.entity.Card;
-import banking.boby.entity.Transaction;
 import banking.boby.entity.User;
 import banking.boby.entity.enums.CardStatus;
+import banking.boby.entity.enums.OperationType;
 import banking.boby.exception.AccessDeniedException;
+import banking.boby.exception.EntityNotFoundException;
 import banking.boby.exception.UnsafeOperationException;
+import banking.boby.money.Money;
+import banking.boby.posting.PostingLeg;
 import banking.boby.repository.CardRepository;
-import banking.boby.repository.TransactionRepository;
+import banking.boby.repository.projection.CardSummaryView;
+import banking.boby.repository.projection.CardVersionView;
 import banking.boby.security.CardEncryptor;
+import banking.boby.security.CardFingerprinter;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,10 +29,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,10 +47,25 @@ class UserCardServiceTest {
     CardRepository cardRepository;
 
     @Mock
-    TransactionRepository transactionRepository;
+    CardEncryptor cardEncryptor;
+
+    @Spy
+    CardFingerprinter cardFingerprinter = new CardFingerprinter("fingerprint-test-key-0123456789abcdef");
 
     @Mock
-    CardEncryptor cardEncryptor;
+    ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    CardStatsService cardStatsService;
+
+    @Mock
+    PostingService postingService;
+
+    @Mock
+    AuditJournal auditJournal;
+
+    @Mock
+    VelocityLimitService velocityLimitService;
 
     private static MockedStatic<UserContext> mockedUserContext;
 
@@ -70,35 +94,71 @@ class UserCardServiceTest {
     void positieTransferFunds() {
         Long fromCardId = 1L;
         Long toCardId = 2L;
-        BigDecimal amount = BigDecimal.valueOf(50);
+        Money amount = Money.ofMajor(50);
 
-        Card fromCard = createCard(fromCardId, userId, BigDecimal.valueOf(100));
-        Card toCard = createCard(toCardId, userId, BigDecimal.valueOf(0));
+        Card fromCard = createCard(fromCardId, userId, Money.ofMajor(100));
+        Card toCard = createCard(toCardId, userId, Money.ofMajor(0));
 
         TransferRequestDto request = new TransferRequestDto(fromCardId, toCardId, amount);
 
         when(cardRepository.findById(fromCardId)).thenReturn(Optional.of(fromCard));
         when(cardRepository.findById(toCardId)).thenReturn(Optional.of(toCard));
-        when(cardRepository.save(any())).thenAnswer(i -> i.getArgument(0));
-        when(transactionRepository.save(any())).thenAnswer(i -> i.getArgument(0));
 
         userCardService.transferFunds(request);
 
-        assertEquals(BigDecimal.valueOf(50), fromCard.getBalance());
-        assertEquals(BigDecimal.valueOf(50), toCard.getBalance());
+        verify(velocityLimitService).reserveTransfer(userId, fromCardId, amount);
+        verify(postingService).post(OperationType.TRANSFER, List.of(
+                PostingLeg.debit(fromCardId, amount),
+                PostingLeg.credit(toCardId, amount)));
+    }
+
+    @Test
+    void negativeTransferVelocityLimitExceeded() {
+        Money amount = Money.ofMajor(50);
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(createCard(1L, userId, Money.ofMajor(100))));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(createCard(2L, userId, Money.ZERO)));
+        doThrow(new UnsafeOperationException("Превышен лимит переводов по карте за 1 мин"))
+                .when(velocityLimitService).reserveTransfer(userId, 1L, amount);
+
+        assertThrows(UnsafeOperationException.class,
+                () -> userCardService.transferFunds(new TransferRequestDto(1L, 2L, amount)));
+        verifyNoInteractions(postingService);
+    }
 
-        verify(cardRepository, times(2)).save(any(Card.class));
-        verify(transactionRepository, times(2)).save(any(Transaction.class));
+    @Test
+    void positiveTransferToCardNumber() {
+        Money amount = Money.ofMajor(50);
+        byte[] fingerprint = cardFingerprinter.fingerprint("4000001234567899");
+        when(cardRepository.findIdByNumberFingerprintAndHolderId(any(), eq(userId))).thenAnswer(invocation ->
+                Arrays.equals(fingerprint, invocation.getArgument(0)) ? Optional.of(2L) : Optional.empty());
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(createCard(1L, userId, Money.ofMajor(100))));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(createCard(2L, userId, Money.ZERO)));
+
+        userCardService.transferToCardNumber(new CardNumberTransferRequestDto(1L, "4000001234567899", amount));
+
+        verify(postingService).post(OperationType.TRANSFER, List.of(
+                PostingLeg.debit(1L, amount),
+                PostingLeg.credit(2L, amount)));
+        verifyNoInteractions(cardEncryptor);
+    }
+
+    @Test
+    void negativeTransferToUnknownCardNumber() {
+        when(cardRepository.findIdByNumberFingerprintAndHolderId(any(), eq(userId))).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> userCardService.transferToCardNumber(
+                new CardNumberTransferRequestDto(1L, "4000001234567899", Money.ofMajor(50))));
+        verifyNoInteractions(postingService, velocityLimitService);
     }
 
     @Test
     void negativeTransferNotEnoughFunds() {
         Long fromCardId = 1L;
         Long toCardId = 2L;
-        BigDecimal amount = BigDecimal.valueOf(150);
+        Money amount = Money.ofMajor(150);
 
-        Card fromCard = createCard(fromCardId, userId, BigDecimal.valueOf(100));
-        Card toCard = createCard(toCardId, userId, BigDecimal.valueOf(0));
+        Card fromCard = createCard(fromCardId, userId, Money.ofMajor(100));
+        Card toCard = createCard(toCardId, userId, Money.ofMajor(0));
 
         TransferRequestDto request = new TransferRequestDto(fromCardId, toCardId, amount);
 
@@ -107,35 +167,32 @@ class UserCardServiceTest {
 
         UnsafeOperationException ex = assertThrows(UnsafeOperationException.class, () -> userCardService.transferFunds(request));
         assertTrue(ex.getMessage().contains("Недостаточно средств"));
+        verifyNoInteractions(postingService);
     }
 
     @Test
     void positiveGetBalance() {
-        Card card = Card.builder()
-                .id(1L)
-                .holder(User.builder()
-                        .id(100L)
-                        .build())
-                .balance(BigDecimal.valueOf(123.45))
-                .encryptedNumber("encrypted")
-                .build();
+        CardSummaryView card = new CardSummaryView(1L, "encrypted", 100L, LocalDate.now().plusYears(2),
+                CardStatus.ACTIVE, Money.parse("123.45"));
 
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(cardRepository.findSummaryById(1L)).thenReturn(Optional.of(card));
         when(cardEncryptor.decrypt("encrypted")).thenReturn("1234567890123456");
 
         BalanceResponseDto balance = userCardService.getBalance(1L);
 
         assertEquals(1L, balance.cardId());
-        assertEquals(BigDecimal.valueOf(123.45), balance.balance());
+        assertEquals(Money.parse("123.45"), balance.balance());
         assertTrue(balance.maskedNum().startsWith("************"));
+        verify(cardRepository, never()).findById(any());
     }
 
     @Test
     void negativeGetBalanceAccessDenied() {
         Long cardId = 1L;
-        Card card = createCard(cardId, 999L, BigDecimal.valueOf(50));
+        CardSummaryView card = new CardSummaryView(cardId, "encrypted", 999L, LocalDate.now().plusYears(2),
+                CardStatus.ACTIVE, Money.ofMajor(50));
 
-        when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
+        when(cardRepository.findSummaryById(cardId)).thenReturn(Optional.of(card));
 
         assertThrows(AccessDeniedException.class, () -> userCardService.getBalance(cardId));
     }
@@ -143,7 +200,7 @@ class UserCardServiceTest {
     @Test
     void positiveBlockCard() {
         Long cardId = 1L;
-        Card card = createCard(cardId, userId, BigDecimal.ZERO);
+        Card card = createCard(cardId, userId, Money.ZERO);
 
         when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
         when(cardRepository.save(any())).thenAnswer(i -> i.getArgument(0));
@@ -152,12 +209,13 @@ class UserCardServiceTest {
 
         assertEquals(CardStatus.BLOCKED, card.getStatus());
         verify(cardRepository).save(card);
+        verify(auditJournal).recordAfterCommit(AuditAction.CARD_BLOCK_REQUEST, userId, cardId, null, null);
     }
 
     @Test
     void negativeBlockCardAccessDenied() {
         Long cardId = 1L;
-        Card card = createCard(cardId, 999L, BigDecimal.ZERO);
+        Card card = createCard(cardId, 999L, Money.ZERO);
 
         when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
 
@@ -166,21 +224,33 @@ class UserCardServiceTest {
 
     @Test
     void positiveGetCards() {
-        Card card = Card.builder()
-                .id(1L)
-                .balance(BigDecimal.valueOf(100))
-                .encryptedNumber("encrypted")
-                .build();
-
+        CardSummaryView card = new CardSummaryView(1L, "encrypted", userId, LocalDate.now().plusYears(2),
+                CardStatus.ACTIVE, Money.ofMajor(100));
 
-        Page<Card> page = new PageImpl<>(List.of(card));
-        when(cardRepository.findByHolderId(eq(userId), any(Pageable.class))).thenReturn(page);
+        Page<CardSummaryView> page = new PageImpl<>(List.of(card));
+        when(cardRepository.findSummariesByHolderId(eq(userId), any(Pageable.class))).thenReturn(page);
         when(cardEncryptor.decrypt("encrypted")).thenReturn("1234567890123456");
 
         Page<CardUserDto> result = userCardService.getMyCards(PageRequest.of(0, 10), null);
 
         assertEquals(1, result.getTotalElements());
         assertEquals("************3456", result.getContent().get(0).maskedNum());
+        assertEquals(Money.ofMajor(100), result.getContent().get(0).balance());
+    }
+
+    @Test
+    void positiveGetCardsSearchByDigits() {
+        CardSummaryView first = new CardSummaryView(1L, "enc1", userId, LocalDate.now(), CardStatus.ACTIVE, Money.ZERO);
+        CardSummaryView second = new CardSummaryView(2L, "enc2", userId, LocalDate.now(), CardStatus.ACTIVE, Money.ZERO);
+
+        when(cardRepository.findSummariesByHolderId(userId)).thenReturn(List.of(first, second));
+        when(cardEncryptor.decrypt("enc1")).thenReturn("1111222233334444");
+        when(cardEncryptor.decrypt("enc2")).thenReturn("5555666677778888");
+
+        Page<CardUserDto> result = userCardService.getMyCards(PageRequest.of(0, 10), "7777");
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(2L, result.getContent().get(0).id());
     }
 
     @Test
@@ -206,8 +276,48 @@ class UserCardServiceTest {
         assertEquals(fullCardNum, result.fullNumber());
     }
 
+    @Test
+    void positiveBalanceEtagFollowsVersion() {
+        when(cardRepository.findVersionByIdAndHolderId(1L, userId)).thenReturn(Optional.of(3L), Optional.of(4L));
+
+        String first = userCardService.getBalanceEtag(1L);
+        String second = userCardService.getBalanceEtag(1L);
+
+        assertEquals("W/\"b1-3\"", first);
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void negativeBalanceEtagForForeignCard() {
+        when(cardRepository.findVersionByIdAndHolderId(1L, userId)).thenReturn(Optional.empty());
+
+        assertNull(userCardService.getBalanceEtag(1L));
+    }
+
+    @Test
+    void positiveMyCardsEtagChangesWithCardVersions() {
+        CardVersionView v1 = cardVersion(1L, 0L);
+        CardVersionView v2 = cardVersion(1L, 1L);
+        when(cardRepository.findVersionsByHolderId(userId)).thenReturn(List.of(v1), List.of(v1), List.of(v2));
+        Pageable pageable = PageRequest.of(0, 10);
+
+        String first = userCardService.getMyCardsEtag(pageable, null);
+        String same = userCardService.getMyCardsEtag(pageable, null);
+        String changed = userCardService.getMyCardsEtag(pageable, null);
+
+        assertEquals(first, same);
+        assertNotEquals(first, changed);
+        assertTrue(first.startsWith("W/\""));
+    }
+
+    private CardVersionView cardVersion(Long id, Long version) {
+        CardVersionView view = mock(CardVersionView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getVersion()).thenReturn(version);
+        return view;
+    }
 
-    private Card createCard(Long id, Long holderId, BigDecimal balance) {
+    private Card createCard(Long id, Long holderId, Money balance) {
         banking.boby.entity.User user = banking.boby.entity.User.builder()
                 .id(holderId)
                 .build();
@@ -0,0 +1,195 @@
+package banking.boby.service;
+
+import banking.boby.config.VelocityLimitProperties;
+import banking.boby.exception.UnsafeOperationException;
+import banking.boby.money.Money;
+import banking.boby.velocity.SlidingWindow;
+import banking.boby.velocity.VelocityScope;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class VelocityLimitServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private VelocityLimitService velocityLimitService;
+
+    @BeforeEach
+    void setUp() {
+        VelocityLimitProperties properties = new VelocityLimitProperties();
+        properties.setLimits(List.of(
+                limit(VelocityScope.CARD, Duration.ofMinutes(1), 2, null),
+                limit(VelocityScope.USER, Duration.ofHours(24), 100, new BigDecimal("500.00"))));
+        jdbcTemplate = mock(JdbcTemplate.class);
+        velocityLimitService = new VelocityLimitService(properties, jdbcTemplate, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void positiveCountLimitPerCard() {
+        velocityLimitService.reserveTransfer(100L, 1L, Money.ofMajor(10));
+        velocityLimitService.reserveTransfer(100L, 1L, Money.ofMajor(10));
+
+        UnsafeOperationException ex = assertThrows(UnsafeOperationException.class,
+                () -> velocityLimitService.reserveTransfer(100L, 1L, Money.ofMajor(10)));
+        assertTrue(ex.getMessage().contains("по карте"));
+        assertDoesNotThrow(() -> velocityLimitService.reserveTransfer(100L, 2L, Money.ofMajor(10)));
+    }
+
+    @Test
+    void negativeAmountLimitPerUser() {
+        velocityLimitService.reserveTransfer(100L, 1L, Money.parse("300.00"));
+
+        UnsafeOperationException ex = assertThrows(UnsafeOperationException.class,
+                () -> velocityLimitService.reserveTransfer(100L, 2L, Money.parse("200.01")));
+        assertTrue(ex.getMessage().contains("по пользователю"));
+    }
+
+    @Test
+    void positiveRollbackReleasesReservation() {
+        TransactionSynchronizationManager.initSynchronization();
+        velocityLimitService.reserveTransfer(100L, 1L, Money.ofMajor(10));
+        velocityLimitService.reserveTransfer(100L, 1L, Money.ofMajor(10));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertDoesNotThrow(() -> velocityLimitService.reserveTransfer(100L, 1L, Money.ofMajor(10)));
+    }
+
+    @Test
+    void positiveReconcileLoadsOtherNodesTransfers() throws SQLException {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong("id")).thenReturn(1L, 2L);
+        when(row.getLong("user_id")).thenReturn(100L);
+        when(row.getLong("card_id")).thenReturn(1L);
+        when(row.getBigDecimal("amount")).thenReturn(BigDecimal.TEN);
+        when(row.getTimestamp("operation_date_time")).thenReturn(new Timestamp(System.currentTimeMillis()));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row);
+            handler.processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object.class));
+
+        velocityLimitService.reconcile();
+
+        assertThrows(UnsafeOperationException.class,
+                () -> velocityLimitService.reserveTransfer(100L, 1L, Money.ofMajor(10)));
+    }
+
+    @Test
+    void positiveReconcileSkipsOwnAndAlreadySeenTransfers() throws SQLException {
+        velocityLimitService.reserveTransfer(100L, 1L, Money.ofMajor(10));
+        ResultSet row = transferRow(7L, 1L, BigDecimal.TEN);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object.class));
+
+        velocityLimitService.reconcile();
+        velocityLimitService.reconcile();
+
+        assertDoesNotThrow(() -> velocityLimitService.reserveTransfer(100L, 1L, Money.ofMajor(10)));
+        assertThrows(UnsafeOperationException.class,
+                () -> velocityLimitService.reserveTransfer(100L, 1L, Money.ofMajor(10)));
+    }
+
+    @Test
+    void positiveReservationDuringReconcileIsKept() throws SQLException {
+        ResultSet row = transferRow(7L, 2L, BigDecimal.ONE);
+        doAnswer(invocation -> {
+            velocityLimitService.reserveTransfer(100L, 1L, Money.ofMajor(10));
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            velocityLimitService.reserveTransfer(100L, 1L, Money.ofMajor(10));
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object.class));
+
+        velocityLimitService.reconcile();
+
+        assertThrows(UnsafeOperationException.class,
+                () -> velocityLimitService.reserveTransfer(100L, 1L, Money.ofMajor(10)));
+    }
+
+    @Test
+    void positiveReconcileReadsIncrementally() {
+        velocityLimitService.reconcile();
+        long beforeSecond = System.currentTimeMillis();
+        velocityLimitService.reconcile();
+
+        verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class),
+                argThat((Object from) -> ((Timestamp) from).getTime()
+                        < System.currentTimeMillis() - Duration.ofHours(23).toMillis()));
+        verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class),
+                argThat((Object from) -> ((Timestamp) from).getTime()
+                        >= beforeSecond - Duration.ofMinutes(6).toMillis()));
+    }
+
+    @Test
+    void positiveSlidingWindowExpiresOldBuckets() {
+        SlidingWindow window = new SlidingWindow(60_000, 60);
+        window.add(1_000, 1, 500);
+        window.add(30_000, 1, 700);
+
+        assertEquals(2, window.count(59_999));
+        assertEquals(1200, window.amountCents(59_999));
+        assertEquals(1, window.count(61_000));
+        assertEquals(700, window.amountCents(61_000));
+        assertEquals(0, window.count(200_000));
+    }
+
+    @Test
+    void positiveSlidingWindowRemoveInsideWindowOnly() {
+        SlidingWindow window = new SlidingWindow(60_000, 60);
+        window.add(1_000, 1, 500);
+        window.remove(1_000, 1, 500);
+        assertEquals(0, window.count(2_000));
+
+        window.add(3_000, 1, 500);
+        window.remove(3_000 - 120_000, 1, 500);
+        assertEquals(1, window.count(4_000));
+    }
+
+    private ResultSet transferRow(long id, long cardId, BigDecimal amount) throws SQLException {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong("id")).thenReturn(id);
+        when(row.getLong("user_id")).thenReturn(100L);
+        when(row.getLong("card_id")).thenReturn(cardId);
+        when(row.getBigDecimal("amount")).thenReturn(amount);
+        when(row.getTimestamp("operation_date_time")).thenReturn(new Timestamp(System.currentTimeMillis()));
+        return row;
+    }
+
+    private VelocityLimitProperties.Limit limit(VelocityScope scope, Duration window, long maxCount,
+                                                BigDecimal maxAmount) {
+        VelocityLimitProperties.Limit limit = new VelocityLimitProperties.Limit();
+        limit.setScope(scope);
+        limit.setWindow(window);
+        limit.setBuckets(60);
+        limit.setMaxCount(maxCount);
+        limit.setMaxAmount(maxAmount);
+        return limit;
+    }
+}